@@ -32,7 +32,10 @@ public class JavaLanguage extends AbstractCodeLanguage {
   /** @see #getPackageFilename(CodePackage) */
   public static final String PACKAGE_INFO_JAVA = "package-info.java";
 
-  static final Pattern NAME_PATTERN = Pattern.compile("[\\$_\\w]+");
+  /** Filename of the module descriptor in Java. */
+  public static final String MODULE_INFO_JAVA = "module-info.java";
+
+  static final Pattern NAME_PATTERN = Pattern.compile("\\p{javaJavaIdentifierPart}+");
 
   static final Pattern NAME_PATTERN_PACKAGE = Pattern.compile("(\\pL|[$_])(\\pL|\\p{Nd}|[$_])*");
 
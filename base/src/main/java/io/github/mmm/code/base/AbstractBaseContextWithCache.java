@@ -4,9 +4,18 @@ package io.github.mmm.code.base;
 
 import java.io.File;
 import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 import org.slf4j.Logger;
@@ -15,8 +24,13 @@ import org.slf4j.LoggerFactory;
 import io.github.mmm.base.exception.DuplicateObjectException;
 import io.github.mmm.base.exception.ObjectMismatchException;
 import io.github.mmm.code.api.CodeName;
-import io.github.mmm.code.api.type.CodeType;
+import io.github.mmm.code.base.cache.BaseCache;
+import io.github.mmm.code.base.cache.BaseCacheConfig;
+import io.github.mmm.code.base.cache.BaseCacheListener;
 import io.github.mmm.code.base.loader.BaseLoader;
+import io.github.mmm.code.base.loader.BaseSourceLoader;
+import io.github.mmm.code.base.metrics.BaseContextListener;
+import io.github.mmm.code.base.metrics.BaseTypeOrigin;
 import io.github.mmm.code.base.source.BaseSource;
 import io.github.mmm.code.base.source.BaseSourceImpl;
 import io.github.mmm.code.base.source.BaseSourceProvider;
@@ -24,7 +38,25 @@ import io.github.mmm.code.base.type.BaseGenericType;
 import io.github.mmm.code.base.type.BaseType;
 
 /**
- * Extends {@link AbstractBaseContext} with caching to speed up lookups.
+ * Extends {@link AbstractBaseContext} with caching to speed up lookups.<br>
+ * The cache is safe for concurrent use: lookups of cached {@link BaseType}s and {@link BaseSource}s are lock-free and
+ * a {@link BaseType} is loaded only once per {@link BaseType#getQualifiedName() qualified name} even if requested by
+ * multiple threads at the same time. Loading different types in parallel only blocks on the same name (similar to a
+ * parallel capable {@link ClassLoader}).<br>
+ * By default the type cache is unbounded. Via {@link BaseCacheConfig} a context can be configured with a bounded cache
+ * that evicts least recently used {@link BaseType}s. The {@link BaseFile}s of evicted types are
+ * {@link BaseSourceLoader#detachFile(BaseFile) detached} from the package tree so they can be garbage collected. Evicted
+ * types that are still referenced from other cached types are restored when requested again, others are transparently
+ * reloaded via {@link #getLoader()}. {@link #isEvictable(BaseType) Mutable and pinned} types are never evicted.<br>
+ * Qualified names that could not be resolved are remembered in a negative cache so repeated lookups of unresolvable
+ * names do not hit the {@link #getLoader() loader} again. This negative cache is {@link #invalidateNegativeCache()
+ * invalidated} (including the negative caches of all child contexts) whenever a new {@link BaseSource} is registered.
+ * It only applies to lookups by name as {@link #getType(Class) classes} and {@link #getOrCreateType(String, boolean)
+ * created types} always exist.<br>
+ * A context with a {@link #getParent() parent} keeps a local read-through view of the types and sources it found in
+ * its ancestors so repeated lookups do not walk the parent chain. When an ancestor registers a new {@link BaseSource}
+ * or {@link #invalidateTypes(Collection) invalidates types}, it pushes the invalidation down to all its descendants
+ * that discard their view. Hence a lookup only needs to check the local view instead of the state of all ancestors.
  *
  * @author Joerg Hohwiller (hohwille at users.sourceforge.net)
  * @since 1.0.0
@@ -33,12 +65,39 @@ public abstract class AbstractBaseContextWithCache extends AbstractBaseContext {
 
   private static final Logger LOG = LoggerFactory.getLogger(AbstractBaseContextWithCache.class);
 
+  /** Actions of the current {@link Thread} deferred until it no longer holds any type lock. */
+  private static final ThreadLocal<DeferredActions> DEFERRED_ACTIONS = ThreadLocal.withInitial(DeferredActions::new);
+
   private Map<String, BaseType> typeCache;
 
+  private final ConcurrentMap<String, Set<String>> nestedTypeNames;
+
   private Map<String, BaseSource> sourceMap;
 
+  private final ConcurrentMap<String, Object> typeLocks;
+
+  private final ConcurrentMap<String, Object> sourceLocks;
+
   private BaseSourceProvider sourceProvider;
 
+  private final BaseCacheConfig cacheConfig;
+
+  private final Set<String> negativeCache;
+
+  private final AtomicLong negativeCacheHits;
+
+  private final AtomicLong negativeCacheMisses;
+
+  private volatile ParentView parentView;
+
+  private volatile BaseContextListener listener;
+
+  private volatile BaseContextListener effectiveListener;
+
+  private final Map<AbstractBaseContextWithCache, Boolean> children;
+
+  private volatile boolean registeredAtParent;
+
   /**
    * The constructor.
    *
@@ -57,25 +116,93 @@ public abstract class AbstractBaseContextWithCache extends AbstractBaseContext {
    */
   public AbstractBaseContextWithCache(BaseSourceImpl source, BaseSourceProvider sourceProvider) {
 
+    this(source, sourceProvider, BaseCacheConfig.UNBOUNDED);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param source the top-level {@link #getSource() source}.
+   * @param sourceProvider the {@link BaseSourceProvider}.
+   * @param cacheConfig the {@link BaseCacheConfig} for the cache of {@link BaseType}s.
+   */
+  public AbstractBaseContextWithCache(BaseSourceImpl source, BaseSourceProvider sourceProvider,
+      BaseCacheConfig cacheConfig) {
+
     super(source);
-    this.typeCache = createCache();
+    Objects.requireNonNull(cacheConfig, "cacheConfig");
+    this.cacheConfig = cacheConfig;
+    this.typeCache = createTypeCache(cacheConfig, new TypeCacheListener());
+    this.nestedTypeNames = new ConcurrentHashMap<>();
     this.sourceProvider = sourceProvider;
     if (this.sourceProvider != null) {
       this.sourceProvider.setContext(this);
     }
-    this.sourceMap = new HashMap<>();
+    this.sourceMap = new ConcurrentHashMap<>();
+    this.typeLocks = new ConcurrentHashMap<>();
+    this.sourceLocks = new ConcurrentHashMap<>();
+    this.negativeCache = ConcurrentHashMap.newKeySet();
+    this.negativeCacheHits = new AtomicLong();
+    this.negativeCacheMisses = new AtomicLong();
+    this.children = new WeakHashMap<>();
     registerSource(source);
   }
 
   /**
    * @param <K> key type.
    * @param <V> value type.
-   * @return a new empty {@link Map} instance to use as cache. May be a regular {@link HashMap} but can also be a full
-   *         blown cache implementation that will automatically evict old items if a specific size is reached.
+   * @return a new empty {@link Map} instance to use as cache. Has to be thread-safe so by default a
+   *         {@link ConcurrentHashMap} but can also be a full blown cache implementation that will automatically evict
+   *         old items if a specific size is reached. A regular {@link HashMap} may only be used if the context is
+   *         never accessed by multiple threads.
    */
   protected <K, V> Map<K, V> createCache() {
 
-    return new HashMap<>();
+    return new ConcurrentHashMap<>();
+  }
+
+  /**
+   * @param config the {@link BaseCacheConfig}.
+   * @param listener the {@link BaseCacheListener} to notify about evicted types or {@code null} for none.
+   * @return a new empty {@link Map} instance to use as cache for {@link BaseType}s. If the given
+   *         {@link BaseCacheConfig} is {@link BaseCacheConfig#isBounded() bounded} or uses
+   *         {@link BaseCacheConfig#isSoftValues() soft values} a {@link BaseCache} that only evicts
+   *         {@link #isEvictable(BaseType) evictable} types, otherwise {@link #createCache()}.
+   */
+  protected Map<String, BaseType> createTypeCache(BaseCacheConfig config, BaseCacheListener<BaseType> listener) {
+
+    if (config.isBounded() || config.isSoftValues()) {
+      return new BaseCache<>(config, this::isEvictable, listener);
+    }
+    return createCache();
+  }
+
+  /**
+   * @param type the cached {@link BaseType}.
+   * @return {@code true} if the given {@link BaseType} may be evicted from the cache and reloaded via
+   *         {@link #getLoader()} later, {@code false} if it has to be pinned. Mutable types are never evicted as
+   *         modifications would get lost. {@link BaseType#isNested() Nested types} are pinned as long as their
+   *         {@link BaseType#getDeclaringType() declaring type} is cached as they are reachable from there anyway.
+   *         Types that are still referenced by other cached types (e.g. as super type) stay reachable after eviction
+   *         and are {@link BaseCacheListener#onRestored(Object) restored} as the same instance when requested again.
+   */
+  protected boolean isEvictable(BaseType type) {
+
+    if (!type.isImmutable()) {
+      return false;
+    }
+    if (type.isNested()) {
+      return !this.typeCache.containsKey(type.getDeclaringType().getQualifiedName());
+    }
+    return true;
+  }
+
+  /**
+   * @return the {@link BaseCacheConfig} of the cache for {@link BaseType}s.
+   */
+  public BaseCacheConfig getCacheConfig() {
+
+    return this.cacheConfig;
   }
 
   /**
@@ -83,14 +210,69 @@ public abstract class AbstractBaseContextWithCache extends AbstractBaseContext {
    */
   protected abstract BaseLoader getLoader();
 
+  @Override
+  public BaseContextListener getListener() {
+
+    BaseContextListener result = this.effectiveListener;
+    if (result == null) {
+      result = this.listener;
+      if (result != null) {
+        this.effectiveListener = result;
+      } else {
+        result = super.getListener();
+        if (registerAtParent()) {
+          this.effectiveListener = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param listener the {@link BaseContextListener} to notify about type resolution and source parsing of this
+   *        context and its children. Use {@link BaseContextListener#of(BaseContextListener...)} to register multiple
+   *        listeners or {@code null} to inherit the {@link #getListener() listener} of the {@link #getParent() parent}.
+   *        Should be set when the context is set up as events that are concurrently in flight may still be sent to the
+   *        previous listener.
+   */
+  public void setListener(BaseContextListener listener) {
+
+    this.listener = listener;
+    refreshListener();
+  }
+
+  /**
+   * Discards the resolved {@link #getListener() listener} of this context and all its child contexts so it is resolved
+   * again on the next access.
+   */
+  private void refreshListener() {
+
+    this.effectiveListener = null;
+    for (AbstractBaseContextWithCache child : getChildren()) {
+      child.refreshListener();
+    }
+  }
+
+  private BaseType getTypeFromCacheAndNotify(String qualifiedName) {
+
+    BaseType type = getTypeFromCache(qualifiedName);
+    if (type == null) {
+      getListener().onCacheMiss(qualifiedName);
+    } else {
+      getListener().onCacheHit(qualifiedName);
+    }
+    return type;
+  }
+
   @Override
   public BaseType getOrCreateType(String qualifiedName, boolean add) {
 
     BaseType type = getType(qualifiedName);
     if (type == null) {
-      BaseFile file = getSource().getRootPackage().getChildren().getOrCreateFile(parseName(qualifiedName), add);
-      type = file.getType();
-      putTypeInCache(qualifiedName, type);
+      type = loadType(qualifiedName, () -> {
+        BaseFile file = getSource().getRootPackage().getChildren().getOrCreateFile(parseName(qualifiedName), add);
+        return file.getType();
+      }, BaseTypeOrigin.CREATED);
     }
     return type;
   }
@@ -98,24 +280,67 @@ public abstract class AbstractBaseContextWithCache extends AbstractBaseContext {
   @Override
   public BaseType getType(String qualifiedName) {
 
-    BaseType type = getTypeFromCache(qualifiedName);
+    BaseType type = getTypeFromCacheAndNotify(qualifiedName);
     if (type != null) {
       return type;
     }
-    type = getLoader().getType(qualifiedName);
-    return putTypeInCache(qualifiedName, type);
+    return getType(parseName(qualifiedName), qualifiedName);
   }
 
   @Override
   public BaseType getType(CodeName qName) {
 
     String qualifiedName = qName.getFullName();
-    BaseType type = getTypeFromCache(qualifiedName);
+    BaseType type = getTypeFromCacheAndNotify(qualifiedName);
     if (type != null) {
       return type;
     }
-    type = getLoader().getType(qName);
-    return putTypeInCache(qualifiedName, type);
+    return getType(qName, qualifiedName);
+  }
+
+  private BaseType getType(CodeName qName, String qualifiedName) {
+
+    CodeName declaringName = qName.getParent();
+    if (declaringName != null) {
+      BaseType declaringType = getTypeFromCache(declaringName.getFullName());
+      if (declaringType != null) {
+        BaseType nestedType = getNestedType(declaringType, qName);
+        if (nestedType != null) {
+          return nestedType;
+        }
+        return loadType(qualifiedName, () -> getLoader().getType(qName), BaseTypeOrigin.SOURCE);
+      }
+    }
+    return loadType(qualifiedName, () -> {
+      BaseType type = getLoader().getType(qName);
+      if ((type == null) && (declaringName != null)) {
+        // still holding the lock for the nested type so the name is only recorded as not found after this fallback
+        BaseType declaringType = getType(declaringName);
+        if (declaringType != null) {
+          type = (BaseType) declaringType.getNestedTypes().getDeclared(qName.getSimpleName());
+        }
+      }
+      return type;
+    }, BaseTypeOrigin.SOURCE);
+  }
+
+  /**
+   * Lazily resolves a {@link BaseType#isNested() nested type} from its {@link BaseType#getDeclaringType() declaring
+   * type} and registers it in the cache. Nested types are therefore only materialized on demand.
+   *
+   * @param declaringType the potential {@link BaseType#getDeclaringType() declaring type}.
+   * @param qName the {@link CodeName} of the requested nested type.
+   * @return the requested nested {@link BaseType} or {@code null} if not found.
+   */
+  private BaseType getNestedType(BaseType declaringType, CodeName qName) {
+
+    BaseType nestedType = (BaseType) declaringType.getNestedTypes().getDeclared(qName.getSimpleName());
+    if (nestedType == null) {
+      return null;
+    }
+    String qualifiedName = qName.getFullName();
+    this.negativeCache.remove(qualifiedName);
+    return putTypeInCache(qualifiedName, nestedType);
   }
 
   @Override
@@ -126,41 +351,402 @@ public abstract class AbstractBaseContextWithCache extends AbstractBaseContext {
       return componentType.createArray();
     }
     String qualifiedName = clazz.getName();
-    BaseGenericType type = getTypeFromCache(qualifiedName);
+    BaseGenericType type = getTypeFromCacheAndNotify(qualifiedName);
     if (type != null) {
       return type;
     }
-    type = getLoader().getType(clazz);
-    return putTypeInCache(qualifiedName, (BaseType) type);
+    return loadType(qualifiedName, () -> (BaseType) getLoader().getType(clazz), BaseTypeOrigin.REFLECTION);
+  }
+
+  /**
+   * Loads the {@link BaseType} with the given {@code qualifiedName} while holding the lock for that name so that
+   * concurrent requests for the same type wait for the first load instead of loading the type again. The lock is held
+   * until the result is published either in the type cache or in the negative cache so a thread waiting for the lock
+   * will not load the same missing name again.<br>
+   * <b>Lock order:</b> while holding the lock for a name, the lock for the name of the
+   * {@link BaseType#getDeclaringType() declaring type} (or of any other type referenced during loading) may be acquired
+   * and afterwards the monitor of the {@link BaseSource#getRootPackage() root package} used by the
+   * {@link BaseSourceLoader} to modify the package tree. Code holding the monitor of a root package must never resolve
+   * types via the context. Further, the lock of a declaring type is never held while requesting one of its nested types
+   * via the context.
+   *
+   * @param qualifiedName the {@link BaseType#getQualifiedName() qualified name} of the {@link BaseType} to load.
+   * @param loader the {@link Supplier} that actually loads the {@link BaseType}.
+   * @param origin the {@link BaseTypeOrigin} to report for a loaded type that has no
+   *        {@link BaseType#getReflectiveObject() reflective object}. Only for {@link BaseTypeOrigin#SOURCE} the
+   *        negative cache is used as otherwise the type always exists (from a {@link Class} or newly created).
+   * @return the cached or loaded {@link BaseType} or {@code null} if not found.
+   */
+  private BaseType loadType(String qualifiedName, Supplier<BaseType> loader, BaseTypeOrigin origin) {
+
+    DeferredActions deferredActions = DEFERRED_ACTIONS.get();
+    deferredActions.depth++;
+    BaseType type;
+    try {
+      type = loadTypeLocked(qualifiedName, loader, origin);
+    } finally {
+      deferredActions.depth--;
+    }
+    if (deferredActions.depth == 0) {
+      deferredActions.run();
+    }
+    return type;
+  }
+
+  private BaseType loadTypeLocked(String qualifiedName, Supplier<BaseType> loader, BaseTypeOrigin origin) {
+
+    boolean useNegativeCache = (origin == BaseTypeOrigin.SOURCE);
+    if (useNegativeCache && this.negativeCache.contains(qualifiedName)) {
+      this.negativeCacheHits.incrementAndGet();
+      getListener().onNegativeCacheHit(qualifiedName);
+      return null;
+    }
+    Object lock = getLock(this.typeLocks, qualifiedName);
+    try {
+      synchronized (lock) {
+        BaseType type = getTypeFromCache(qualifiedName);
+        if (type != null) {
+          return type;
+        }
+        if (useNegativeCache && this.negativeCache.contains(qualifiedName)) { // recorded while waiting for the lock
+          this.negativeCacheHits.incrementAndGet();
+          getListener().onNegativeCacheHit(qualifiedName);
+          return null;
+        }
+        long start = System.nanoTime();
+        type = loader.get();
+        long nanos = System.nanoTime() - start;
+        if (type == null) {
+          if (useNegativeCache) {
+            this.negativeCacheMisses.incrementAndGet();
+            registerAtParent();
+            this.negativeCache.add(qualifiedName);
+          }
+          LOG.trace("Failed to get type {}", qualifiedName);
+          getListener().onTypeNotFound(qualifiedName, nanos);
+          return null;
+        }
+        if (type.getReflectiveObject() != null) {
+          origin = BaseTypeOrigin.REFLECTION;
+        } else if (origin == BaseTypeOrigin.REFLECTION) {
+          origin = BaseTypeOrigin.SOURCE;
+        }
+        getListener().onTypeLoaded(qualifiedName, origin, nanos);
+        this.negativeCache.remove(qualifiedName); // e.g. created type or class not found by name before
+        return putTypeInCache(qualifiedName, type);
+      }
+    } finally {
+      releaseLock(this.typeLocks, qualifiedName, lock);
+    }
+  }
+
+  /**
+   * Runs the given action as soon as the current {@link Thread} no longer holds the lock of any type that is
+   * {@link #getType(String) loaded} by it (in any context). Use this for actions that may resolve further types (e.g.
+   * the eager initialization of a loaded type) as otherwise two threads loading types that reference each other would
+   * dead-lock.
+   *
+   * @param action the {@link Runnable} to run.
+   */
+  protected void runWithoutTypeLocks(Runnable action) {
+
+    DeferredActions deferredActions = DEFERRED_ACTIONS.get();
+    if (deferredActions.depth == 0) {
+      action.run();
+    } else {
+      deferredActions.actions.add(action);
+    }
+  }
+
+  /**
+   * @param locks the {@link ConcurrentMap} with the locks.
+   * @param key the key to get the lock for.
+   * @return the lock {@link Object} to synchronize on for the given {@code key}. As Java monitors are reentrant,
+   *         recursive requests for the same key from the same thread will not block.
+   */
+  private static Object getLock(ConcurrentMap<String, Object> locks, String key) {
+
+    Object lock = new Object();
+    Object existing = locks.putIfAbsent(key, lock);
+    if (existing != null) {
+      return existing;
+    }
+    return lock;
+  }
+
+  /**
+   * Removes the lock after the guarded operation completed and its result has been published so it does not leak.
+   * Threads arriving later will find the result in the cache (or the negative cache) before asking for a lock.
+   *
+   * @param locks the {@link ConcurrentMap} with the locks.
+   * @param key the key of the lock.
+   * @param lock the lock from {@link #getLock(ConcurrentMap, String)}.
+   */
+  private static void releaseLock(ConcurrentMap<String, Object> locks, String key, Object lock) {
+
+    if (!Thread.holdsLock(lock)) { // only when leaving the outermost (non-recursive) invocation
+      locks.remove(key, lock);
+    }
   }
 
   @Override
   protected BaseType getTypeFromCache(String qualifiedName) {
 
+    BaseType type = this.typeCache.get(qualifiedName);
+    if (type != null) {
+      return type;
+    }
     AbstractBaseContext parent = getParent();
-    if (parent != null) {
-      BaseType type = parent.getTypeFromCache(qualifiedName);
+    if (parent == null) {
+      return null;
+    }
+    ParentView view = getParentView();
+    type = view.types.get(qualifiedName);
+    if (type == null) {
+      type = parent.getTypeFromCache(qualifiedName);
       if (type != null) {
-        return type;
+        view.types.put(qualifiedName, type);
       }
     }
-    return this.typeCache.get(qualifiedName);
+    return type;
+  }
+
+  /**
+   * @return the current {@link ParentView}. Will be created if it does not exist or has been
+   *         {@link #invalidateChildViews() discarded}.
+   */
+  private ParentView getParentView() {
+
+    ParentView view = this.parentView;
+    if (view == null) {
+      registerAtParent();
+      view = new ParentView(createTypeCache(this.cacheConfig, null));
+      this.parentView = view;
+    }
+    return view;
+  }
+
+  /**
+   * Discards the read-through views of all descendant contexts. Has to be called whenever types or sources that have
+   * been cached may have become stale.
+   */
+  protected void invalidateChildViews() {
+
+    for (AbstractBaseContextWithCache child : getChildren()) {
+      child.parentView = null;
+      child.invalidateChildViews();
+    }
   }
 
   private BaseType putTypeInCache(String qualifiedName, BaseType type) {
 
-    if (type != null) {
-      this.typeCache.put(qualifiedName, type);
-      // TODO prevent eager init...?
-      for (CodeType nested : type.getNestedTypes().getDeclared()) {
-        putTypeInCache(nested.getQualifiedName(), (BaseType) nested);
+    BaseType existing = this.typeCache.putIfAbsent(qualifiedName, type);
+    if (existing != null) {
+      return existing;
+    }
+    if (type.isNested()) {
+      BaseType topLevelType = type.getDeclaringType();
+      while (topLevelType.isNested()) {
+        topLevelType = topLevelType.getDeclaringType();
       }
-    } else {
-      LOG.trace("Failed to get type {}", qualifiedName);
+      this.nestedTypeNames.computeIfAbsent(topLevelType.getQualifiedName(), k -> ConcurrentHashMap.newKeySet())
+          .add(qualifiedName);
     }
     return type;
   }
 
+  /**
+   * Invalidates the negative cache of qualified names that could not be resolved in this context and all its child
+   * contexts. Has to be called whenever types may have become available that previously could not be found (e.g. when
+   * source code or byte code was added). Is called automatically when a new {@link BaseSource} is registered.
+   */
+  public void invalidateNegativeCache() {
+
+    if (!this.negativeCache.isEmpty()) {
+      LOG.debug("Invalidating negative cache with {} entries.", this.negativeCache.size());
+      this.negativeCache.clear();
+    }
+    for (AbstractBaseContextWithCache child : getChildren()) {
+      child.invalidateNegativeCache();
+    }
+  }
+
+  /**
+   * Registers this context at its nearest {@link AbstractBaseContextWithCache} ancestor (if any) so that ancestor can
+   * push invalidations down to this context. Happens lazily as {@link #getParent()} may not be available during
+   * construction.
+   *
+   * @return {@code true} if this context is registered at its ancestor, {@code false} if there is no such ancestor
+   *         (yet).
+   */
+  private boolean registerAtParent() {
+
+    if (this.registeredAtParent) {
+      return true;
+    }
+    AbstractBaseContext ancestor = getParent();
+    while ((ancestor != null) && !(ancestor instanceof AbstractBaseContextWithCache)) {
+      ancestor = ancestor.getParent();
+    }
+    if (ancestor != null) {
+      Map<AbstractBaseContextWithCache, Boolean> parentChildren = ((AbstractBaseContextWithCache) ancestor).children;
+      synchronized (parentChildren) {
+        parentChildren.put(this, Boolean.TRUE);
+      }
+      this.registeredAtParent = true;
+    }
+    return this.registeredAtParent;
+  }
+
+  /**
+   * @return a copy of the child contexts that {@link #registerAtParent() registered} at this context and are not yet
+   *         garbage collected.
+   */
+  private List<AbstractBaseContextWithCache> getChildren() {
+
+    synchronized (this.children) {
+      if (this.children.isEmpty()) {
+        return List.of();
+      }
+      return new ArrayList<>(this.children.keySet());
+    }
+  }
+
+  /**
+   * Invalidates the given types (e.g. because their source-code has been changed, added or deleted) so they will be
+   * loaded again on the next access. This includes their nested types and the according entries of the negative
+   * cache. Cached nested types are indexed by their top-level type so the effort does not depend on the cache size.
+   *
+   * @param qualifiedNames the {@link BaseType#getQualifiedName() qualified names} of the top-level types to
+   *        invalidate.
+   * @return the number of {@link BaseType}s that have been removed from the cache.
+   */
+  public int invalidateTypes(Collection<String> qualifiedNames) {
+
+    if (qualifiedNames.isEmpty()) {
+      return 0;
+    }
+    Set<String> names = new HashSet<>(qualifiedNames);
+    removeFromNegativeCache(names);
+    int count = 0;
+    for (String name : names) {
+      if (this.typeCache.remove(name) != null) {
+        count++;
+      }
+      Set<String> nestedNames = this.nestedTypeNames.remove(name);
+      if (nestedNames != null) {
+        for (String nestedName : nestedNames) {
+          if (this.typeCache.remove(nestedName) != null) {
+            count++;
+          }
+        }
+      }
+    }
+    invalidateChildViews();
+    LOG.debug("Invalidated {} cached types for {} changed types.", Integer.valueOf(count),
+        Integer.valueOf(names.size()));
+    return count;
+  }
+
+  private void removeFromNegativeCache(Set<String> names) {
+
+    this.negativeCache.removeIf(name -> isAffected(name, names));
+    for (AbstractBaseContextWithCache child : getChildren()) {
+      child.removeFromNegativeCache(names);
+    }
+  }
+
+  private static boolean isAffected(String qualifiedName, Set<String> names) {
+
+    String name = qualifiedName;
+    while (true) {
+      if (names.contains(name)) {
+        return true;
+      }
+      int lastDot = name.lastIndexOf('.');
+      if (lastDot < 0) {
+        return false;
+      }
+      name = name.substring(0, lastDot);
+    }
+  }
+
+  /**
+   * {@link io.github.mmm.code.base.loader.BaseSourceLoader#release(long) Releases} the resources (e.g. open archives)
+   * of all {@link BaseSource}s registered in this context that have been idle for the given time. Released resources
+   * are reacquired transparently on the next access.
+   *
+   * @param idleNanos the minimum idle time in nanoseconds. Use {@code 0} to release all resources that are currently
+   *        not in use.
+   * @return the number of {@link BaseSource}s that released resources.
+   */
+  public int releaseIdleSources(long idleNanos) {
+
+    Map<String, BaseSource> sources = this.sourceMap;
+    if (sources == null) {
+      return 0; // closed
+    }
+    int count = 0;
+    for (BaseSource src : sources.values()) {
+      BaseSourceLoader loader = src.getLoader();
+      if ((loader != null) && loader.release(idleNanos)) {
+        count++;
+      }
+    }
+    if (count > 0) {
+      LOG.debug("Released resources of {} idle sources.", Integer.valueOf(count));
+    }
+    return count;
+  }
+
+  /**
+   * @return the number of {@link BaseType}s currently cached in this context (excluding the {@link #getParent()
+   *         parent}).
+   */
+  public int getTypeCacheSize() {
+
+    return this.typeCache.size();
+  }
+
+  /**
+   * @return the number of {@link BasePackage packages} and {@link BaseFile files} currently loaded in the package trees
+   *         of the {@link BaseSource}s registered in this context (excluding the {@link #getParent() parent}).
+   * @see BasePathElements#getLoadedElementCount()
+   */
+  public int getPathElementCount() {
+
+    Map<String, BaseSource> sources = this.sourceMap;
+    if (sources == null) {
+      return 0; // closed
+    }
+    int count = 0;
+    for (BaseSource src : sources.values()) {
+      BasePackage root = src.getRootPackage();
+      synchronized (root) {
+        count = count + root.getChildren().getLoadedElementCount();
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @return the number of lookups answered from the negative cache that therefore did not need to ask the
+   *         {@link #getLoader() loader} again.
+   */
+  public long getNegativeCacheHits() {
+
+    return this.negativeCacheHits.get();
+  }
+
+  /**
+   * @return the number of lookups where the {@link #getLoader() loader} failed to resolve the type and the qualified
+   *         name was added to the negative cache.
+   */
+  public long getNegativeCacheMisses() {
+
+    return this.negativeCacheMisses.get();
+  }
+
   /**
    * This is an internal method that should only be used from implementations of {@link BaseSourceProvider}.
    *
@@ -180,8 +766,7 @@ public abstract class AbstractBaseContextWithCache extends AbstractBaseContext {
     BaseSource source = getSource(id);
     if (source == null) {
       verifyCreateSource(id);
-      source = this.sourceProvider.create(byteCodeLocation, sourceCodeLocation);
-      registerSource(source);
+      source = createSource(id, () -> this.sourceProvider.create(byteCodeLocation, sourceCodeLocation));
     }
     return source;
   }
@@ -206,8 +791,7 @@ public abstract class AbstractBaseContextWithCache extends AbstractBaseContext {
       source = getSource(id);
     }
     if (source == null) {
-      source = this.sourceProvider.create(codeSource);
-      registerSource(source);
+      source = createSource(id, () -> this.sourceProvider.create(codeSource));
     }
     return source;
   }
@@ -228,16 +812,43 @@ public abstract class AbstractBaseContextWithCache extends AbstractBaseContext {
       if (isPreventRegisterSource()) {
         verifyCreateSource(id);
       }
-      source = sourceSupplier.get();
-      Objects.requireNonNull(source, "source");
-      if (!source.getId().equals(id)) {
-        throw new ObjectMismatchException(source.getId(), id);
-      }
-      registerSource(source);
+      source = createSource(id, () -> {
+        BaseSource newSource = sourceSupplier.get();
+        Objects.requireNonNull(newSource, "source");
+        if (!newSource.getId().equals(id)) {
+          throw new ObjectMismatchException(newSource.getId(), id);
+        }
+        return newSource;
+      });
     }
     return source;
   }
 
+  /**
+   * Creates and registers a new {@link BaseSource} while holding the lock for the
+   * given {@code id} so concurrent requests for the same source will not create duplicates.
+   *
+   * @param id the {@link BaseSource#getId() ID} of the requested source.
+   * @param sourceSupplier the {@link Supplier} used as factory to {@link Supplier#get() create} the source.
+   * @return the existing or newly created {@link BaseSource}.
+   */
+  private BaseSource createSource(String id, Supplier<BaseSource> sourceSupplier) {
+
+    Object lock = getLock(this.sourceLocks, id);
+    try {
+      synchronized (lock) {
+        BaseSource source = getSource(id);
+        if (source == null) {
+          source = sourceSupplier.get();
+          registerSource(source);
+        }
+        return source;
+      }
+    } finally {
+      releaseLock(this.sourceLocks, id, lock);
+    }
+  }
+
   /**
    * @return {@code true} if {@link #getOrCreateSource(String, Supplier)} may not be called to register a new source,
    *         {@code false} otherwise.
@@ -260,10 +871,13 @@ public abstract class AbstractBaseContextWithCache extends AbstractBaseContext {
 
   private void registerSource(BaseSource source) {
 
-    BaseSource duplicate = this.sourceMap.put(source.getId(), source);
+    BaseSource duplicate = this.sourceMap.putIfAbsent(source.getId(), source);
     if (duplicate != null) {
       throw new DuplicateObjectException(source, source.getId(), duplicate);
     }
+    invalidateNegativeCache();
+    invalidateChildViews();
+    getListener().onSourceRegistered(source);
   }
 
   @Override
@@ -273,9 +887,16 @@ public abstract class AbstractBaseContextWithCache extends AbstractBaseContext {
     if (source != null) {
       return source;
     }
-    BaseContext parent = getParent();
+    AbstractBaseContext parent = getParent();
     if (parent != null) {
-      source = parent.getSource(id);
+      ParentView view = getParentView();
+      source = view.sources.get(id);
+      if (source == null) {
+        source = parent.getSource(id);
+        if (source != null) {
+          view.sources.put(id, source);
+        }
+      }
     }
     return source;
   }
@@ -284,12 +905,87 @@ public abstract class AbstractBaseContextWithCache extends AbstractBaseContext {
   public void close() {
 
     super.close();
+    invalidateChildViews();
+    this.parentView = null;
     this.typeCache = null;
+    this.nestedTypeNames.clear();
+    BaseContextListener contextListener = getListener();
     for (BaseSource src : this.sourceMap.values()) {
       src.close();
+      contextListener.onSourceClosed(src);
     }
     this.sourceMap = null;
     this.sourceProvider = null;
   }
 
+  /**
+   * {@link BaseCacheListener} that detaches the {@link BaseFile}s of evicted top-level types from the package tree and
+   * attaches them again when restored.
+   */
+  private static class TypeCacheListener implements BaseCacheListener<BaseType> {
+
+    @Override
+    public void onEvicted(BaseType type) {
+
+      if (!type.isNested()) {
+        BaseSourceLoader loader = type.getSource().getLoader();
+        if (loader != null) {
+          loader.detachFile(type.getFile());
+        }
+      }
+    }
+
+    @Override
+    public void onRestored(BaseType type) {
+
+      if (!type.isNested()) {
+        BaseSourceLoader loader = type.getSource().getLoader();
+        if (loader != null) {
+          loader.attachFile(type.getFile());
+        }
+      }
+    }
+  }
+
+  /** The actions {@link #runWithoutTypeLocks(Runnable) deferred} by a single {@link Thread}. */
+  private static class DeferredActions {
+
+    private final List<Runnable> actions = new ArrayList<>();
+
+    private int depth;
+
+    private void run() {
+
+      while (!this.actions.isEmpty()) {
+        List<Runnable> pending = new ArrayList<>(this.actions);
+        this.actions.clear();
+        for (Runnable action : pending) {
+          try {
+            action.run();
+          } catch (RuntimeException e) {
+            LOG.warn("Deferred action failed: {}", e.toString(), e);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Read-through view on the cached data of the {@link #getParent() parent} until
+   * {@link #invalidateChildViews() invalidated}.
+   */
+  private static class ParentView {
+
+    private final Map<String, BaseType> types;
+
+    private final Map<String, BaseSource> sources;
+
+    private ParentView(Map<String, BaseType> types) {
+
+      super();
+      this.types = types;
+      this.sources = new ConcurrentHashMap<>();
+    }
+  }
+
 }
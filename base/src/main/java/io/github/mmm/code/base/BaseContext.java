@@ -7,6 +7,7 @@ import java.lang.reflect.Type;
 import io.github.mmm.code.api.CodeContext;
 import io.github.mmm.code.api.element.CodeElementWithDeclaringType;
 import io.github.mmm.code.api.type.CodeGenericType;
+import io.github.mmm.code.base.metrics.BaseContextListener;
 import io.github.mmm.code.base.source.BaseSource;
 import io.github.mmm.code.base.type.BaseGenericType;
 import io.github.mmm.code.base.type.BaseType;
@@ -80,4 +81,18 @@ public interface BaseContext extends CodeContext, BaseProvider {
   @Override
   BaseContext createChildContext();
 
+  /**
+   * @return the {@link BaseContextListener} notified about type resolution and source parsing. By default the
+   *         {@link BaseContextListener} of the {@link #getParent() parent}. Never {@code null}.
+   * @see io.github.mmm.code.base.metrics.BaseContextMetrics
+   */
+  default BaseContextListener getListener() {
+
+    BaseContext parent = getParent();
+    if (parent == null) {
+      return BaseContextListener.NONE;
+    }
+    return parent.getListener();
+  }
+
 }
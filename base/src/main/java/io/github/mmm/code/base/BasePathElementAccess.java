@@ -23,6 +23,16 @@ public class BasePathElementAccess {
     pathElements.addInternal(item);
   }
 
+  /**
+   * @param pathElements the {@link BasePathElements} where to remove from.
+   * @param item the {@link BasePathElement} to remove.
+   * @return {@code true} if the item was removed, {@code false} if not contained.
+   */
+  protected static boolean removePathElementInternal(BasePathElements pathElements, BasePathElement item) {
+
+    return pathElements.removeInternal(item);
+  }
+
   /**
    * <b>Attention:</b> This is an internal API that should not be used from outside.
    *
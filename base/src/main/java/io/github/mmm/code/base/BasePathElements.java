@@ -133,6 +133,12 @@ public class BasePathElements extends BaseNodeItemContainerFlat<CodePathElement>
     super.addInternal(item);
   }
 
+  @Override
+  protected boolean removeInternal(CodePathElement item) {
+
+    return super.removeInternal(item);
+  }
+
   @Override
   protected CodePathElement ensureParent(CodePathElement item) {
 
@@ -406,6 +412,24 @@ public class BasePathElements extends BaseNodeItemContainerFlat<CodePathElement>
     return containsPackage(child.getParentPackage());
   }
 
+  /**
+   * @return the total number of {@link BasePackage packages} and {@link BaseFile files} currently contained in this
+   *         container and recursively in its sub-packages. Does not {@link #initialize() initialize} anything so elements
+   *         that have not been loaded yet are not counted. Callers have to synchronize on the root package if the tree
+   *         may be modified concurrently.
+   */
+  public int getLoadedElementCount() {
+
+    int count = 0;
+    for (CodePathElement child : getList()) {
+      count++;
+      if (!child.isFile()) {
+        count = count + ((BasePackage) child).getChildren().getLoadedElementCount();
+      }
+    }
+    return count;
+  }
+
   @Override
   public BasePathElements copy() {
 
@@ -57,7 +57,7 @@ public abstract class BaseBlock extends BaseNodeItem implements CodeBlock {
   public BaseBlock(BaseBlock template, CodeCopyMapper mapper) {
 
     super(template, mapper);
-    this.statements = new ArrayList<>(template.statements);
+    this.statements = new ArrayList<>(template.getStatements());
   }
 
   @Override
@@ -69,12 +69,13 @@ public abstract class BaseBlock extends BaseNodeItem implements CodeBlock {
   @Override
   public CodeVariable getVariable(String name, int statementIndex) {
 
-    int max = this.statements.size() - 1;
+    List<CodeStatement> list = getStatements();
+    int max = list.size() - 1;
     if (statementIndex < max) {
       max = statementIndex;
     }
     for (int i = 0; i <= max; i++) {
-      CodeStatement statement = this.statements.get(i);
+      CodeStatement statement = list.get(i);
       CodeVariable variable = statement.getVariable(name);
       if (variable != null) {
         return variable;
@@ -107,8 +108,9 @@ public abstract class BaseBlock extends BaseNodeItem implements CodeBlock {
   public void add(CodeStatement... codeStatements) {
 
     verifyMutalbe();
+    List<CodeStatement> list = getStatements();
     for (CodeStatement statement : codeStatements) {
-      this.statements.add(statement);
+      list.add(statement);
     }
   }
 
@@ -116,16 +118,18 @@ public abstract class BaseBlock extends BaseNodeItem implements CodeBlock {
   public void addText(String... textStatements) {
 
     verifyMutalbe();
+    List<CodeStatement> list = getStatements();
     for (String statement : textStatements) {
-      this.statements.add(new BaseTextStatement(statement));
+      list.add(new BaseTextStatement(statement));
     }
   }
 
   @Override
   protected void doWrite(Appendable sink, String newline, String defaultIndent, String currentIndent, CodeLanguage language) throws IOException {
 
-    if (this.statements.size() == 1) {
-      CodeStatement statement = this.statements.get(0);
+    List<CodeStatement> list = getStatements();
+    if (list.size() == 1) {
+      CodeStatement statement = list.get(0);
       if (statement instanceof CodeReturnStatement) {
         if (((CodeReturnStatement) statement).isOmitReturn()) {
           statement.write(sink, newline, defaultIndent, currentIndent);
@@ -134,7 +138,7 @@ public abstract class BaseBlock extends BaseNodeItem implements CodeBlock {
       }
     }
     writePrefix(sink, newline, defaultIndent, currentIndent);
-    if (this.statements.isEmpty()) {
+    if (list.isEmpty()) {
       sink.append("{}");
     } else {
       sink.append('{');
@@ -143,7 +147,7 @@ public abstract class BaseBlock extends BaseNodeItem implements CodeBlock {
       if (defaultIndent != null) {
         newIndent = currentIndent + defaultIndent;
       }
-      for (CodeStatement statement : this.statements) {
+      for (CodeStatement statement : list) {
         statement.write(sink, newline, defaultIndent, newIndent);
       }
       sink.append(currentIndent);
@@ -0,0 +1,67 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.block;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import io.github.mmm.code.api.node.CodeFunction;
+import io.github.mmm.code.api.statement.CodeStatement;
+
+/**
+ * Implementation of {@link BaseBlockBody} with lazy-loaded {@link #getStatements() statements}. A parser only records
+ * where the body is located in the source-code and creates the statements on first access via the given
+ * {@link Supplier}. As most consumers never inspect the bodies, this saves the according time and memory.
+ *
+ * @since 1.0.0
+ */
+public class BaseBlockBodyLazy extends BaseBlockBody {
+
+  private volatile Supplier<List<CodeStatement>> statementsSupplier;
+
+  /**
+   * The constructor.
+   *
+   * @param parent the {@link #getParent() parent}.
+   * @param statementsSupplier the {@link Supplier} of the lazy-loaded {@link #getStatements() statements}.
+   */
+  public BaseBlockBodyLazy(CodeFunction parent, Supplier<List<CodeStatement>> statementsSupplier) {
+
+    super(parent);
+    Objects.requireNonNull(statementsSupplier, "statementsSupplier");
+    this.statementsSupplier = statementsSupplier;
+  }
+
+  /**
+   * @return {@code true} if the {@link #getStatements() statements} have already been loaded, {@code false}
+   *         otherwise.
+   */
+  public boolean isLoaded() {
+
+    return (this.statementsSupplier == null);
+  }
+
+  @Override
+  public List<CodeStatement> getStatements() {
+
+    if (this.statementsSupplier != null) {
+      synchronized (this) {
+        Supplier<List<CodeStatement>> supplier = this.statementsSupplier;
+        if (supplier != null) {
+          super.getStatements().addAll(supplier.get());
+          this.statementsSupplier = null;
+        }
+      }
+    }
+    return super.getStatements();
+  }
+
+  @Override
+  protected void doSetImmutable() {
+
+    getStatements();
+    super.doSetImmutable();
+  }
+
+}
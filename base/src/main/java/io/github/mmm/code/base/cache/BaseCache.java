@@ -0,0 +1,486 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.cache;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Thread-safe bounded cache with (approximated) least recently used eviction. Lookups are lock-free and only record
+ * the logical time of access (a counter advanced with every write so the order does not depend on the resolution of
+ * the system clock). When the {@link BaseCacheConfig#getMaxSize() maximum size} is exceeded, the writing thread evicts
+ * the least recently used {@link Predicate#test(Object) evictable} entry out of a sample of the next
+ * {@value #SAMPLE_SIZE} entries visited by a cursor that cycles through the cache. Hence the work per write is bounded
+ * and caches with up to {@value #SAMPLE_SIZE} entries evict exactly the least recently used entry. Values that are not
+ * evictable are pinned and are never evicted nor {@link BaseCacheConfig#isSoftValues() softly referenced}. Note that
+ * the {@link BaseCacheListener} is not notified if the garbage collector clears a softly referenced value.<br>
+ * Evicted values are only {@link WeakReference weakly referenced} afterwards and the {@link BaseCacheListener} is
+ * {@link BaseCacheListener#onEvicted(Object) notified} so it can release other references. As long as an evicted
+ * value is still referenced from elsewhere (e.g. a type that is the super type of a cached type) it therefore stays
+ * pinned in memory and a lookup {@link BaseCacheListener#onRestored(Object) restores} the same instance instead of
+ * creating a duplicate.
+ *
+ * @param <K> type of the keys.
+ * @param <V> type of the values.
+ * @since 1.0.0
+ */
+public class BaseCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BaseCache.class);
+
+  /** The number of entries to inspect for a single eviction. */
+  public static final int SAMPLE_SIZE = 32;
+
+  private final ConcurrentHashMap<K, Node<V>> map;
+
+  private final ConcurrentHashMap<K, Evicted<K, V>> evicted;
+
+  private final ReferenceQueue<V> evictedQueue;
+
+  private final BaseCacheConfig config;
+
+  private final Predicate<V> evictable;
+
+  private final BaseCacheListener<V> listener;
+
+  private final AtomicBoolean evicting;
+
+  private final AtomicLong clock;
+
+  /** Cursor cycling through the entries for eviction. Only accessed while {@link #evicting} is set. */
+  private Iterator<Map.Entry<K, Node<V>>> cursor;
+
+  private Set<Entry<K, V>> entrySet;
+
+  /**
+   * The constructor.
+   *
+   * @param config the {@link BaseCacheConfig}.
+   * @param evictable the {@link Predicate} that decides if a value may be evicted. Non evictable values are pinned.
+   */
+  public BaseCache(BaseCacheConfig config, Predicate<V> evictable) {
+
+    this(config, evictable, null);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param config the {@link BaseCacheConfig}.
+   * @param evictable the {@link Predicate} that decides if a value may be evicted. Non evictable values are pinned.
+   * @param listener the {@link BaseCacheListener} to notify about evicted and restored values or {@code null} for
+   *        none.
+   */
+  public BaseCache(BaseCacheConfig config, Predicate<V> evictable, BaseCacheListener<V> listener) {
+
+    super();
+    Objects.requireNonNull(config, "config");
+    Objects.requireNonNull(evictable, "evictable");
+    this.map = new ConcurrentHashMap<>();
+    this.evicted = new ConcurrentHashMap<>();
+    this.evictedQueue = new ReferenceQueue<>();
+    this.config = config;
+    this.evictable = evictable;
+    if (listener == null) {
+      this.listener = new BaseCacheListener<>() {
+      };
+    } else {
+      this.listener = listener;
+    }
+    this.evicting = new AtomicBoolean();
+    this.clock = new AtomicLong();
+  }
+
+  /**
+   * @return the {@link BaseCacheConfig}.
+   */
+  public BaseCacheConfig getConfig() {
+
+    return this.config;
+  }
+
+  @Override
+  public int size() {
+
+    return this.map.size();
+  }
+
+  /**
+   * @param key the key to check.
+   * @return {@code true} if the given key is currently cached, {@code false} otherwise. In contrast to
+   *         {@link #get(Object)} this will neither update the time of access nor restore an evicted value.
+   */
+  @Override
+  public boolean containsKey(Object key) {
+
+    Node<V> node = this.map.get(key);
+    return (node != null) && (node.peek() != null);
+  }
+
+  @Override
+  public V get(Object key) {
+
+    Node<V> node = this.map.get(key);
+    if (node == null) {
+      return restore(key);
+    }
+    V value = node.get(this.clock.get());
+    if (value == null) { // softly referenced value was garbage collected
+      this.map.remove(key, node);
+    }
+    return value;
+  }
+
+  private V restore(Object key) {
+
+    if (this.evicted.isEmpty()) {
+      return null;
+    }
+    Evicted<K, V> reference = this.evicted.get(key);
+    if (reference == null) {
+      return null;
+    }
+    V value = reference.get();
+    if (value == null) { // garbage collected
+      this.evicted.remove(key, reference);
+      return null;
+    }
+    Node<V> existing = this.map.putIfAbsent(reference.key, createNode(value));
+    if (existing != null) {
+      return existing.get(this.clock.get()); // restored concurrently or not yet removed by eviction
+    }
+    this.evicted.remove(key, reference);
+    this.listener.onRestored(value);
+    evictIfRequired();
+    return value;
+  }
+
+  @Override
+  public V put(K key, V value) {
+
+    Node<V> old = this.map.put(key, createNode(value));
+    this.evicted.remove(key);
+    evictIfRequired();
+    if (old == null) {
+      return null;
+    }
+    return old.peek();
+  }
+
+  @Override
+  public V putIfAbsent(K key, V value) {
+
+    V restored = restore(key);
+    if (restored != null) {
+      return restored;
+    }
+    Node<V> node = createNode(value);
+    while (true) {
+      Node<V> existing = this.map.putIfAbsent(key, node);
+      if (existing == null) {
+        evictIfRequired();
+        return null;
+      }
+      V existingValue = existing.get(this.clock.get());
+      if (existingValue != null) {
+        return existingValue;
+      }
+      if (this.map.replace(key, existing, node)) {
+        return null;
+      }
+    }
+  }
+
+  @Override
+  public V remove(Object key) {
+
+    this.evicted.remove(key);
+    Node<V> old = this.map.remove(key);
+    if (old == null) {
+      return null;
+    }
+    return old.peek();
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+
+    this.evicted.remove(key);
+    Node<V> node = this.map.get(key);
+    if ((node != null) && Objects.equals(node.peek(), value)) {
+      return this.map.remove(key, node);
+    }
+    return false;
+  }
+
+  @Override
+  public boolean replace(K key, V oldValue, V newValue) {
+
+    Node<V> node = this.map.get(key);
+    if ((node != null) && Objects.equals(node.peek(), oldValue)) {
+      return this.map.replace(key, node, createNode(newValue));
+    }
+    return false;
+  }
+
+  @Override
+  public V replace(K key, V value) {
+
+    Node<V> old = this.map.replace(key, createNode(value));
+    if (old == null) {
+      return null;
+    }
+    return old.peek();
+  }
+
+  @Override
+  public void clear() {
+
+    this.map.clear();
+    this.evicted.clear();
+  }
+
+  /**
+   * @return the number of evicted values that are still {@link WeakReference weakly referenced} and can be
+   *         {@link BaseCacheListener#onRestored(Object) restored} if still reachable from elsewhere.
+   */
+  public int getEvictedSize() {
+
+    expungeEvicted();
+    return this.evicted.size();
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+
+    if (this.entrySet == null) {
+      this.entrySet = new EntrySet();
+    }
+    return this.entrySet;
+  }
+
+  private Node<V> createNode(V value) {
+
+    Objects.requireNonNull(value, "value");
+    boolean soft = this.config.isSoftValues() && this.evictable.test(value);
+    return new Node<>(value, soft, this.clock.incrementAndGet());
+  }
+
+  private void evictIfRequired() {
+
+    if (!this.config.isBounded() || (this.map.size() <= this.config.getMaxSize())) {
+      return;
+    }
+    if (!this.evicting.compareAndSet(false, true)) {
+      return; // other thread is already evicting
+    }
+    try {
+      expungeEvicted();
+      int excess = this.map.size() - this.config.getMaxSize();
+      while ((excess > 0) && evictOne()) {
+        excess--;
+      }
+    } finally {
+      this.evicting.set(false);
+    }
+  }
+
+  /**
+   * @return {@code true} if an entry has been evicted, {@code false} if all sampled entries are pinned.
+   */
+  private boolean evictOne() {
+
+    Map.Entry<K, Node<V>> oldest = null;
+    boolean restarted = false;
+    int sampled = 0;
+    while (sampled < SAMPLE_SIZE) {
+      if ((this.cursor == null) || !this.cursor.hasNext()) {
+        if (restarted) {
+          break; // less entries than sample size
+        }
+        this.cursor = this.map.entrySet().iterator();
+        restarted = true;
+        if (!this.cursor.hasNext()) {
+          break;
+        }
+      }
+      Map.Entry<K, Node<V>> entry = this.cursor.next();
+      sampled++;
+      Node<V> node = entry.getValue();
+      V value = node.peek();
+      if (((value == null) || this.evictable.test(value))
+          && ((oldest == null) || (node.accessTime < oldest.getValue().accessTime))) {
+        oldest = entry;
+      }
+    }
+    if (oldest == null) {
+      LOG.debug("No evictable entry found in {} sampled entries of cache having {} entries.", sampled,
+          this.map.size());
+      return false;
+    }
+    K key = oldest.getKey();
+    Node<V> node = oldest.getValue();
+    V value = node.peek();
+    if (value == null) {
+      this.map.remove(key, node);
+      return true;
+    }
+    // register as evicted before removal so a concurrent lookup always finds the value in one of both maps
+    Evicted<K, V> reference = new Evicted<>(key, value, this.evictedQueue);
+    this.evicted.put(key, reference);
+    if (this.map.remove(key, node)) {
+      this.listener.onEvicted(value);
+    } else {
+      this.evicted.remove(key, reference);
+    }
+    return true;
+  }
+
+  private void expungeEvicted() {
+
+    Reference<? extends V> reference = this.evictedQueue.poll();
+    while (reference != null) {
+      Evicted<?, ?> entry = (Evicted<?, ?>) reference;
+      this.evicted.remove(entry.key, entry);
+      reference = this.evictedQueue.poll();
+    }
+  }
+
+  private static class Evicted<K, V> extends WeakReference<V> {
+
+    private final K key;
+
+    private Evicted(K key, V value, ReferenceQueue<V> queue) {
+
+      super(value, queue);
+      this.key = key;
+    }
+  }
+
+  private static class Node<V> {
+
+    private final V value;
+
+    private final Reference<V> reference;
+
+    private volatile long accessTime;
+
+    private Node(V value, boolean soft, long accessTime) {
+
+      super();
+      if (soft) {
+        this.value = null;
+        this.reference = new SoftReference<>(value);
+      } else {
+        this.value = value;
+        this.reference = null;
+      }
+      this.accessTime = accessTime;
+    }
+
+    private V get(long time) {
+
+      if (this.accessTime != time) {
+        this.accessTime = time;
+      }
+      return peek();
+    }
+
+    private V peek() {
+
+      if (this.reference == null) {
+        return this.value;
+      }
+      return this.reference.get();
+    }
+  }
+
+  private class EntrySet extends AbstractSet<Entry<K, V>> {
+
+    @Override
+    public int size() {
+
+      return BaseCache.this.map.size();
+    }
+
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+
+      return new EntryIterator(BaseCache.this.map.entrySet().iterator());
+    }
+  }
+
+  private class EntryIterator implements Iterator<Entry<K, V>> {
+
+    private final Iterator<Entry<K, Node<V>>> delegate;
+
+    private Entry<K, V> next;
+
+    private K lastKey;
+
+    private EntryIterator(Iterator<Entry<K, Node<V>>> delegate) {
+
+      super();
+      this.delegate = delegate;
+      findNext();
+    }
+
+    private void findNext() {
+
+      this.next = null;
+      while ((this.next == null) && this.delegate.hasNext()) {
+        Entry<K, Node<V>> entry = this.delegate.next();
+        V value = entry.getValue().peek();
+        if (value != null) {
+          this.next = new SimpleImmutableEntry<>(entry.getKey(), value);
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+
+      return (this.next != null);
+    }
+
+    @Override
+    public Entry<K, V> next() {
+
+      if (this.next == null) {
+        throw new NoSuchElementException();
+      }
+      Entry<K, V> result = this.next;
+      this.lastKey = result.getKey();
+      findNext();
+      return result;
+    }
+
+    @Override
+    public void remove() {
+
+      if (this.lastKey == null) {
+        throw new IllegalStateException();
+      }
+      BaseCache.this.map.remove(this.lastKey);
+      this.lastKey = null;
+    }
+  }
+
+}
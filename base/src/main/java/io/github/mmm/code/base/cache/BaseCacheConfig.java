@@ -0,0 +1,85 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.cache;
+
+/**
+ * Immutable configuration of the type cache of a {@link io.github.mmm.code.base.AbstractBaseContextWithCache context}.
+ *
+ * @see BaseCache
+ * @since 1.0.0
+ */
+public final class BaseCacheConfig {
+
+  /** The default {@link BaseCacheConfig} for an unbounded cache that never evicts. */
+  public static final BaseCacheConfig UNBOUNDED = new BaseCacheConfig(0, false);
+
+  private final int maxSize;
+
+  private final boolean softValues;
+
+  private BaseCacheConfig(int maxSize, boolean softValues) {
+
+    super();
+    this.maxSize = maxSize;
+    this.softValues = softValues;
+  }
+
+  /**
+   * @return the maximum number of entries before least recently used entries get evicted or {@code 0} for
+   *         {@link #isBounded() unbounded}.
+   */
+  public int getMaxSize() {
+
+    return this.maxSize;
+  }
+
+  /**
+   * @return {@code true} if the cache is bounded and evicts entries, {@code false} otherwise.
+   */
+  public boolean isBounded() {
+
+    return (this.maxSize > 0);
+  }
+
+  /**
+   * @return {@code true} if evictable values shall only be {@link java.lang.ref.SoftReference softly referenced} by
+   *         the cache itself, {@code false} otherwise. This does not free values that are still strongly reachable
+   *         from elsewhere. A type of a context stays reachable from the package tree via its
+   *         {@link io.github.mmm.code.base.BaseFile file} until it is evicted, so only the
+   *         {@link #getMaxSize() maximum size} actually bounds the number of types in memory.
+   */
+  public boolean isSoftValues() {
+
+    return this.softValues;
+  }
+
+  /**
+   * @return a copy of this {@link BaseCacheConfig} with {@link #isSoftValues() soft values} enabled.
+   */
+  public BaseCacheConfig withSoftValues() {
+
+    return new BaseCacheConfig(this.maxSize, true);
+  }
+
+  @Override
+  public String toString() {
+
+    if (isBounded()) {
+      return "maxSize=" + this.maxSize + ",soft=" + this.softValues;
+    }
+    return "unbounded,soft=" + this.softValues;
+  }
+
+  /**
+   * @param maxSize the {@link #getMaxSize() maximum size}.
+   * @return the new {@link BaseCacheConfig} for a bounded LRU cache.
+   */
+  public static BaseCacheConfig ofMaxSize(int maxSize) {
+
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("maxSize=" + maxSize);
+    }
+    return new BaseCacheConfig(maxSize, false);
+  }
+
+}
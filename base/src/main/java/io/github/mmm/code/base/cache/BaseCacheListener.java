@@ -0,0 +1,34 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.cache;
+
+/**
+ * Listener that gets notified when a {@link BaseCache} evicts or restores a value. Implementations are called
+ * synchronously from the thread that triggered the eviction or lookup and therefore have to be thread-safe and fast.
+ * All methods have empty default implementations.
+ *
+ * @param <V> type of the values.
+ * @since 1.0.0
+ */
+public interface BaseCacheListener<V> {
+
+  /**
+   * Called after the given value has been evicted from the cache. An implementation shall release other strong
+   * references to the value (e.g. from an index) so it can be garbage collected.
+   *
+   * @param value the evicted value.
+   */
+  default void onEvicted(V value) {
+
+  }
+
+  /**
+   * Called after an evicted value that was still reachable via other references has been put back into the cache.
+   *
+   * @param value the restored value.
+   */
+  default void onRestored(V value) {
+
+  }
+
+}
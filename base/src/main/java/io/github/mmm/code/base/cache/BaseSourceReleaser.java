@@ -0,0 +1,153 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.cache;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.mmm.code.base.AbstractBaseContextWithCache;
+
+/**
+ * Background releaser that periodically {@link AbstractBaseContextWithCache#releaseIdleSources(long) releases} the
+ * resources of {@link io.github.mmm.code.base.source.BaseSource}s that have been idle for a configurable time. If a
+ * memory threshold is given, it also releases all sources not currently in use as soon as the JVM reports that a heap
+ * pool still exceeds this threshold after garbage collection.<br>
+ * <b>ATTENTION:</b> The memory threshold is applied as
+ * {@link MemoryPoolMXBean#setCollectionUsageThreshold(long) collection usage threshold} of heap pools that do not
+ * have such threshold configured yet. This is a JVM-wide setting that is reset on {@link #close()}.
+ *
+ * @since 1.0.0
+ */
+public class BaseSourceReleaser implements AutoCloseable, NotificationListener {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BaseSourceReleaser.class);
+
+  private final AbstractBaseContextWithCache context;
+
+  private final long idleNanos;
+
+  private final ScheduledExecutorService executor;
+
+  private final NotificationEmitter emitter;
+
+  private final Map<MemoryPoolMXBean, Long> thresholds;
+
+  /**
+   * The constructor.
+   *
+   * @param context the {@link AbstractBaseContextWithCache context} whose idle sources shall be released.
+   * @param idleTime the {@link Duration} a source has to be idle before its resources are released.
+   */
+  public BaseSourceReleaser(AbstractBaseContextWithCache context, Duration idleTime) {
+
+    this(context, idleTime, 0);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param context the {@link AbstractBaseContextWithCache context} whose idle sources shall be released.
+   * @param idleTime the {@link Duration} a source has to be idle before its resources are released.
+   * @param memoryThreshold the fraction (e.g. {@code 0.8}) of the maximum heap pool size that is considered as memory
+   *        pressure or {@code 0} to only release by {@code idleTime}.
+   */
+  public BaseSourceReleaser(AbstractBaseContextWithCache context, Duration idleTime, double memoryThreshold) {
+
+    super();
+    Objects.requireNonNull(context, "context");
+    Objects.requireNonNull(idleTime, "idleTime");
+    if (idleTime.isNegative() || idleTime.isZero()) {
+      throw new IllegalArgumentException("idleTime=" + idleTime);
+    }
+    if ((memoryThreshold < 0) || (memoryThreshold >= 1)) {
+      throw new IllegalArgumentException("memoryThreshold=" + memoryThreshold);
+    }
+    this.context = context;
+    this.idleNanos = idleTime.toNanos();
+    this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "mmm-code-source-releaser");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long period = Math.max(this.idleNanos / 2, TimeUnit.SECONDS.toNanos(1));
+    this.executor.scheduleWithFixedDelay(() -> release(this.idleNanos), period, period, TimeUnit.NANOSECONDS);
+    this.thresholds = new IdentityHashMap<>();
+    if (memoryThreshold > 0) {
+      this.emitter = (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+      for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+        if ((pool.getType() == MemoryType.HEAP) && pool.isCollectionUsageThresholdSupported()
+            && (pool.getCollectionUsageThreshold() == 0)) {
+          long max = pool.getUsage().getMax();
+          if (max > 0) {
+            long threshold = (long) (max * memoryThreshold);
+            pool.setCollectionUsageThreshold(threshold);
+            this.thresholds.put(pool, Long.valueOf(threshold));
+          }
+        }
+      }
+      this.emitter.addNotificationListener(this, null, null);
+    } else {
+      this.emitter = null;
+    }
+  }
+
+  @Override
+  public void handleNotification(Notification notification, Object handback) {
+
+    if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())
+        && !this.executor.isShutdown()) {
+      LOG.debug("Memory pressure detected - releasing idle sources.");
+      this.executor.execute(() -> release(0));
+    }
+  }
+
+  private void release(long idle) {
+
+    try {
+      this.context.releaseIdleSources(idle);
+    } catch (RuntimeException e) {
+      LOG.warn("Failed to release idle sources.", e);
+    }
+  }
+
+  @Override
+  public void close() {
+
+    if (this.emitter != null) {
+      try {
+        this.emitter.removeNotificationListener(this);
+      } catch (ListenerNotFoundException e) {
+        LOG.debug("Listener already removed.", e);
+      }
+    }
+    synchronized (this.thresholds) {
+      for (Map.Entry<MemoryPoolMXBean, Long> entry : this.thresholds.entrySet()) {
+        MemoryPoolMXBean pool = entry.getKey();
+        // only reset if not changed by someone else in the meantime
+        if (pool.getCollectionUsageThreshold() == entry.getValue().longValue()) {
+          pool.setCollectionUsageThreshold(0);
+        }
+      }
+      this.thresholds.clear();
+    }
+    this.executor.shutdownNow();
+  }
+
+}
@@ -0,0 +1,222 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.loader;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe in-memory cache of decoded source-code shared by {@link BaseSourceCodeProvider}s of different contexts.
+ * Entries are addressed by a content key that changes whenever the content changes (e.g. path, size, and CRC of a
+ * file or archive entry) so an entry never needs to be invalidated. A {@link BaseSourceCodeProvider} with a
+ * {@link BaseSourceCodeProvider#setCache(BaseSourceCodeCache) cache} therefore only decodes unchanged source-code
+ * once, even if it is parsed again by another context.<br>
+ * The decoded characters are only {@link SoftReference softly referenced} so the garbage collector can reclaim them
+ * under memory pressure. When the {@link #getMaxChars() maximum number of characters} is exceeded, the oldest entries
+ * are evicted, unless they have been hit since they were last considered for eviction (second chance).
+ *
+ * @since 1.0.0
+ */
+public class BaseSourceCodeCache {
+
+  /** The default {@link #getMaxChars() maximum number of characters}. */
+  public static final long DEFAULT_MAX_CHARS = 16L * 1024 * 1024;
+
+  private static final BaseSourceCodeCache DEFAULT = new BaseSourceCodeCache(DEFAULT_MAX_CHARS);
+
+  private final ConcurrentMap<String, Entry> entries;
+
+  private final ReferenceQueue<char[]> queue;
+
+  private final Queue<Entry> order;
+
+  private final long maxChars;
+
+  private final AtomicLong chars;
+
+  private final LongAdder hitCount;
+
+  private final LongAdder missCount;
+
+  /**
+   * The constructor.
+   *
+   * @param maxChars the {@link #getMaxChars() maximum number of characters}.
+   */
+  public BaseSourceCodeCache(long maxChars) {
+
+    super();
+    if (maxChars < 0) {
+      throw new IllegalArgumentException("maxChars=" + maxChars);
+    }
+    this.maxChars = maxChars;
+    this.entries = new ConcurrentHashMap<>();
+    this.queue = new ReferenceQueue<>();
+    this.order = new ConcurrentLinkedQueue<>();
+    this.chars = new AtomicLong();
+    this.hitCount = new LongAdder();
+    this.missCount = new LongAdder();
+  }
+
+  /**
+   * @param key the content key of the source-code.
+   * @return a new {@link BaseSourceCodeReader} for the cached source-code or {@code null} if not cached.
+   */
+  public BaseSourceCodeReader open(String key) {
+
+    expunge();
+    Entry entry = this.entries.get(key);
+    char[] cached = null;
+    if (entry != null) {
+      cached = entry.get();
+    }
+    if (cached == null) {
+      this.missCount.increment();
+      return null;
+    }
+    entry.hit = true;
+    this.hitCount.increment();
+    return BaseSourceCodeReader.ofShared(cached, entry.length);
+  }
+
+  /**
+   * @param key the content key of the source-code.
+   * @param reader the {@link BaseSourceCodeReader} that has just been opened for the source-code and has not yet been
+   *        read. Its characters are {@link BaseSourceCodeReader#share() shared} or copied so it can still be used and
+   *        {@link BaseSourceCodeReader#close() closed} as usual.
+   */
+  public void put(String key, BaseSourceCodeReader reader) {
+
+    expunge();
+    int length = reader.getLength();
+    if ((length > this.maxChars) || this.entries.containsKey(key)) {
+      return;
+    }
+    char[] shared = reader.share();
+    if (shared == null) {
+      shared = Arrays.copyOf(reader.getChars(), length);
+    }
+    Entry entry = new Entry(key, shared, length, this.queue);
+    if (this.entries.putIfAbsent(key, entry) == null) {
+      this.order.add(entry);
+      this.chars.addAndGet(length);
+      evictIfRequired();
+    }
+  }
+
+  private void evictIfRequired() {
+
+    // every entry gets at most one second chance so this terminates even under concurrent hits
+    int attempts = 2 * this.entries.size() + 1;
+    while ((this.chars.get() > this.maxChars) && (attempts-- > 0)) {
+      Entry entry = this.order.poll();
+      if (entry == null) {
+        return;
+      }
+      if (entry.hit && (entry.get() != null)) {
+        entry.hit = false;
+        this.order.add(entry);
+      } else if (this.entries.remove(entry.key, entry)) {
+        this.chars.addAndGet(-entry.length);
+      }
+    }
+  }
+
+  private void expunge() {
+
+    Entry entry = (Entry) this.queue.poll();
+    while (entry != null) {
+      if (this.entries.remove(entry.key, entry)) {
+        this.order.remove(entry);
+        this.chars.addAndGet(-entry.length);
+      }
+      entry = (Entry) this.queue.poll();
+    }
+  }
+
+  /**
+   * Removes all entries from this cache.
+   */
+  public void clear() {
+
+    this.entries.clear();
+    this.order.clear();
+    this.chars.set(0);
+    while (this.queue.poll() != null) {
+      // drain
+    }
+  }
+
+  /**
+   * @return the maximum number of characters to cache. When exceeded, the oldest entries are evicted. Source-code
+   *         that is larger on its own is returned as is but not added.
+   */
+  public long getMaxChars() {
+
+    return this.maxChars;
+  }
+
+  /**
+   * @return the number of entries currently cached (including entries that have just been reclaimed).
+   */
+  public int getSize() {
+
+    expunge();
+    return this.entries.size();
+  }
+
+  /**
+   * @return the total number of lookups that returned cached source-code.
+   */
+  public long getHitCount() {
+
+    return this.hitCount.sum();
+  }
+
+  /**
+   * @return the total number of lookups for source-code that was not cached.
+   */
+  public long getMissCount() {
+
+    return this.missCount.sum();
+  }
+
+  @Override
+  public String toString() {
+
+    return "entries=" + getSize() + ", chars=" + this.chars.get() + "/" + this.maxChars + ", hits=" + getHitCount()
+        + ", misses=" + getMissCount();
+  }
+
+  /**
+   * @return the default {@link BaseSourceCodeCache} shared in this JVM.
+   */
+  public static BaseSourceCodeCache getDefault() {
+
+    return DEFAULT;
+  }
+
+  private static final class Entry extends SoftReference<char[]> {
+
+    private final String key;
+
+    private final int length;
+
+    private volatile boolean hit;
+
+    private Entry(String key, char[] chars, int length, ReferenceQueue<char[]> queue) {
+
+      super(chars, queue);
+      this.key = key;
+      this.length = length;
+    }
+  }
+
+}
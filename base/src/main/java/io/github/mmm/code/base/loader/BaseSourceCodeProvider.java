@@ -2,21 +2,30 @@
  * http://www.apache.org/licenses/LICENSE-2.0 */
 package io.github.mmm.code.base.loader;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.zip.CRC32;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.github.mmm.base.exception.RuntimeIoException;
 import io.github.mmm.code.api.language.JavaLanguage;
 
 /**
@@ -31,6 +40,12 @@ public abstract class BaseSourceCodeProvider implements SourceCodeProvider {
 
   private final String typeExtension;
 
+  private final Charset charset;
+
+  private volatile Map<String, List<String>> packageIndex;
+
+  private volatile BaseSourceCodeCache cache;
+
   /**
    * The constructor.
    */
@@ -46,9 +61,22 @@ public abstract class BaseSourceCodeProvider implements SourceCodeProvider {
    */
   public BaseSourceCodeProvider(String typeExtension) {
 
+    this(typeExtension, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param typeExtension the {@link #getTypeExtension() type extension}.
+   * @param charset the {@link #getCharset() charset}.
+   */
+  public BaseSourceCodeProvider(String typeExtension, Charset charset) {
+
     super();
     Objects.requireNonNull(typeExtension, "typeExtension");
+    Objects.requireNonNull(charset, "charset");
     this.typeExtension = typeExtension;
+    this.charset = charset;
   }
 
   /**
@@ -60,6 +88,32 @@ public abstract class BaseSourceCodeProvider implements SourceCodeProvider {
     return this.typeExtension;
   }
 
+  /**
+   * @return the {@link Charset} used to decode the source-code. Defaults to {@link StandardCharsets#UTF_8 UTF-8}.
+   */
+  public Charset getCharset() {
+
+    return this.charset;
+  }
+
+  /**
+   * @return the {@link BaseSourceCodeCache} used to share decoded source-code with other providers or {@code null} if
+   *         not cached (default).
+   */
+  public BaseSourceCodeCache getCache() {
+
+    return this.cache;
+  }
+
+  /**
+   * @param cache the new value of {@link #getCache()}. E.g. {@link BaseSourceCodeCache#getDefault()} so unchanged
+   *        source-code opened again by another context is not decoded again.
+   */
+  public void setCache(BaseSourceCodeCache cache) {
+
+    this.cache = cache;
+  }
+
   @Override
   public Reader openType(String qualifiedName) throws IOException {
 
@@ -79,10 +133,22 @@ public abstract class BaseSourceCodeProvider implements SourceCodeProvider {
   private Reader openFile(String pathString) throws IOException {
 
     Path path = getPath(pathString);
-    if (Files.isRegularFile(path)) {
+    if ((path != null) && Files.isRegularFile(path)) {
       LOG.debug("Opening file {} to parse source code.", pathString);
+      if (this.cache != null) {
+        // the modification time may be too coarse to detect changes so the key is derived from the content
+        byte[] bytes = Files.readAllBytes(path);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        String key = path.toAbsolutePath() + "#" + bytes.length + "@" + crc.getValue();
+        Reader reader = openCachedReader(key);
+        if (reader != null) {
+          return reader;
+        }
+        return openReader(new ByteArrayInputStream(bytes), bytes.length, key);
+      }
       InputStream in = Files.newInputStream(path);
-      return openReader(in);
+      return openReader(in, -1, null);
     } else {
       LOG.debug("File {} does not exist.", pathString);
     }
@@ -93,31 +159,107 @@ public abstract class BaseSourceCodeProvider implements SourceCodeProvider {
   public List<String> scanPackage(String qualifiedName) {
 
     requireNotClosed();
-    String pathString = qualifiedName2Path(qualifiedName);
-    Path path = getPath(pathString);
-    List<String> result = null;
-    for (Path child : path) {
-      String simpleName = filename2TypeSimpleName(child.getFileName().toString());
-      if (simpleName != null) {
-        if (Files.isRegularFile(child)) {
-          if (result == null) {
-            result = new ArrayList<>();
-          }
-          result.add(simpleName);
+    List<String> simpleNames = getPackageIndex().get(qualifiedName);
+    if (simpleNames == null) {
+      return Collections.emptyList();
+    }
+    return simpleNames;
+  }
+
+  @Override
+  public List<String> scanPackages() {
+
+    requireNotClosed();
+    List<String> packageNames = new ArrayList<>(getPackageIndex().keySet());
+    Collections.sort(packageNames);
+    return packageNames;
+  }
+
+  /**
+   * @return the package index mapping the qualified name of each package to the (unmodifiable) {@link List} of
+   *         {@link io.github.mmm.code.api.type.CodeType#getSimpleName() simple names} of its types. Will be
+   *         {@link #createPackageIndex() created} on the first call and cached until {@link #invalidatePackageIndex()
+   *         invalidated}.
+   */
+  protected Map<String, List<String>> getPackageIndex() {
+
+    Map<String, List<String>> index = this.packageIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = this.packageIndex;
+        if (index == null) {
+          index = createPackageIndex();
+          this.packageIndex = index;
         }
       }
     }
-    if (result != null) {
-      return result;
+    return index;
+  }
+
+  /**
+   * Invalidates the cached {@link #getPackageIndex() package index} so it will be recreated on the next
+   * {@link #scanPackage(String) scan}. Has to be called after the source-code has changed.
+   */
+  public void invalidatePackageIndex() {
+
+    this.packageIndex = null;
+  }
+
+  /**
+   * @return the new {@link #getPackageIndex() package index} created by walking the entire file tree below the
+   *         {@link #getRootPath() root path} once.
+   */
+  protected Map<String, List<String>> createPackageIndex() {
+
+    Path root = getRootPath();
+    Map<String, List<String>> index = new HashMap<>();
+    if ((root == null) || !Files.isDirectory(root)) {
+      return index;
+    }
+    String separator = root.getFileSystem().getSeparator();
+    try {
+      Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+
+          if (attrs.isRegularFile()) {
+            String simpleName = filename2TypeSimpleName(file.getFileName().toString());
+            if (simpleName != null) {
+              String packageName = root.relativize(file.getParent()).toString().replace(separator, ".");
+              index.computeIfAbsent(packageName, k -> new ArrayList<>()).add(simpleName);
+            }
+          }
+          return FileVisitResult.CONTINUE;
+        }
+      });
+    } catch (IOException e) {
+      throw new RuntimeIoException(e);
     }
-    return Collections.emptyList();
+    index.replaceAll((k, v) -> Collections.unmodifiableList(v));
+    LOG.debug("Indexed {} packages in {}", Integer.valueOf(index.size()), root);
+    return index;
   }
 
   /**
    * @param path the {@link Path} as {@link String}.
-   * @return the actual {@link Path}.
+   * @return the actual {@link Path} or {@code null} if this provider is not based on a {@link java.nio.file.FileSystem}.
+   *         Such implementations have to override {@link #openType(String)}, {@link #openPackage(String)}, and
+   *         {@link #createPackageIndex()}.
+   */
+  protected Path getPath(String path) {
+
+    return null;
+  }
+
+  /**
+   * @return the {@link Path} of the root (default) package or {@code null} if not based on a
+   *         {@link java.nio.file.FileSystem}.
    */
-  protected abstract Path getPath(String path);
+  protected Path getRootPath() {
+
+    return getPath("");
+  }
 
   /**
    * @return {@code true} if {@link #close() close} was called, {@code false} otherwise.
@@ -135,20 +277,57 @@ public abstract class BaseSourceCodeProvider implements SourceCodeProvider {
   }
 
   /**
-   * @param in the {@link InputStream} to read.
+   * @param in the {@link InputStream} to read. Will be closed by this method.
    * @return the {@link Reader} for the given {@link InputStream}.
    * @throws IOException on I/O error.
    */
   protected Reader openReader(InputStream in) throws IOException {
 
-    InputStreamReader reader;
-    try {
-      reader = new InputStreamReader(in, "UTF-8");
-      return reader;
-    } catch (IOException | RuntimeException e) {
-      in.close();
-      throw e;
+    return openReader(in, -1);
+  }
+
+  /**
+   * @param in the {@link InputStream} to read. Will be closed by this method.
+   * @param size the number of bytes to read if known in advance or {@code -1} if unknown.
+   * @return the {@link Reader} for the given {@link InputStream}.
+   * @throws IOException on I/O error.
+   * @see BaseSourceCodeReader
+   */
+  protected Reader openReader(InputStream in, long size) throws IOException {
+
+    return BaseSourceCodeReader.of(in, size, this.charset);
+  }
+
+  /**
+   * @param key the content key of the source-code that changes whenever the content changes (e.g. including size and
+   *        CRC) or {@code null} if unknown.
+   * @return the {@link Reader} for the source-code from the {@link #getCache() cache} or {@code null} if not cached.
+   */
+  protected Reader openCachedReader(String key) {
+
+    BaseSourceCodeCache sourceCache = this.cache;
+    if ((sourceCache == null) || (key == null)) {
+      return null;
     }
+    return sourceCache.open(key);
+  }
+
+  /**
+   * @param in the {@link InputStream} to read. Will be closed by this method.
+   * @param size the number of bytes to read if known in advance or {@code -1} if unknown.
+   * @param key the content key of the source-code (see {@link #openCachedReader(String)}) or {@code null} if unknown.
+   * @return the {@link Reader} for the given {@link InputStream}. Its content is added to the {@link #getCache()
+   *         cache} if available.
+   * @throws IOException on I/O error.
+   */
+  protected Reader openReader(InputStream in, long size, String key) throws IOException {
+
+    Reader reader = openReader(in, size);
+    BaseSourceCodeCache sourceCache = this.cache;
+    if ((sourceCache != null) && (key != null) && (reader instanceof BaseSourceCodeReader)) {
+      sourceCache.put(key, (BaseSourceCodeReader) reader);
+    }
+    return reader;
   }
 
   /**
@@ -165,11 +344,12 @@ public abstract class BaseSourceCodeProvider implements SourceCodeProvider {
    * @param filename the filename to convert.
    * @return the {@link io.github.mmm.code.api.type.CodeType#getSimpleName() simple name} of the corresponding
    *         {@link io.github.mmm.code.api.type.CodeType} or {@code null} if not a
-   *         {@link io.github.mmm.code.api.type.CodeType}.
+   *         {@link io.github.mmm.code.api.type.CodeType} (including {@code package-info.java} and
+   *         {@code module-info.java}).
    */
   protected String filename2TypeSimpleName(String filename) {
 
-    if (JavaLanguage.PACKAGE_INFO_JAVA.equals(filename)) {
+    if (JavaLanguage.PACKAGE_INFO_JAVA.equals(filename) || JavaLanguage.MODULE_INFO_JAVA.equals(filename)) {
       return null;
     }
     if (filename.endsWith(this.typeExtension)) {
@@ -218,12 +398,25 @@ public abstract class BaseSourceCodeProvider implements SourceCodeProvider {
    */
   public static BaseSourceCodeProvider of(File sourceCodeLocation, String typeExtension) {
 
+    return of(sourceCodeLocation, typeExtension, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * @param sourceCodeLocation the {@link File} pointing to the location of the source code. See
+   *        {@link io.github.mmm.code.api.source.CodeSource#getSourceCodeLocation()}.
+   * @param typeExtension the {@link #getTypeExtension() type extension}.
+   * @param charset the {@link #getCharset() charset}.
+   * @return the {@link BaseSourceCodeProvider} or {@code null} if the give {@link File} is {@code null} or does not
+   *         {@link File#exists() exist}.
+   */
+  public static BaseSourceCodeProvider of(File sourceCodeLocation, String typeExtension, Charset charset) {
+
     if (sourceCodeLocation == null) {
       return null;
     } else if (sourceCodeLocation.isDirectory()) {
-      return new BaseSourceCodeProviderDirectory(sourceCodeLocation, typeExtension);
+      return new BaseSourceCodeProviderDirectory(sourceCodeLocation, typeExtension, charset);
     } else if (sourceCodeLocation.isFile()) {
-      return new BaseSourceCodeProviderArchive(sourceCodeLocation, typeExtension);
+      return new BaseSourceCodeProviderArchive(sourceCodeLocation, typeExtension, charset);
     }
     return null;
   }
@@ -6,10 +6,13 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.github.mmm.base.exception.RuntimeIoException;
 import io.github.mmm.code.api.language.JavaLanguage;
@@ -22,6 +25,9 @@ import io.github.mmm.code.api.language.JavaLanguage;
  */
 public class BaseSourceCodeProviderArchive extends BaseSourceCodeProvider {
 
+  /** JVM-global gauge of open archives. Deliberately not per context as archives are not owned by a context. */
+  static final AtomicInteger OPEN_ARCHIVE_COUNT = new AtomicInteger();
+
   private final File archiveFile;
 
   private FileSystem fileSystem;
@@ -44,7 +50,19 @@ public class BaseSourceCodeProviderArchive extends BaseSourceCodeProvider {
    */
   public BaseSourceCodeProviderArchive(File archiveFile, String typeExtension) {
 
-    super(typeExtension);
+    this(archiveFile, typeExtension, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param archiveFile the {@link File} pointing to the archive (e.g. *.jar or *.zip) with the source-code.
+   * @param typeExtension the {@link #getTypeExtension() type extension}.
+   * @param charset the {@link #getCharset() charset}.
+   */
+  public BaseSourceCodeProviderArchive(File archiveFile, String typeExtension, Charset charset) {
+
+    super(typeExtension, charset);
     assert (archiveFile.isFile());
     this.archiveFile = archiveFile;
     URI uri;
@@ -55,6 +73,7 @@ public class BaseSourceCodeProviderArchive extends BaseSourceCodeProvider {
     }
     try {
       this.fileSystem = FileSystems.newFileSystem(uri, Collections.emptyMap());
+      OPEN_ARCHIVE_COUNT.incrementAndGet();
     } catch (IOException e) {
       throw new RuntimeIoException(e);
     }
@@ -66,6 +85,12 @@ public class BaseSourceCodeProviderArchive extends BaseSourceCodeProvider {
     return this.fileSystem.getPath(path);
   }
 
+  @Override
+  protected Path getRootPath() {
+
+    return this.fileSystem.getPath("/");
+  }
+
   @Override
   public void close() {
 
@@ -78,6 +103,7 @@ public class BaseSourceCodeProviderArchive extends BaseSourceCodeProvider {
       throw new IllegalStateException(e);
     }
     this.fileSystem = null;
+    OPEN_ARCHIVE_COUNT.decrementAndGet();
   }
 
   @Override
@@ -86,4 +112,14 @@ public class BaseSourceCodeProviderArchive extends BaseSourceCodeProvider {
     return (this.fileSystem == null);
   }
 
+  /**
+   * @return the number of archives currently opened by instances of this class or
+   *         {@link BaseSourceCodeProviderZipFile} in this JVM. This is a global gauge summed over all contexts and
+   *         class-loaders sharing this class. It is not specific to a single context.
+   */
+  public static int getOpenArchiveCount() {
+
+    return OPEN_ARCHIVE_COUNT.get();
+  }
+
 }
@@ -0,0 +1,207 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.loader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.mmm.code.api.language.JavaLanguage;
+
+/**
+ * Implementation of {@link BaseSourceCodeProvider} that merges multiple source roots (e.g. {@code src/main/java} and
+ * {@code target/generated-sources/*}) behind a single {@link SourceCodeProvider}. It builds an index from the qualified
+ * name of each type to the root containing it once so {@link #openType(String) opening a type} is a single lookup
+ * instead of probing every root. If a type is present in multiple roots, the first root wins (like on a classpath).
+ *
+ * @since 1.0.0
+ */
+public class BaseSourceCodeProviderComposite extends BaseSourceCodeProvider {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BaseSourceCodeProviderComposite.class);
+
+  private final List<BaseSourceCodeProvider> providers;
+
+  private volatile Map<String, BaseSourceCodeProvider> typeIndex;
+
+  private boolean closed;
+
+  /**
+   * The constructor.
+   *
+   * @param providers the {@link BaseSourceCodeProvider}s for the source roots in the order of their precedence.
+   */
+  public BaseSourceCodeProviderComposite(BaseSourceCodeProvider... providers) {
+
+    this(JavaLanguage.TYPE_EXTENSION_JAVA, List.of(providers));
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param typeExtension the {@link #getTypeExtension() type extension}.
+   * @param providers the {@link BaseSourceCodeProvider}s for the source roots in the order of their precedence.
+   */
+  public BaseSourceCodeProviderComposite(String typeExtension, List<BaseSourceCodeProvider> providers) {
+
+    super(typeExtension);
+    this.providers = List.copyOf(providers);
+  }
+
+  /**
+   * @return the {@link List} of {@link BaseSourceCodeProvider}s for the source roots.
+   */
+  public List<BaseSourceCodeProvider> getProviders() {
+
+    return this.providers;
+  }
+
+  @Override
+  public Reader openType(String qualifiedName) throws IOException {
+
+    requireNotClosed();
+    BaseSourceCodeProvider provider = getTypeIndex().get(qualifiedName);
+    if (provider == null) {
+      LOG.debug("Type {} not found in any source root.", qualifiedName);
+      return null;
+    }
+    return provider.openType(qualifiedName);
+  }
+
+  @Override
+  public Reader openPackage(String qualifiedName) throws IOException {
+
+    requireNotClosed();
+    for (BaseSourceCodeProvider provider : this.providers) {
+      Reader reader = provider.openPackage(qualifiedName);
+      if (reader != null) {
+        return reader;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the index mapping the qualified name of each type to the {@link BaseSourceCodeProvider} of the root
+   *         containing its source-code.
+   */
+  protected Map<String, BaseSourceCodeProvider> getTypeIndex() {
+
+    Map<String, BaseSourceCodeProvider> index = this.typeIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = this.typeIndex;
+        if (index == null) {
+          index = createTypeIndex();
+          this.typeIndex = index;
+        }
+      }
+    }
+    return index;
+  }
+
+  private Map<String, BaseSourceCodeProvider> createTypeIndex() {
+
+    Map<String, BaseSourceCodeProvider> index = new HashMap<>();
+    for (BaseSourceCodeProvider provider : this.providers) {
+      for (Map.Entry<String, List<String>> entry : provider.getPackageIndex().entrySet()) {
+        String prefix = entry.getKey();
+        if (!prefix.isEmpty()) {
+          prefix = prefix + ".";
+        }
+        for (String simpleName : entry.getValue()) {
+          index.putIfAbsent(prefix + simpleName, provider);
+        }
+      }
+    }
+    LOG.debug("Indexed {} types in {} source roots", Integer.valueOf(index.size()),
+        Integer.valueOf(this.providers.size()));
+    return index;
+  }
+
+  @Override
+  protected Map<String, List<String>> createPackageIndex() {
+
+    Map<String, Set<String>> merged = new HashMap<>();
+    for (BaseSourceCodeProvider provider : this.providers) {
+      for (Map.Entry<String, List<String>> entry : provider.getPackageIndex().entrySet()) {
+        merged.computeIfAbsent(entry.getKey(), k -> new LinkedHashSet<>()).addAll(entry.getValue());
+      }
+    }
+    Map<String, List<String>> index = new HashMap<>(merged.size());
+    for (Map.Entry<String, Set<String>> entry : merged.entrySet()) {
+      index.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+    }
+    return index;
+  }
+
+  @Override
+  public void invalidatePackageIndex() {
+
+    for (BaseSourceCodeProvider provider : this.providers) {
+      provider.invalidatePackageIndex();
+    }
+    invalidateIndex();
+  }
+
+  private void invalidateIndex() {
+
+    this.typeIndex = null;
+    super.invalidatePackageIndex();
+  }
+
+  @Override
+  public void setCache(BaseSourceCodeCache cache) {
+
+    super.setCache(cache);
+    for (BaseSourceCodeProvider provider : this.providers) {
+      provider.setCache(cache);
+    }
+  }
+
+  @Override
+  public void setChangeListener(Consumer<Collection<String>> listener) {
+
+    Consumer<Collection<String>> childListener = null;
+    if (listener != null) {
+      childListener = changes -> {
+        invalidateIndex();
+        listener.accept(changes);
+      };
+    }
+    for (BaseSourceCodeProvider provider : this.providers) {
+      provider.setChangeListener(childListener);
+    }
+  }
+
+  @Override
+  public void close() {
+
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    this.typeIndex = null;
+    for (BaseSourceCodeProvider provider : this.providers) {
+      provider.close();
+    }
+  }
+
+  @Override
+  protected boolean isClosed() {
+
+    return this.closed;
+  }
+
+}
@@ -3,6 +3,8 @@
 package io.github.mmm.code.base.loader;
 
 import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
@@ -38,7 +40,20 @@ public class BaseSourceCodeProviderDirectory extends BaseSourceCodeProvider {
    */
   public BaseSourceCodeProviderDirectory(File sourceFolder, String typeExtension) {
 
-    super(typeExtension);
+    this(sourceFolder, typeExtension, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param sourceFolder the {@link File} pointing to the top-level source-code folder (where the root/default package
+   *        is located).
+   * @param typeExtension the {@link #getTypeExtension() type extension}.
+   * @param charset the {@link #getCharset() charset}.
+   */
+  public BaseSourceCodeProviderDirectory(File sourceFolder, String typeExtension, Charset charset) {
+
+    super(typeExtension, charset);
     assert (sourceFolder.isDirectory());
     this.sourceDirectory = sourceFolder.getAbsolutePath();
   }
@@ -0,0 +1,356 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.loader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.mmm.base.exception.RuntimeIoException;
+import io.github.mmm.code.api.language.JavaLanguage;
+
+/**
+ * Extends {@link BaseSourceCodeProviderDirectory} to detect source files that have been changed, added or deleted. It
+ * uses a {@link WatchService} if supported and falls back to polling the last modification times and sizes otherwise.
+ * A modification reported by the {@link WatchService} is always treated as change, as the modification time may be
+ * too coarse to detect quick subsequent modifications. Detected changes invalidate the {@link #getPackageIndex()
+ * package index} and are reported to the {@link #setChangeListener(Consumer) change listener} so only the affected
+ * types need to be parsed again.<br>
+ * The background thread detecting changes is {@link #start() started} explicitly or when the change listener is set.
+ * Changes that happen before are detected on start as the initial state is recorded in the constructor.
+ *
+ * @since 1.0.0
+ */
+public class BaseSourceCodeProviderDirectoryWatching extends BaseSourceCodeProviderDirectory {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BaseSourceCodeProviderDirectoryWatching.class);
+
+  /** The default interval for polling if no {@link WatchService} is available. */
+  public static final Duration DEFAULT_POLL_INTERVAL = Duration.ofSeconds(2);
+
+  /** Time to wait for further events to process changes (e.g. from saving multiple files) in a single batch. */
+  private static final long BATCH_MILLIS = 50;
+
+  private final Path root;
+
+  private final String separator;
+
+  private final long pollMillis;
+
+  private final NavigableMap<String, FileState> snapshot;
+
+  private final Map<WatchKey, Path> watchKeys;
+
+  private final WatchService watchService;
+
+  private Thread thread;
+
+  private volatile Consumer<Collection<String>> changeListener;
+
+  private volatile boolean closed;
+
+  /**
+   * The constructor.
+   *
+   * @param sourceFolder the {@link File} pointing to the top-level source-code folder (where the root/default package
+   *        is located).
+   */
+  public BaseSourceCodeProviderDirectoryWatching(File sourceFolder) {
+
+    this(sourceFolder, JavaLanguage.TYPE_EXTENSION_JAVA, StandardCharsets.UTF_8, DEFAULT_POLL_INTERVAL);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param sourceFolder the {@link File} pointing to the top-level source-code folder (where the root/default package
+   *        is located).
+   * @param typeExtension the {@link #getTypeExtension() type extension}.
+   * @param charset the {@link #getCharset() charset}.
+   * @param pollInterval the {@link Duration} between two polls if no {@link WatchService} is available.
+   */
+  public BaseSourceCodeProviderDirectoryWatching(File sourceFolder, String typeExtension, Charset charset,
+      Duration pollInterval) {
+
+    super(sourceFolder, typeExtension, charset);
+    this.root = sourceFolder.toPath().toAbsolutePath();
+    this.separator = this.root.getFileSystem().getSeparator();
+    this.pollMillis = Math.max(1, pollInterval.toMillis());
+    this.snapshot = new TreeMap<>();
+    this.watchKeys = new HashMap<>();
+    this.watchService = createWatchService();
+    scan(this.root, null, false);
+  }
+
+  /**
+   * Starts the background thread detecting changes unless already started or {@link #close() closed}. Is called
+   * automatically when the {@link #setChangeListener(Consumer) change listener} is set.
+   */
+  public synchronized void start() {
+
+    if ((this.thread != null) || this.closed) {
+      return;
+    }
+    this.thread = new Thread(this::run, "mmm-code-watch-" + this.root.getFileName());
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  private WatchService createWatchService() {
+
+    try {
+      return FileSystems.getDefault().newWatchService();
+    } catch (IOException | UnsupportedOperationException e) {
+      LOG.info("WatchService not available - falling back to polling every {}ms: {}", Long.valueOf(this.pollMillis),
+          e.toString());
+      return null;
+    }
+  }
+
+  /**
+   * @return {@code true} if a {@link WatchService} is used, {@code false} if polling.
+   */
+  public boolean isUsingWatchService() {
+
+    return (this.watchService != null);
+  }
+
+  @Override
+  public void setChangeListener(Consumer<Collection<String>> listener) {
+
+    this.changeListener = listener;
+    if (listener != null) {
+      start();
+    }
+  }
+
+  private void run() {
+
+    while (!this.closed) {
+      try {
+        Set<String> changes = new TreeSet<>();
+        if (this.watchService == null) {
+          Thread.sleep(this.pollMillis);
+          scan(this.root, changes, false);
+        } else {
+          Set<Path> paths = new TreeSet<>();
+          Set<Path> modified = new HashSet<>();
+          boolean overflow = collect(this.watchService.take(), paths, modified);
+          WatchKey key = this.watchService.poll(BATCH_MILLIS, TimeUnit.MILLISECONDS);
+          while (key != null) {
+            overflow = collect(key, paths, modified) || overflow;
+            key = this.watchService.poll(BATCH_MILLIS, TimeUnit.MILLISECONDS);
+          }
+          if (overflow) {
+            scan(this.root, changes, false);
+          }
+          for (Path path : paths) {
+            scan(path, changes, modified.contains(path));
+          }
+        }
+        if (!changes.isEmpty() && !this.closed) {
+          notifyChanges(changes);
+        }
+      } catch (InterruptedException | ClosedWatchServiceException e) {
+        break;
+      } catch (RuntimeException e) {
+        LOG.warn("Failed to detect changes in {}", this.root, e);
+      }
+    }
+  }
+
+  private boolean collect(WatchKey key, Set<Path> paths, Set<Path> modified) {
+
+    boolean overflow = false;
+    Path dir = this.watchKeys.get(key);
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+        overflow = true;
+      } else if (dir != null) {
+        Path path = dir.resolve((Path) event.context());
+        paths.add(path);
+        if (event.kind() == StandardWatchEventKinds.ENTRY_MODIFY) {
+          modified.add(path);
+        }
+      }
+    }
+    if (!key.reset()) {
+      this.watchKeys.remove(key);
+    }
+    return overflow;
+  }
+
+  private void notifyChanges(Set<String> changes) {
+
+    LOG.debug("Detected changed source files {}", changes);
+    invalidatePackageIndex();
+    Consumer<Collection<String>> listener = this.changeListener;
+    if (listener != null) {
+      listener.accept(changes);
+    }
+  }
+
+  /**
+   * Scans the given {@link Path} (file or directory that may also have been deleted) and compares the result with
+   * the {@link #snapshot}.
+   *
+   * @param path the {@link Path} to scan.
+   * @param changes the {@link Set} where to add the qualified names of changed types or {@code null} for the initial
+   *        scan.
+   * @param modified - {@code true} if the given {@link Path} has been reported as modified by the {@link WatchService}
+   *        so it is considered as changed even if its {@link FileState} did not change, {@code false} otherwise.
+   */
+  private void scan(Path path, Set<String> changes, boolean modified) {
+
+    String key = path.toString();
+    Map<String, FileState> previous = new HashMap<>(this.snapshot.subMap(key + this.separator, true,
+        key + this.separator + Character.MAX_VALUE, true));
+    FileState previousFile = this.snapshot.get(key);
+    if (previousFile != null) {
+      previous.put(key, previousFile);
+    }
+    Map<String, FileState> current = new HashMap<>();
+    if (Files.exists(path)) {
+      walk(path, current);
+    }
+    for (Map.Entry<String, FileState> entry : current.entrySet()) {
+      String file = entry.getKey();
+      FileState state = entry.getValue();
+      if (!state.equals(previous.remove(file)) || (modified && file.equals(key))) {
+        this.snapshot.put(file, state);
+        addChange(file, changes);
+      }
+    }
+    for (String deleted : previous.keySet()) {
+      this.snapshot.remove(deleted);
+      addChange(deleted, changes);
+    }
+  }
+
+  private void walk(Path path, Map<String, FileState> files) {
+
+    try {
+      Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+
+          if (BaseSourceCodeProviderDirectoryWatching.this.watchService != null) {
+            WatchKey watchKey = dir.register(BaseSourceCodeProviderDirectoryWatching.this.watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+            BaseSourceCodeProviderDirectoryWatching.this.watchKeys.put(watchKey, dir);
+          }
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+
+          if (attrs.isRegularFile() && (filename2TypeSimpleName(file.getFileName().toString()) != null)) {
+            files.put(file.toString(), new FileState(attrs));
+          }
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException exc) {
+
+          return FileVisitResult.CONTINUE; // deleted concurrently
+        }
+      });
+    } catch (IOException e) {
+      throw new RuntimeIoException(e);
+    }
+  }
+
+  private void addChange(String file, Set<String> changes) {
+
+    if (changes == null) {
+      return;
+    }
+    String relative = file.substring(this.root.toString().length() + this.separator.length());
+    String simpleName = filename2TypeSimpleName(relative);
+    changes.add(simpleName.replace(this.separator, "."));
+  }
+
+  @Override
+  public synchronized void close() {
+
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    if (this.watchService != null) {
+      try {
+        this.watchService.close();
+      } catch (IOException e) {
+        LOG.debug("Failed to close WatchService.", e);
+      }
+    }
+    if (this.thread != null) {
+      this.thread.interrupt();
+    }
+    super.close();
+  }
+
+  /** The state of a source file used to detect modifications. */
+  private static final class FileState {
+
+    private final long modified;
+
+    private final long size;
+
+    private FileState(BasicFileAttributes attrs) {
+
+      super();
+      this.modified = attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+      this.size = attrs.size();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+
+      if (obj == this) {
+        return true;
+      } else if (!(obj instanceof FileState)) {
+        return false;
+      }
+      FileState other = (FileState) obj;
+      return (this.modified == other.modified) && (this.size == other.size);
+    }
+
+    @Override
+    public int hashCode() {
+
+      return Long.hashCode(this.modified) * 31 + Long.hashCode(this.size);
+    }
+  }
+
+}
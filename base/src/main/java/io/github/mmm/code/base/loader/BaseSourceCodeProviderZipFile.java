@@ -0,0 +1,248 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.loader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import io.github.mmm.base.exception.RuntimeIoException;
+import io.github.mmm.code.api.language.JavaLanguage;
+
+/**
+ * Implementation of {@link BaseSourceCodeProvider} for a source-code archive (e.g. *-sources.jar or src.zip) based on
+ * {@link ZipFile}. Unlike {@link BaseSourceCodeProviderArchive} it does not create a zip
+ * {@link java.nio.file.FileSystem} but reads the central directory only once into a compact index of the
+ * {@link #scanPackage(String) types per package}. Opening a type computes the entry name and looks it up in the hash
+ * table that {@link ZipFile} already keeps for its central directory (mapping names to offsets and sizes), followed by
+ * inflating the entry. No {@link ZipEntry} objects are retained and scanning a package does not need any I/O at
+ * all.<br>
+ * Archives with a {@link #isModular() modular layout} like {@code src.zip} of the JDK since Java 9 (e.g.
+ * {@code java.base/java/lang/String.java}) are supported and indexed with a {@link #getModuleName(String) package to
+ * module} mapping.
+ *
+ * @since 1.0.0
+ */
+public class BaseSourceCodeProviderZipFile extends BaseSourceCodeProvider {
+
+  private final File archiveFile;
+
+  private final ZipFile zipFile;
+
+  private final AtomicBoolean closed;
+
+  private final Map<String, List<String>> packageTypesMap;
+
+  private final Map<String, String> packageModuleMap;
+
+  /**
+   * The constructor.
+   *
+   * @param archiveFile the {@link File} pointing to the archive (e.g. *.jar or *.zip) with the source-code.
+   */
+  public BaseSourceCodeProviderZipFile(File archiveFile) {
+
+    this(archiveFile, JavaLanguage.TYPE_EXTENSION_JAVA);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param archiveFile the {@link File} pointing to the archive (e.g. *.jar or *.zip) with the source-code.
+   * @param typeExtension the {@link #getTypeExtension() type extension}.
+   */
+  public BaseSourceCodeProviderZipFile(File archiveFile, String typeExtension) {
+
+    this(archiveFile, typeExtension, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param archiveFile the {@link File} pointing to the archive (e.g. *.jar or *.zip) with the source-code.
+   * @param typeExtension the {@link #getTypeExtension() type extension}.
+   * @param charset the {@link #getCharset() charset}.
+   */
+  public BaseSourceCodeProviderZipFile(File archiveFile, String typeExtension, Charset charset) {
+
+    super(typeExtension, charset);
+    assert (archiveFile.isFile());
+    this.archiveFile = archiveFile;
+    this.closed = new AtomicBoolean();
+    this.packageTypesMap = new HashMap<>();
+    this.packageModuleMap = new HashMap<>();
+    try {
+      this.zipFile = new ZipFile(archiveFile);
+      BaseSourceCodeProviderArchive.OPEN_ARCHIVE_COUNT.incrementAndGet();
+    } catch (IOException e) {
+      throw new RuntimeIoException(e);
+    }
+    index();
+  }
+
+  private void index() {
+
+    Set<String> modules = indexModules();
+    Enumeration<? extends ZipEntry> entries = this.zipFile.entries();
+    while (entries.hasMoreElements()) {
+      ZipEntry entry = entries.nextElement();
+      if (entry.isDirectory()) {
+        continue;
+      }
+      String path = entry.getName();
+      String moduleName = null;
+      int firstSlash = path.indexOf('/');
+      if ((firstSlash > 0) && !modules.isEmpty()) {
+        moduleName = path.substring(0, firstSlash);
+        if (modules.contains(moduleName)) {
+          path = path.substring(firstSlash + 1);
+        } else {
+          moduleName = null;
+        }
+      }
+      int lastSlash = path.lastIndexOf('/');
+      String packageName;
+      if (lastSlash < 0) {
+        packageName = "";
+      } else {
+        packageName = path.substring(0, lastSlash).replace('/', '.');
+      }
+      String filename = path.substring(lastSlash + 1);
+      boolean packageInfo = JavaLanguage.PACKAGE_INFO_JAVA.equals(filename);
+      String simpleName = filename2TypeSimpleName(filename);
+      if (simpleName != null) {
+        this.packageTypesMap.computeIfAbsent(packageName, k -> new ArrayList<>()).add(simpleName);
+      }
+      if ((moduleName != null) && ((simpleName != null) || packageInfo)) {
+        this.packageModuleMap.putIfAbsent(packageName, moduleName);
+      }
+    }
+    this.packageTypesMap.replaceAll((k, v) -> Collections.unmodifiableList(v));
+  }
+
+  /**
+   * @return the {@link Set} with the names of the modules if this archive has a modular layout where each top-level
+   *         folder is a module containing a {@code module-info.java} (like {@code src.zip} of the JDK since Java 9).
+   *         Otherwise an empty {@link Set}.
+   */
+  private Set<String> indexModules() {
+
+    Set<String> modules = new HashSet<>();
+    Enumeration<? extends ZipEntry> entries = this.zipFile.entries();
+    while (entries.hasMoreElements()) {
+      String path = entries.nextElement().getName();
+      int slash = path.indexOf('/');
+      if ((slash > 0) && (path.length() == slash + 1 + JavaLanguage.MODULE_INFO_JAVA.length())
+          && path.startsWith(JavaLanguage.MODULE_INFO_JAVA, slash + 1)) {
+        modules.add(path.substring(0, slash));
+      }
+    }
+    return modules;
+  }
+
+  /**
+   * @return the {@link File} pointing to the archive.
+   */
+  public File getArchiveFile() {
+
+    return this.archiveFile;
+  }
+
+  /**
+   * @return {@code true} if this archive has a modular layout (e.g. {@code java.base/java/lang/String.java}) where the
+   *         module folders are omitted from the qualified names, {@code false} otherwise.
+   */
+  public boolean isModular() {
+
+    return !this.packageModuleMap.isEmpty();
+  }
+
+  /**
+   * @param packageName the qualified name of the {@link io.github.mmm.code.api.CodePackage}.
+   * @return the name of the module containing the given package or {@code null} if not {@link #isModular() modular}
+   *         or the package does not exist.
+   */
+  public String getModuleName(String packageName) {
+
+    return this.packageModuleMap.get(packageName);
+  }
+
+  @Override
+  public Reader openType(String qualifiedName) throws IOException {
+
+    requireNotClosed();
+    int lastDot = qualifiedName.lastIndexOf('.');
+    String packageName = (lastDot < 0) ? "" : qualifiedName.substring(0, lastDot);
+    return openEntry(packageName, qualifiedName2TypePath(qualifiedName));
+  }
+
+  @Override
+  public Reader openPackage(String qualifiedName) throws IOException {
+
+    requireNotClosed();
+    return openEntry(qualifiedName, qualifiedName2PackagePath(qualifiedName));
+  }
+
+  private Reader openEntry(String packageName, String path) throws IOException {
+
+    String entryName = path;
+    String moduleName = this.packageModuleMap.get(packageName);
+    if (moduleName != null) {
+      entryName = moduleName + "/" + path;
+    }
+    ZipEntry entry = this.zipFile.getEntry(entryName);
+    if ((entry == null) || entry.isDirectory()) {
+      return null;
+    }
+    String key = null;
+    if (getCache() != null) {
+      key = this.archiveFile.getAbsolutePath() + "!/" + entryName + "#" + entry.getSize() + "@" + entry.getCrc();
+      Reader reader = openCachedReader(key);
+      if (reader != null) {
+        return reader;
+      }
+    }
+    return openReader(this.zipFile.getInputStream(entry), entry.getSize(), key);
+  }
+
+  @Override
+  protected Map<String, List<String>> createPackageIndex() {
+
+    return this.packageTypesMap;
+  }
+
+  @Override
+  public void close() {
+
+    if (!this.closed.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      this.zipFile.close();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    } finally {
+      BaseSourceCodeProviderArchive.OPEN_ARCHIVE_COUNT.decrementAndGet();
+    }
+  }
+
+  @Override
+  protected boolean isClosed() {
+
+    return this.closed.get();
+  }
+
+}
@@ -0,0 +1,264 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.loader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * {@link Reader} for source-code that is entirely decoded into a {@code char[]} up-front. The bytes are read with a
+ * single bulk read into a buffer that is reused per {@link Thread} and then decoded in one pass by a
+ * {@link CharsetDecoder} that is also reused per {@link Thread}. Decoding an entire heap array at once takes the
+ * array fast path of the decoder (for UTF-8 and ISO-8859-* this includes an intrinsic ASCII fast path) instead of
+ * decoding small chunks like {@link java.io.InputStreamReader}. The {@code char[]} is also reused and returned to the
+ * current {@link Thread} on {@link #close()}.<br>
+ * Consumers aware of this class may directly access the decoded {@link #getChars() characters} instead of
+ * {@link #read(char[], int, int) reading} them.
+ *
+ * @since 1.0.0
+ */
+public final class BaseSourceCodeReader extends Reader {
+
+  private static final int INITIAL_CAPACITY = 8 * 1024;
+
+  /** Maximum size of buffers retained per thread to avoid holding huge arrays forever. */
+  private static final int MAX_CACHED_CAPACITY = 1024 * 1024;
+
+  private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+  private char[] chars;
+
+  private final int length;
+
+  private boolean shared;
+
+  private int position;
+
+  private Runnable closeHandler;
+
+  private BaseSourceCodeReader(char[] chars, int length, boolean shared) {
+
+    super();
+    this.chars = chars;
+    this.length = length;
+    this.shared = shared;
+  }
+
+  /**
+   * @return the internal {@code char[]} with the decoded characters from index {@code 0} to {@link #getLength()
+   *         length} (exclusive). Must not be modified and must not be used after {@link #close()}.
+   */
+  public char[] getChars() {
+
+    requireOpen();
+    return this.chars;
+  }
+
+  /**
+   * @return the internal {@code char[]} with the decoded characters from index {@code 0} to {@link #getLength()
+   *         length} (exclusive) that is handed over to the caller and therefore no longer reused on {@link #close()},
+   *         or {@code null} if it has considerably more capacity than required so the caller should better copy the
+   *         {@link #getChars() characters}. Must not be modified.
+   */
+  char[] share() {
+
+    requireOpen();
+    if (!this.shared && ((this.chars.length - this.length) > (this.length / 8))) {
+      return null;
+    }
+    this.shared = true;
+    return this.chars;
+  }
+
+  /**
+   * @return the number of decoded characters.
+   */
+  public int getLength() {
+
+    return this.length;
+  }
+
+  @Override
+  public int read() throws IOException {
+
+    requireOpen();
+    if (this.position >= this.length) {
+      return -1;
+    }
+    return this.chars[this.position++];
+  }
+
+  @Override
+  public int read(char[] buffer, int offset, int len) throws IOException {
+
+    requireOpen();
+    if (this.position >= this.length) {
+      return -1;
+    }
+    int count = Math.min(len, this.length - this.position);
+    System.arraycopy(this.chars, this.position, buffer, offset, count);
+    this.position += count;
+    return count;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+
+    requireOpen();
+    long count = Math.max(0, Math.min(n, this.length - this.position));
+    this.position += (int) count;
+    return count;
+  }
+
+  @Override
+  public boolean ready() {
+
+    return (this.chars != null);
+  }
+
+  /**
+   * @param handler the {@link Runnable} to invoke once when this reader gets {@link #close() closed}. Allows to track
+   *        open readers without wrapping them so consumers can still use {@link #getChars()}.
+   */
+  void setCloseHandler(Runnable handler) {
+
+    this.closeHandler = handler;
+  }
+
+  private void requireOpen() {
+
+    if (this.chars == null) {
+      throw new IllegalStateException("already closed!");
+    }
+  }
+
+  @Override
+  public void close() {
+
+    if (this.chars != null) {
+      Buffers buffers = BUFFERS.get();
+      if (!this.shared && (buffers.chars == null) && (this.chars.length <= MAX_CACHED_CAPACITY)) {
+        buffers.chars = this.chars;
+      }
+      this.chars = null;
+      if (this.closeHandler != null) {
+        this.closeHandler.run();
+      }
+    }
+  }
+
+  /**
+   * @param in the {@link InputStream} to read. Will be closed by this method.
+   * @param size the number of bytes to read if known in advance or {@code -1} if unknown.
+   * @param charset the {@link Charset} of the source-code.
+   * @return the {@link BaseSourceCodeReader} with the entire decoded content of the given {@link InputStream}.
+   * @throws IOException on I/O error.
+   */
+  public static BaseSourceCodeReader of(InputStream in, long size, Charset charset) throws IOException {
+
+    Buffers buffers = BUFFERS.get();
+    byte[] bytes = buffers.bytes;
+    int count = 0;
+    try (InputStream stream = in) {
+      if ((size > 0) && (size < Integer.MAX_VALUE - 8) && (size >= bytes.length)) {
+        bytes = new byte[(int) size + 1]; // +1 to detect EOF without growing
+      }
+      while (true) {
+        int read = stream.read(bytes, count, bytes.length - count);
+        if (read < 0) {
+          break;
+        }
+        count += read;
+        if (count == bytes.length) {
+          bytes = Arrays.copyOf(bytes, bytes.length * 2);
+        }
+      }
+    }
+    if (bytes.length <= MAX_CACHED_CAPACITY) {
+      buffers.bytes = bytes;
+    }
+    return of(bytes, count, charset);
+  }
+
+  /**
+   * @param bytes the bytes of the source-code.
+   * @param length the number of bytes to decode.
+   * @param charset the {@link Charset} of the source-code.
+   * @return the {@link BaseSourceCodeReader} with the decoded content.
+   */
+  public static BaseSourceCodeReader of(byte[] bytes, int length, Charset charset) {
+
+    int i = 0;
+    boolean utf8 = StandardCharsets.UTF_8.equals(charset);
+    if (utf8 && (length >= 3) && (bytes[0] == (byte) 0xEF) && (bytes[1] == (byte) 0xBB) && (bytes[2] == (byte) 0xBF)) {
+      i = 3; // skip UTF-8 BOM
+    }
+    Buffers buffers = BUFFERS.get();
+    CharsetDecoder decoder = buffers.getDecoder(charset);
+    char[] chars = buffers.takeChars((int) ((length - i) * (double) decoder.maxCharsPerByte()) + 1);
+    CharBuffer out = CharBuffer.wrap(chars);
+    decoder.decode(ByteBuffer.wrap(bytes, i, length - i), out, true);
+    decoder.flush(out);
+    return new BaseSourceCodeReader(chars, out.position(), false);
+  }
+
+  /**
+   * @param chars the {@code char[]} with the entire decoded source-code (e.g. from {@link BaseSourceCodeCache}). Is
+   *        shared and therefore neither modified nor reused for other readers on {@link #close()}.
+   * @return the {@link BaseSourceCodeReader} for the given characters.
+   */
+  static BaseSourceCodeReader ofShared(char[] chars) {
+
+    return ofShared(chars, chars.length);
+  }
+
+  /**
+   * @param chars the {@code char[]} with the entire decoded source-code from index {@code 0} to {@code length}
+   *        (exclusive). Is shared and therefore neither modified nor reused for other readers on {@link #close()}.
+   * @param length the number of characters.
+   * @return the {@link BaseSourceCodeReader} for the given characters.
+   */
+  static BaseSourceCodeReader ofShared(char[] chars, int length) {
+
+    return new BaseSourceCodeReader(chars, length, true);
+  }
+
+  private static class Buffers {
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+
+    private char[] chars;
+
+    private CharsetDecoder decoder;
+
+    private CharsetDecoder getDecoder(Charset charset) {
+
+      if ((this.decoder == null) || !this.decoder.charset().equals(charset)) {
+        this.decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+      } else {
+        this.decoder.reset();
+      }
+      return this.decoder;
+    }
+
+    private char[] takeChars(int capacity) {
+
+      char[] result = this.chars;
+      this.chars = null; // a new and larger buffer will be cached on close
+      if ((result == null) || (result.length < capacity)) {
+        result = new char[Math.max(capacity, INITIAL_CAPACITY)];
+      }
+      return result;
+    }
+  }
+
+}
@@ -2,6 +2,7 @@
  * http://www.apache.org/licenses/LICENSE-2.0 */
 package io.github.mmm.code.base.loader;
 
+import io.github.mmm.code.base.BaseFile;
 import io.github.mmm.code.base.BasePackage;
 
 /**
@@ -21,6 +22,41 @@ public interface BaseSourceLoader extends BaseLoader, AutoCloseable {
    */
   void scan(BasePackage pkg);
 
+  /**
+   * Releases resources (e.g. open archives) of this loader if idle. They will be reacquired transparently on the next
+   * access.
+   *
+   * @param idleNanos the minimum time in nanoseconds since the last access. Use {@code 0} to release regardless of the
+   *        last access.
+   * @return {@code true} if resources have been released, {@code false} otherwise.
+   */
+  default boolean release(long idleNanos) {
+
+    return false;
+  }
+
+  /**
+   * Detaches the given {@link BaseFile} from the {@link io.github.mmm.code.base.source.BaseSource#getRootPackage()
+   * package tree} after its type has been evicted from the cache of the context so it can be garbage collected if not
+   * referenced from elsewhere.
+   *
+   * @param file the {@link BaseFile} to detach.
+   */
+  default void detachFile(BaseFile file) {
+
+  }
+
+  /**
+   * Attaches the given {@link BaseFile} to the {@link io.github.mmm.code.base.source.BaseSource#getRootPackage()
+   * package tree} again after its type has been restored in the cache of the context.
+   *
+   * @param file the {@link BaseFile} to attach.
+   * @see #detachFile(BaseFile)
+   */
+  default void attachFile(BaseFile file) {
+
+  }
+
   @Override
   void close();
 
@@ -2,7 +2,14 @@
  * http://www.apache.org/licenses/LICENSE-2.0 */
 package io.github.mmm.code.base.loader;
 
+import java.util.Collection;
+
+import io.github.mmm.code.api.CodeName;
+import io.github.mmm.code.base.AbstractBaseContextWithCache;
 import io.github.mmm.code.base.BaseContext;
+import io.github.mmm.code.base.BaseFile;
+import io.github.mmm.code.base.BasePackage;
+import io.github.mmm.code.base.BasePathElements;
 import io.github.mmm.code.base.node.BaseNodeItemContainerAccess;
 import io.github.mmm.code.base.source.BaseSource;
 import io.github.mmm.code.base.source.BaseSourceImpl;
@@ -42,4 +49,67 @@ public abstract class BaseSourceLoaderImpl extends BaseNodeItemContainerAccess i
     }
   }
 
+  @Override
+  public void detachFile(BaseFile file) {
+
+    BaseSource src = this.source;
+    if (src == null) {
+      return;
+    }
+    synchronized (src.getRootPackage()) {
+      BasePathElements children = file.getParent().getChildren();
+      if (children.getFile(file.getSimpleName(), false) == file) {
+        removePathElementInternal(children, file);
+      }
+    }
+  }
+
+  @Override
+  public void attachFile(BaseFile file) {
+
+    BaseSource src = this.source;
+    if (src == null) {
+      return;
+    }
+    synchronized (src.getRootPackage()) {
+      BasePathElements children = file.getParent().getChildren();
+      if (children.getFile(file.getSimpleName(), false) == null) {
+        addPathElementInternal(children, file);
+      }
+    }
+  }
+
+  /**
+   * Invalidates the given types after their source-code has been changed, added or deleted. Their {@link BaseFile}s
+   * are removed from the {@link BaseSource#getRootPackage() package tree} and they are
+   * {@link AbstractBaseContextWithCache#invalidateTypes(Collection) invalidated in the context} so they will be loaded
+   * again on the next access.
+   *
+   * @param qualifiedNames the qualified names of the changed top-level types.
+   * @see SourceCodeProvider#setChangeListener(java.util.function.Consumer)
+   */
+  protected void invalidateTypes(Collection<String> qualifiedNames) {
+
+    BaseSource src = this.source;
+    if ((src == null) || qualifiedNames.isEmpty()) {
+      return;
+    }
+    BasePackage root = src.getRootPackage();
+    // lock order: per-name type locks of the context before the root package, so no types are resolved while holding it
+    synchronized (root) {
+      BasePathElements children = root.getChildren();
+      for (String qualifiedName : qualifiedNames) {
+        CodeName qName = src.parseName(qualifiedName);
+        BaseFile file = children.getFile(qName);
+        if (file != null) {
+          removePathElementInternal(file.getParent().getChildren(), file);
+        }
+      }
+    }
+    BaseContext context = src.getContext();
+    if (context instanceof AbstractBaseContextWithCache) {
+      ((AbstractBaseContextWithCache) context).invalidateTypes(qualifiedNames);
+    }
+  }
+
 }
@@ -4,7 +4,9 @@ package io.github.mmm.code.base.loader;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * The interface for a provider of source-code from an arbitrary location.
@@ -38,6 +40,40 @@ public interface SourceCodeProvider extends AutoCloseable {
    */
   List<String> scanPackage(String qualifiedName) throws IOException;
 
+  /**
+   * @return the {@link List} with the qualified names of all {@link io.github.mmm.code.api.CodePackage}s containing
+   *         {@link io.github.mmm.code.api.type.CodeType}s or {@code null} if scan is not supported.
+   * @throws IOException on I/O error.
+   * @see #scanPackage(String)
+   */
+  default List<String> scanPackages() throws IOException {
+
+    return null;
+  }
+
+  /**
+   * Sets the listener to notify when the source-code of types has been changed, added or deleted. Only providers that
+   * detect such changes (e.g. {@link BaseSourceCodeProviderDirectoryWatching}) will ever notify the listener.
+   *
+   * @param listener the {@link Consumer} that will receive the qualified names of the changed types.
+   */
+  default void setChangeListener(Consumer<Collection<String>> listener) {
+
+    // changes not detected by default
+  }
+
+  /**
+   * Gives a hint that the source-code of the given types will most likely be {@link #openType(String) opened} soon
+   * (e.g. as they are imported by a file that has just been parsed). Only providers supporting this (e.g.
+   * {@link SourceCodeProviderPrefetching}) will read them ahead of time.
+   *
+   * @param qualifiedNames the qualified names of the {@link io.github.mmm.code.api.type.CodeType}s to prefetch.
+   */
+  default void prefetch(Collection<String> qualifiedNames) {
+
+    // no prefetching by default
+  }
+
   @Override
   void close();
 
@@ -0,0 +1,181 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.loader;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool that limits the number of archives opened at the same time by {@link SourceCodeProviderProxy proxies}. If the
+ * {@link #getMaxOpen() maximum} is exceeded, the least recently used archives are
+ * {@link SourceCodeProviderProxy#release(long) released}. A released archive is reopened transparently on its next
+ * access. Archives with a {@link java.io.Reader} currently open are never released so the limit may be exceeded
+ * temporarily.
+ *
+ * @since 1.0.0
+ */
+public class SourceCodeProviderPool {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SourceCodeProviderPool.class);
+
+  /** The default {@link #getMaxOpen() maximum number of open archives}. */
+  public static final int DEFAULT_MAX_OPEN = 64;
+
+  private static final SourceCodeProviderPool DEFAULT = new SourceCodeProviderPool(DEFAULT_MAX_OPEN);
+
+  /** The open proxies in access order (least recently used first). */
+  private final Map<SourceCodeProviderProxy, Boolean> openProxies;
+
+  private int maxOpen;
+
+  private long hitCount;
+
+  private long openCount;
+
+  private long evictionCount;
+
+  /**
+   * The constructor.
+   *
+   * @param maxOpen the {@link #getMaxOpen() maximum number of open archives}.
+   */
+  public SourceCodeProviderPool(int maxOpen) {
+
+    super();
+    this.openProxies = new LinkedHashMap<>(16, 0.75f, true);
+    setMaxOpen(maxOpen);
+  }
+
+  /**
+   * @return the maximum number of archives to keep open at the same time.
+   */
+  public synchronized int getMaxOpen() {
+
+    return this.maxOpen;
+  }
+
+  /**
+   * @param maxOpen the new value of {@link #getMaxOpen()}. Takes effect on the next access.
+   */
+  public synchronized void setMaxOpen(int maxOpen) {
+
+    if (maxOpen < 1) {
+      throw new IllegalArgumentException("maxOpen=" + maxOpen);
+    }
+    this.maxOpen = maxOpen;
+  }
+
+  /**
+   * @return the number of archives currently open in this pool.
+   */
+  public synchronized int getOpenCount() {
+
+    return this.openProxies.size();
+  }
+
+  /**
+   * @return the total number of accesses to an archive that was already open.
+   */
+  public synchronized long getHitCount() {
+
+    return this.hitCount;
+  }
+
+  /**
+   * @return the total number of times an archive has been opened (including reopening after eviction).
+   */
+  public synchronized long getMissCount() {
+
+    return this.openCount;
+  }
+
+  /**
+   * @return the total number of archives that have been closed by this pool to stay within {@link #getMaxOpen()}.
+   */
+  public synchronized long getEvictionCount() {
+
+    return this.evictionCount;
+  }
+
+  /**
+   * @param proxy the {@link SourceCodeProviderProxy} that has been accessed.
+   * @param opened - {@code true} if the archive has been opened for this access, {@code false} if it was already open.
+   */
+  synchronized void accessed(SourceCodeProviderProxy proxy, boolean opened) {
+
+    if (opened) {
+      this.openCount++;
+      this.openProxies.put(proxy, Boolean.TRUE);
+    } else if (this.openProxies.get(proxy) != null) {
+      this.hitCount++;
+    }
+  }
+
+  /**
+   * @param proxy the {@link SourceCodeProviderProxy} that has been released or closed.
+   */
+  synchronized void released(SourceCodeProviderProxy proxy) {
+
+    this.openProxies.remove(proxy);
+  }
+
+  /**
+   * Releases the least recently used archives if more than {@link #getMaxOpen()} are open. Must not be called while
+   * holding the lock of a {@link SourceCodeProviderProxy} to prevent deadlocks.
+   *
+   * @param current the {@link SourceCodeProviderProxy} that has just been accessed and shall not be evicted.
+   */
+  void evict(SourceCodeProviderProxy current) {
+
+    List<SourceCodeProviderProxy> candidates;
+    int excess;
+    synchronized (this) {
+      excess = this.openProxies.size() - this.maxOpen;
+      if (excess <= 0) {
+        return;
+      }
+      candidates = new ArrayList<>(excess);
+      for (SourceCodeProviderProxy proxy : this.openProxies.keySet()) {
+        if (proxy != current) {
+          candidates.add(proxy);
+        }
+      }
+    }
+    for (SourceCodeProviderProxy proxy : candidates) {
+      if (excess <= 0) {
+        break;
+      }
+      // release calls released(proxy) and fails if a reader is open
+      if (proxy.release(0)) {
+        synchronized (this) {
+          this.evictionCount++;
+        }
+        excess--;
+      }
+    }
+    if (excess > 0) {
+      LOG.debug("Could not close {} archive(s) exceeding the maximum as they are in use.", Integer.valueOf(excess));
+    }
+  }
+
+  @Override
+  public synchronized String toString() {
+
+    return "open=" + this.openProxies.size() + "/" + this.maxOpen + ", hits=" + this.hitCount + ", misses="
+        + this.openCount + ", evictions=" + this.evictionCount;
+  }
+
+  /**
+   * @return the default {@link SourceCodeProviderPool} shared in this JVM.
+   */
+  public static SourceCodeProviderPool getDefault() {
+
+    return DEFAULT;
+  }
+
+}
@@ -0,0 +1,272 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.loader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementation of {@link SourceCodeProvider} that wraps another {@link SourceCodeProvider} to read and decode the
+ * source-code of types in the background before it is requested. The loader calls {@link #prefetch(Collection)} with
+ * the imports of each parsed file as these types are most likely resolved next. The prefetched source-code is kept in
+ * memory until it is {@link #openType(String) opened} so the I/O latency is hidden while parsing itself stays on
+ * demand. Prefetching is only a hint: if the {@link Executor} is busy or too many types are pending, requests are
+ * simply dropped. If more types are prefetched than requested, the oldest ones are discarded.<br>
+ * To combine it with a {@link SourceCodeProviderProxy}, let the proxy supply the prefetching provider wrapping the
+ * actual one. Then prefetch hints are ignored while the proxy has released the actual provider and prefetching never
+ * reopens it (e.g. an archive closed by the {@link SourceCodeProviderPool}).
+ *
+ * @since 1.0.0
+ */
+public class SourceCodeProviderPrefetching implements SourceCodeProvider {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SourceCodeProviderPrefetching.class);
+
+  /** The default maximum number of prefetched (or pending) types kept in memory until they are requested. */
+  public static final int DEFAULT_MAX_PREFETCHED = 256;
+
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+  private static final Executor DEFAULT_EXECUTOR = createDefaultExecutor();
+
+  private final SourceCodeProvider delegate;
+
+  private final Executor executor;
+
+  private final int maxPrefetched;
+
+  private final Map<String, Prefetched> prefetched;
+
+  private final Map<String, Boolean> pending;
+
+  private volatile boolean closed;
+
+  /**
+   * The constructor.
+   *
+   * @param delegate the {@link SourceCodeProvider} to wrap.
+   */
+  public SourceCodeProviderPrefetching(SourceCodeProvider delegate) {
+
+    this(delegate, DEFAULT_EXECUTOR, DEFAULT_MAX_PREFETCHED);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param delegate the {@link SourceCodeProvider} to wrap.
+   * @param executor the {@link Executor} used to prefetch in the background.
+   * @param maxPrefetched the maximum number of prefetched (or pending) types kept in memory until they are requested.
+   */
+  public SourceCodeProviderPrefetching(SourceCodeProvider delegate, Executor executor, int maxPrefetched) {
+
+    super();
+    Objects.requireNonNull(delegate, "delegate");
+    Objects.requireNonNull(executor, "executor");
+    this.delegate = delegate;
+    this.executor = executor;
+    this.maxPrefetched = maxPrefetched;
+    this.prefetched = Collections.synchronizedMap(new LinkedHashMap<String, Prefetched>() {
+
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Prefetched> eldest) {
+
+        // drop types that have been prefetched but were never requested
+        return size() > maxPrefetched;
+      }
+    });
+    this.pending = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * @return the wrapped {@link SourceCodeProvider}.
+   */
+  public SourceCodeProvider getDelegate() {
+
+    return this.delegate;
+  }
+
+  @Override
+  public Reader openType(String qualifiedName) throws IOException {
+
+    Prefetched sourceCode;
+    synchronized (this.prefetched) {
+      sourceCode = this.prefetched.remove(qualifiedName);
+      if (sourceCode == null) {
+        // still loading in the background: do not wait but also do not keep the result that is no longer needed
+        this.pending.replace(qualifiedName, Boolean.FALSE);
+      }
+    }
+    if (sourceCode != null) {
+      LOG.trace("Using prefetched source-code of {}", qualifiedName);
+      return BaseSourceCodeReader.ofShared(sourceCode.chars, sourceCode.length);
+    }
+    return this.delegate.openType(qualifiedName);
+  }
+
+  @Override
+  public Reader openPackage(String qualifiedName) throws IOException {
+
+    return this.delegate.openPackage(qualifiedName);
+  }
+
+  @Override
+  public List<String> scanPackage(String qualifiedName) throws IOException {
+
+    return this.delegate.scanPackage(qualifiedName);
+  }
+
+  @Override
+  public List<String> scanPackages() throws IOException {
+
+    return this.delegate.scanPackages();
+  }
+
+  @Override
+  public void prefetch(Collection<String> qualifiedNames) {
+
+    for (String qualifiedName : qualifiedNames) {
+      if (this.closed || (this.pending.size() >= this.maxPrefetched)) {
+        return;
+      }
+      if (this.prefetched.containsKey(qualifiedName)) {
+        continue;
+      }
+      if (this.pending.putIfAbsent(qualifiedName, Boolean.TRUE) == null) {
+        try {
+          this.executor.execute(() -> load(qualifiedName));
+        } catch (RuntimeException e) {
+          this.pending.remove(qualifiedName);
+          LOG.trace("Prefetching of {} rejected: {}", qualifiedName, e.toString());
+          return;
+        }
+      }
+    }
+  }
+
+  private void load(String qualifiedName) {
+
+    try {
+      if (this.closed) {
+        return;
+      }
+      Prefetched sourceCode = read(this.delegate.openType(qualifiedName));
+      if (sourceCode != null) {
+        // atomic with openType and the change listener that withdraw the pending request
+        synchronized (this.prefetched) {
+          if (!this.closed && (this.pending.get(qualifiedName) == Boolean.TRUE)) {
+            this.prefetched.put(qualifiedName, sourceCode);
+          }
+        }
+      }
+    } catch (Exception e) {
+      LOG.debug("Failed to prefetch {}: {}", qualifiedName, e.toString());
+    } finally {
+      this.pending.remove(qualifiedName);
+    }
+  }
+
+  private static Prefetched read(Reader reader) throws IOException {
+
+    if (reader == null) {
+      return null;
+    }
+    try (Reader r = reader) {
+      if (r instanceof BaseSourceCodeReader) {
+        BaseSourceCodeReader sourceReader = (BaseSourceCodeReader) r;
+        int length = sourceReader.getLength();
+        char[] chars = sourceReader.share();
+        if (chars == null) {
+          chars = Arrays.copyOf(sourceReader.getChars(), length);
+        }
+        return new Prefetched(chars, length);
+      }
+      char[] chars = new char[4096];
+      int length = 0;
+      int count = r.read(chars);
+      while (count >= 0) {
+        length += count;
+        if (length == chars.length) {
+          chars = Arrays.copyOf(chars, length * 2);
+        }
+        count = r.read(chars, length, chars.length - length);
+      }
+      return new Prefetched(chars, length);
+    }
+  }
+
+  @Override
+  public void setChangeListener(Consumer<Collection<String>> listener) {
+
+    Consumer<Collection<String>> wrapper = null;
+    if (listener != null) {
+      wrapper = changes -> {
+        synchronized (this.prefetched) {
+          for (String qualifiedName : changes) {
+            this.prefetched.remove(qualifiedName);
+            // a prefetch still in progress may have read the source-code before the change
+            this.pending.replace(qualifiedName, Boolean.FALSE);
+          }
+        }
+        listener.accept(changes);
+      };
+    }
+    this.delegate.setChangeListener(wrapper);
+  }
+
+  @Override
+  public void close() {
+
+    this.closed = true;
+    this.prefetched.clear();
+    this.delegate.close();
+  }
+
+  private static Executor createDefaultExecutor() {
+
+    int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(4 * DEFAULT_MAX_PREFETCHED), r -> {
+          Thread thread = new Thread(r, "mmm-code-prefetch-" + THREAD_COUNT.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /** The prefetched source-code as {@code char[]} from index {@code 0} to {@code length} (exclusive). */
+  private static final class Prefetched {
+
+    private final char[] chars;
+
+    private final int length;
+
+    private Prefetched(char[] chars, int length) {
+
+      super();
+      this.chars = chars;
+      this.length = length;
+    }
+  }
+
+}
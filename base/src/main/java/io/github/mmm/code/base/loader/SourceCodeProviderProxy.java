@@ -2,24 +2,39 @@
  * http://www.apache.org/licenses/LICENSE-2.0 */
 package io.github.mmm.code.base.loader;
 
+import java.io.FilterReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
- * Implementation of {@link SourceCodeProvider} for lazy instantiation.
+ * Implementation of {@link SourceCodeProvider} for lazy instantiation. The actual {@link SourceCodeProvider} can be
+ * {@link #release(long) released} when idle and will be recreated transparently on the next access. Optionally a
+ * {@link SourceCodeProviderPool} limits the number of archives that are open at the same time.
  *
  * @author Joerg Hohwiller (hohwille at users.sourceforge.net)
  * @since 1.0.0
  */
 public class SourceCodeProviderProxy implements SourceCodeProvider {
 
+  private final SourceCodeProviderPool pool;
+
   private Supplier<SourceCodeProvider> supplier;
 
   private SourceCodeProvider delegate;
 
+  private volatile long lastAccess;
+
+  private int openReaders;
+
+  private Consumer<Collection<String>> changeListener;
+
+  private boolean pooled;
+
   /**
    * The constructor.
    *
@@ -27,54 +42,223 @@ public class SourceCodeProviderProxy implements SourceCodeProvider {
    */
   public SourceCodeProviderProxy(Supplier<SourceCodeProvider> supplier) {
 
+    this(supplier, null);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param supplier the {@link Supplier} for the actual {@link SourceCodeProvider}.
+   * @param pool the {@link SourceCodeProviderPool} limiting the number of open archives or {@code null} for no limit.
+   */
+  public SourceCodeProviderProxy(Supplier<SourceCodeProvider> supplier, SourceCodeProviderPool pool) {
+
     super();
     Objects.requireNonNull(supplier, "supplier");
     this.supplier = supplier;
+    this.pool = pool;
+    this.lastAccess = System.nanoTime();
   }
 
   /**
    * @return the delegate
    */
-  public SourceCodeProvider getDelegate() {
+  public synchronized SourceCodeProvider getDelegate() {
 
+    this.lastAccess = System.nanoTime();
     if (this.delegate == null) {
       if (this.supplier != null) {
         this.delegate = this.supplier.get();
-        this.supplier = null;
+        if (this.delegate == null) {
+          this.supplier = null; // nothing to reopen
+        } else {
+          if (this.changeListener != null) {
+            this.delegate.setChangeListener(this.changeListener);
+          }
+          if ((this.pool != null) && isArchive(this.delegate)) {
+            this.pooled = true;
+            this.pool.accessed(this, true);
+          }
+        }
       }
       if (this.delegate == null) {
         return SourceCodeProviderNone.INSTANCE; // closed or supplier returned null
       }
+    } else if (this.pooled) {
+      this.pool.accessed(this, false);
     }
     return this.delegate;
   }
 
+  private static boolean isArchive(SourceCodeProvider provider) {
+
+    SourceCodeProvider actual = unwrap(provider);
+    return (actual instanceof BaseSourceCodeProviderZipFile) || (actual instanceof BaseSourceCodeProviderArchive);
+  }
+
+  private static SourceCodeProvider unwrap(SourceCodeProvider provider) {
+
+    if (provider instanceof SourceCodeProviderPrefetching) {
+      return ((SourceCodeProviderPrefetching) provider).getDelegate();
+    }
+    return provider;
+  }
+
   @Override
   public Reader openType(String qualifiedName) throws IOException {
 
-    return getDelegate().openType(qualifiedName);
+    Reader reader;
+    synchronized (this) {
+      reader = track(getDelegate().openType(qualifiedName));
+    }
+    evict();
+    return reader;
   }
 
   @Override
   public Reader openPackage(String qualifiedName) throws IOException {
 
-    return getDelegate().openPackage(qualifiedName);
+    Reader reader;
+    synchronized (this) {
+      reader = track(getDelegate().openPackage(qualifiedName));
+    }
+    evict();
+    return reader;
+  }
+
+  /**
+   * Lets the {@link SourceCodeProviderPool pool} close other archives if its limit is exceeded. Called outside of the
+   * lock of this proxy as the pool acquires the locks of other proxies.
+   */
+  private void evict() {
+
+    if (this.pool != null) {
+      this.pool.evict(this);
+    }
+  }
+
+  private Reader track(Reader reader) {
+
+    if (reader == null) {
+      return null;
+    }
+    this.openReaders++;
+    if (reader instanceof BaseSourceCodeReader) {
+      // no wrapper so consumers can still access the decoded characters directly
+      ((BaseSourceCodeReader) reader).setCloseHandler(this::onReaderClosed);
+      return reader;
+    }
+    return new TrackedReader(reader);
+  }
+
+  private synchronized void onReaderClosed() {
+
+    this.openReaders--;
+    this.lastAccess = System.nanoTime();
   }
 
   @Override
   public List<String> scanPackage(String qualifiedName) throws IOException {
 
-    return getDelegate().scanPackage(qualifiedName);
+    List<String> simpleNames;
+    synchronized (this) {
+      simpleNames = getDelegate().scanPackage(qualifiedName);
+    }
+    evict();
+    return simpleNames;
   }
 
   @Override
-  public void close() {
+  public List<String> scanPackages() throws IOException {
+
+    List<String> packageNames;
+    synchronized (this) {
+      packageNames = getDelegate().scanPackages();
+    }
+    evict();
+    return packageNames;
+  }
+
+  @Override
+  public synchronized void setChangeListener(Consumer<Collection<String>> listener) {
+
+    this.changeListener = listener;
+    if (this.delegate != null) {
+      this.delegate.setChangeListener(listener);
+    }
+  }
+
+  @Override
+  public synchronized void prefetch(Collection<String> qualifiedNames) {
+
+    if (this.delegate != null) {
+      this.delegate.prefetch(qualifiedNames); // only a hint so do not reopen a released delegate
+    }
+  }
+
+  /**
+   * Releases the actual {@link SourceCodeProvider} (e.g. to close an open archive) if it has not been accessed for the
+   * given time and no {@link Reader} is currently open. It will be recreated transparently on the next access.
+   *
+   * @param idleNanos the minimum time in nanoseconds since the last access. Use {@code 0} to release regardless of the
+   *        last access.
+   * @return {@code true} if released, {@code false} otherwise.
+   */
+  public synchronized boolean release(long idleNanos) {
+
+    if ((this.delegate == null) || (this.supplier == null) || (this.openReaders > 0)) {
+      return false;
+    }
+    if (unwrap(this.delegate) instanceof BaseSourceCodeProviderDirectoryWatching) {
+      return false; // would miss changes while released
+    }
+    if ((System.nanoTime() - this.lastAccess) < idleNanos) {
+      return false;
+    }
+    closeDelegate();
+    return true;
+  }
+
+  private void closeDelegate() {
 
     if (this.delegate != null) {
       this.delegate.close();
+      this.delegate = null;
+    }
+    if (this.pooled) {
+      this.pooled = false;
+      this.pool.released(this);
     }
-    this.delegate = null;
+  }
+
+  @Override
+  public synchronized void close() {
+
+    closeDelegate();
     this.supplier = null;
   }
 
+  private class TrackedReader extends FilterReader {
+
+    private boolean closed;
+
+    private TrackedReader(Reader reader) {
+
+      super(reader);
+    }
+
+    @Override
+    public void close() throws IOException {
+
+      if (!this.closed) {
+        this.closed = true;
+        try {
+          super.close();
+        } finally {
+          onReaderClosed();
+        }
+      }
+    }
+  }
+
 }
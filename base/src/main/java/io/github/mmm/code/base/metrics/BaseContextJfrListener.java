@@ -0,0 +1,48 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.metrics;
+
+/**
+ * Implementation of {@link BaseContextListener} that emits JFR events ({@link BaseTypeLoadEvent} and
+ * {@link BaseSourceParseEvent}). Events are only created if enabled in the active recording.
+ *
+ * @since 1.0.0
+ */
+public class BaseContextJfrListener implements BaseContextListener {
+
+  @Override
+  public void onTypeLoaded(String qualifiedName, BaseTypeOrigin origin, long nanos) {
+
+    commitTypeLoad(qualifiedName, origin.name(), nanos);
+  }
+
+  @Override
+  public void onTypeNotFound(String qualifiedName, long nanos) {
+
+    commitTypeLoad(qualifiedName, null, nanos);
+  }
+
+  private static void commitTypeLoad(String qualifiedName, String origin, long nanos) {
+
+    BaseTypeLoadEvent event = new BaseTypeLoadEvent();
+    if (event.shouldCommit()) {
+      event.qualifiedName = qualifiedName;
+      event.origin = origin;
+      event.loadTime = nanos;
+      event.commit();
+    }
+  }
+
+  @Override
+  public void onSourceParsed(String qualifiedName, long chars, long nanos) {
+
+    BaseSourceParseEvent event = new BaseSourceParseEvent();
+    if (event.shouldCommit()) {
+      event.qualifiedName = qualifiedName;
+      event.chars = chars;
+      event.parseTime = nanos;
+      event.commit();
+    }
+  }
+
+}
@@ -0,0 +1,102 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.metrics;
+
+import io.github.mmm.code.base.source.BaseSource;
+
+/**
+ * Listener (SPI) that gets notified about type resolution and source parsing of a
+ * {@link io.github.mmm.code.base.BaseContext}. Implementations are called synchronously from the resolving thread and
+ * therefore have to be thread-safe and fast. All methods have empty default implementations.
+ *
+ * @see io.github.mmm.code.base.BaseContext#getListener()
+ * @see BaseContextMetrics
+ * @see BaseContextJfrListener
+ * @since 1.0.0
+ */
+public interface BaseContextListener {
+
+  /** {@link BaseContextListener} that does nothing. */
+  BaseContextListener NONE = new BaseContextListener() {
+  };
+
+  /**
+   * @param qualifiedName the {@link io.github.mmm.code.base.type.BaseType#getQualifiedName() qualified name} of the
+   *        type that has been found in the cache.
+   */
+  default void onCacheHit(String qualifiedName) {
+
+  }
+
+  /**
+   * @param qualifiedName the {@link io.github.mmm.code.base.type.BaseType#getQualifiedName() qualified name} of the
+   *        type that has not been found in the cache.
+   */
+  default void onCacheMiss(String qualifiedName) {
+
+  }
+
+  /**
+   * @param qualifiedName the qualified name that has been found in the negative cache and is therefore known to be
+   *        unresolvable.
+   */
+  default void onNegativeCacheHit(String qualifiedName) {
+
+  }
+
+  /**
+   * @param qualifiedName the {@link io.github.mmm.code.base.type.BaseType#getQualifiedName() qualified name} of the
+   *        loaded type.
+   * @param origin the {@link BaseTypeOrigin} of the loaded type.
+   * @param nanos the duration of the load in nanoseconds.
+   */
+  default void onTypeLoaded(String qualifiedName, BaseTypeOrigin origin, long nanos) {
+
+  }
+
+  /**
+   * @param qualifiedName the qualified name of the type that could not be loaded.
+   * @param nanos the duration of the failed load in nanoseconds.
+   */
+  default void onTypeNotFound(String qualifiedName, long nanos) {
+
+  }
+
+  /**
+   * @param qualifiedName the qualified name of the type or package that has been parsed from source-code.
+   * @param chars the number of characters that have been parsed.
+   * @param nanos the duration of parsing in nanoseconds.
+   */
+  default void onSourceParsed(String qualifiedName, long chars, long nanos) {
+
+  }
+
+  /**
+   * @param source the {@link BaseSource} that has been registered.
+   */
+  default void onSourceRegistered(BaseSource source) {
+
+  }
+
+  /**
+   * @param source the {@link BaseSource} that has been closed.
+   */
+  default void onSourceClosed(BaseSource source) {
+
+  }
+
+  /**
+   * @param listeners the {@link BaseContextListener}s to combine.
+   * @return a {@link BaseContextListener} that delegates to all given {@link BaseContextListener}s.
+   */
+  static BaseContextListener of(BaseContextListener... listeners) {
+
+    if (listeners.length == 0) {
+      return NONE;
+    } else if (listeners.length == 1) {
+      return listeners[0];
+    }
+    return new BaseContextListenerComposite(listeners.clone());
+  }
+
+}
@@ -0,0 +1,92 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.metrics;
+
+import io.github.mmm.code.base.source.BaseSource;
+
+/**
+ * Implementation of {@link BaseContextListener} that delegates to multiple {@link BaseContextListener}s.
+ *
+ * @see BaseContextListener#of(BaseContextListener...)
+ * @since 1.0.0
+ */
+class BaseContextListenerComposite implements BaseContextListener {
+
+  private final BaseContextListener[] listeners;
+
+  /**
+   * The constructor.
+   *
+   * @param listeners the {@link BaseContextListener}s to delegate to.
+   */
+  BaseContextListenerComposite(BaseContextListener[] listeners) {
+
+    super();
+    this.listeners = listeners;
+  }
+
+  @Override
+  public void onCacheHit(String qualifiedName) {
+
+    for (BaseContextListener listener : this.listeners) {
+      listener.onCacheHit(qualifiedName);
+    }
+  }
+
+  @Override
+  public void onCacheMiss(String qualifiedName) {
+
+    for (BaseContextListener listener : this.listeners) {
+      listener.onCacheMiss(qualifiedName);
+    }
+  }
+
+  @Override
+  public void onNegativeCacheHit(String qualifiedName) {
+
+    for (BaseContextListener listener : this.listeners) {
+      listener.onNegativeCacheHit(qualifiedName);
+    }
+  }
+
+  @Override
+  public void onTypeLoaded(String qualifiedName, BaseTypeOrigin origin, long nanos) {
+
+    for (BaseContextListener listener : this.listeners) {
+      listener.onTypeLoaded(qualifiedName, origin, nanos);
+    }
+  }
+
+  @Override
+  public void onTypeNotFound(String qualifiedName, long nanos) {
+
+    for (BaseContextListener listener : this.listeners) {
+      listener.onTypeNotFound(qualifiedName, nanos);
+    }
+  }
+
+  @Override
+  public void onSourceParsed(String qualifiedName, long chars, long nanos) {
+
+    for (BaseContextListener listener : this.listeners) {
+      listener.onSourceParsed(qualifiedName, chars, nanos);
+    }
+  }
+
+  @Override
+  public void onSourceRegistered(BaseSource source) {
+
+    for (BaseContextListener listener : this.listeners) {
+      listener.onSourceRegistered(source);
+    }
+  }
+
+  @Override
+  public void onSourceClosed(BaseSource source) {
+
+    for (BaseContextListener listener : this.listeners) {
+      listener.onSourceClosed(source);
+    }
+  }
+
+}
@@ -0,0 +1,144 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import io.github.mmm.code.base.loader.BaseSourceCodeProviderArchive;
+import io.github.mmm.code.base.source.BaseSource;
+
+/**
+ * Implementation of {@link BaseContextListener} that collects metrics about type resolution. Only uses
+ * {@link LongAdder}s and a lock-free {@link BaseLatencyHistogram} so it is cheap enough to stay enabled in production.
+ * Use {@link #getSnapshot()} to export the current metrics.
+ *
+ * @since 1.0.0
+ */
+public class BaseContextMetrics implements BaseContextListener {
+
+  private final LongAdder cacheHits;
+
+  private final LongAdder cacheMisses;
+
+  private final LongAdder negativeCacheHits;
+
+  private final LongAdder reflectionLoads;
+
+  private final LongAdder sourceLoads;
+
+  private final LongAdder createdTypes;
+
+  private final LongAdder notFound;
+
+  private final LongAdder parsedSources;
+
+  private final LongAdder parsedChars;
+
+  private final LongAdder parseNanos;
+
+  private final LongAdder liveSources;
+
+  private final BaseLatencyHistogram loadLatencies;
+
+  /**
+   * The constructor.
+   */
+  public BaseContextMetrics() {
+
+    super();
+    this.cacheHits = new LongAdder();
+    this.cacheMisses = new LongAdder();
+    this.negativeCacheHits = new LongAdder();
+    this.reflectionLoads = new LongAdder();
+    this.sourceLoads = new LongAdder();
+    this.createdTypes = new LongAdder();
+    this.notFound = new LongAdder();
+    this.parsedSources = new LongAdder();
+    this.parsedChars = new LongAdder();
+    this.parseNanos = new LongAdder();
+    this.liveSources = new LongAdder();
+    this.loadLatencies = new BaseLatencyHistogram();
+  }
+
+  @Override
+  public void onCacheHit(String qualifiedName) {
+
+    this.cacheHits.increment();
+  }
+
+  @Override
+  public void onCacheMiss(String qualifiedName) {
+
+    this.cacheMisses.increment();
+  }
+
+  @Override
+  public void onNegativeCacheHit(String qualifiedName) {
+
+    this.negativeCacheHits.increment();
+  }
+
+  @Override
+  public void onTypeLoaded(String qualifiedName, BaseTypeOrigin origin, long nanos) {
+
+    switch (origin) {
+      case REFLECTION:
+        this.reflectionLoads.increment();
+        break;
+      case SOURCE:
+        this.sourceLoads.increment();
+        break;
+      case CREATED:
+        this.createdTypes.increment();
+        break;
+      default:
+        throw new IllegalArgumentException(origin.name());
+    }
+    this.loadLatencies.record(nanos);
+  }
+
+  @Override
+  public void onTypeNotFound(String qualifiedName, long nanos) {
+
+    this.notFound.increment();
+    this.loadLatencies.record(nanos);
+  }
+
+  @Override
+  public void onSourceParsed(String qualifiedName, long chars, long nanos) {
+
+    this.parsedSources.increment();
+    this.parsedChars.add(chars);
+    this.parseNanos.add(nanos);
+  }
+
+  @Override
+  public void onSourceRegistered(BaseSource source) {
+
+    this.liveSources.increment();
+  }
+
+  @Override
+  public void onSourceClosed(BaseSource source) {
+
+    this.liveSources.decrement();
+  }
+
+  /**
+   * @return the current metrics as immutable {@link BaseContextMetricsSnapshot}.
+   */
+  public BaseContextMetricsSnapshot getSnapshot() {
+
+    return new BaseContextMetricsSnapshot(this.cacheHits.sum(), this.cacheMisses.sum(), this.negativeCacheHits.sum(),
+        this.reflectionLoads.sum(), this.sourceLoads.sum(), this.createdTypes.sum(), this.notFound.sum(),
+        this.parsedSources.sum(), this.parsedChars.sum(), this.parseNanos.sum(), this.liveSources.sum(),
+        BaseSourceCodeProviderArchive.getOpenArchiveCount(), this.loadLatencies.getCounts());
+  }
+
+  @Override
+  public String toString() {
+
+    return getSnapshot().toString();
+  }
+
+}
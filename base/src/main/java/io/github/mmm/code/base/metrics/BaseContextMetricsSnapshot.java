@@ -0,0 +1,190 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.metrics;
+
+/**
+ * Immutable snapshot of {@link BaseContextMetrics}.
+ *
+ * @see BaseContextMetrics#getSnapshot()
+ * @since 1.0.0
+ */
+public final class BaseContextMetricsSnapshot {
+
+  private final long cacheHits;
+
+  private final long cacheMisses;
+
+  private final long negativeCacheHits;
+
+  private final long reflectionLoads;
+
+  private final long sourceLoads;
+
+  private final long createdTypes;
+
+  private final long notFound;
+
+  private final long parsedSources;
+
+  private final long parsedChars;
+
+  private final long parseNanos;
+
+  private final long liveSources;
+
+  private final long openArchives;
+
+  private final long[] loadLatencies;
+
+  BaseContextMetricsSnapshot(long cacheHits, long cacheMisses, long negativeCacheHits, long reflectionLoads,
+      long sourceLoads, long createdTypes, long notFound, long parsedSources, long parsedChars, long parseNanos,
+      long liveSources, long openArchives, long[] loadLatencies) {
+
+    super();
+    this.cacheHits = cacheHits;
+    this.cacheMisses = cacheMisses;
+    this.negativeCacheHits = negativeCacheHits;
+    this.reflectionLoads = reflectionLoads;
+    this.sourceLoads = sourceLoads;
+    this.createdTypes = createdTypes;
+    this.notFound = notFound;
+    this.parsedSources = parsedSources;
+    this.parsedChars = parsedChars;
+    this.parseNanos = parseNanos;
+    this.liveSources = liveSources;
+    this.openArchives = openArchives;
+    this.loadLatencies = loadLatencies;
+  }
+
+  /**
+   * @return the number of type lookups served from the cache.
+   */
+  public long getCacheHits() {
+
+    return this.cacheHits;
+  }
+
+  /**
+   * @return the number of type lookups not found in the cache.
+   */
+  public long getCacheMisses() {
+
+    return this.cacheMisses;
+  }
+
+  /**
+   * @return the number of type lookups answered by the negative cache.
+   */
+  public long getNegativeCacheHits() {
+
+    return this.negativeCacheHits;
+  }
+
+  /**
+   * @param origin the {@link BaseTypeOrigin}.
+   * @return the number of types loaded from the given {@link BaseTypeOrigin}.
+   */
+  public long getLoads(BaseTypeOrigin origin) {
+
+    switch (origin) {
+      case REFLECTION:
+        return this.reflectionLoads;
+      case SOURCE:
+        return this.sourceLoads;
+      case CREATED:
+        return this.createdTypes;
+      default:
+        throw new IllegalArgumentException(origin.name());
+    }
+  }
+
+  /**
+   * @return the number of type loads that failed as the type was not found.
+   */
+  public long getNotFound() {
+
+    return this.notFound;
+  }
+
+  /**
+   * @return the number of source files parsed.
+   */
+  public long getParsedSources() {
+
+    return this.parsedSources;
+  }
+
+  /**
+   * @return the total number of characters parsed.
+   */
+  public long getParsedChars() {
+
+    return this.parsedChars;
+  }
+
+  /**
+   * @return the total time spent for parsing in nanoseconds.
+   */
+  public long getParseNanos() {
+
+    return this.parseNanos;
+  }
+
+  /**
+   * @return the number of sources registered and not yet closed.
+   */
+  public long getLiveSources() {
+
+    return this.liveSources;
+  }
+
+  /**
+   * @return the number of source-code archives currently open in this JVM. Unlike the other values this is a global
+   *         gauge that is not limited to the context the {@link BaseContextMetrics} have been registered at.
+   * @see io.github.mmm.code.base.loader.BaseSourceCodeProviderArchive#getOpenArchiveCount()
+   */
+  public long getOpenArchives() {
+
+    return this.openArchives;
+  }
+
+  /**
+   * @return a copy of the counts of the type load latency histogram.
+   * @see BaseLatencyHistogram#getUpperBoundMicros(int)
+   */
+  public long[] getLoadLatencies() {
+
+    return this.loadLatencies.clone();
+  }
+
+  @Override
+  public String toString() {
+
+    StringBuilder sb = new StringBuilder(256);
+    sb.append("cache[hits=").append(this.cacheHits).append(",misses=").append(this.cacheMisses)
+        .append(",negativeHits=").append(this.negativeCacheHits).append("], loads[reflection=")
+        .append(this.reflectionLoads).append(",source=").append(this.sourceLoads).append(",created=")
+        .append(this.createdTypes).append(",notFound=").append(this.notFound).append("], parse[sources=")
+        .append(this.parsedSources).append(",chars=").append(this.parsedChars).append(",ms=")
+        .append(this.parseNanos / 1000000).append("], liveSources=").append(this.liveSources)
+        .append(", openArchives=").append(this.openArchives).append(", latency[");
+    String separator = "";
+    for (int i = 0; i < this.loadLatencies.length; i++) {
+      long count = this.loadLatencies[i];
+      if (count > 0) {
+        sb.append(separator);
+        long bound = BaseLatencyHistogram.getUpperBoundMicros(i);
+        if (bound == Long.MAX_VALUE) {
+          sb.append(">=").append(BaseLatencyHistogram.getUpperBoundMicros(i - 1));
+        } else {
+          sb.append('<').append(bound);
+        }
+        sb.append("us=").append(count);
+        separator = ",";
+      }
+    }
+    sb.append(']');
+    return sb.toString();
+  }
+
+}
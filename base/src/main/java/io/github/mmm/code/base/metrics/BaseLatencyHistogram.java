@@ -0,0 +1,89 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with exponential buckets. Bucket {@code 0} counts latencies below one microsecond and
+ * bucket {@code i} counts latencies below <code>2<sup>i</sup></code> microseconds that did not fit into bucket
+ * {@code i-1}. The last bucket counts all remaining latencies.
+ *
+ * @since 1.0.0
+ */
+public final class BaseLatencyHistogram {
+
+  /** The number of buckets. */
+  public static final int BUCKET_COUNT = 24;
+
+  private final AtomicLongArray buckets;
+
+  private final LongAdder totalNanos;
+
+  /**
+   * The constructor.
+   */
+  public BaseLatencyHistogram() {
+
+    super();
+    this.buckets = new AtomicLongArray(BUCKET_COUNT);
+    this.totalNanos = new LongAdder();
+  }
+
+  /**
+   * @param nanos the latency to record in nanoseconds.
+   */
+  public void record(long nanos) {
+
+    this.buckets.incrementAndGet(getBucket(nanos));
+    this.totalNanos.add(nanos);
+  }
+
+  /**
+   * @return the total of all recorded latencies in nanoseconds.
+   */
+  public long getTotalNanos() {
+
+    return this.totalNanos.sum();
+  }
+
+  /**
+   * @return a copy of the current bucket counts.
+   */
+  public long[] getCounts() {
+
+    long[] counts = new long[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts[i] = this.buckets.get(i);
+    }
+    return counts;
+  }
+
+  /**
+   * @param bucket the index of the bucket.
+   * @return the exclusive upper bound of the given bucket in microseconds or {@link Long#MAX_VALUE} for the last
+   *         bucket.
+   */
+  public static long getUpperBoundMicros(int bucket) {
+
+    if (bucket >= BUCKET_COUNT - 1) {
+      return Long.MAX_VALUE;
+    }
+    return 1L << bucket;
+  }
+
+  private static int getBucket(long nanos) {
+
+    long micros = nanos / 1000;
+    if (micros <= 0) {
+      return 0;
+    }
+    int bucket = 64 - Long.numberOfLeadingZeros(micros);
+    if (bucket >= BUCKET_COUNT) {
+      return BUCKET_COUNT - 1;
+    }
+    return bucket;
+  }
+
+}
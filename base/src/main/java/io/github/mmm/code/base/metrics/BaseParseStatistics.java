@@ -0,0 +1,119 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.metrics;
+
+import java.util.Locale;
+
+/**
+ * Immutable statistics of parsing multiple source files at once (e.g. an entire source tree).
+ *
+ * @since 1.0.0
+ */
+public final class BaseParseStatistics {
+
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+
+  private final int files;
+
+  private final int failures;
+
+  private final long chars;
+
+  private final long nanos;
+
+  private final int threads;
+
+  /**
+   * The constructor.
+   *
+   * @param files the {@link #getFiles() number of parsed files}.
+   * @param failures the {@link #getFailures() number of failures}.
+   * @param chars the {@link #getChars() number of parsed characters}.
+   * @param nanos the {@link #getNanos() duration}.
+   * @param threads the {@link #getThreads() number of threads}.
+   */
+  public BaseParseStatistics(int files, int failures, long chars, long nanos, int threads) {
+
+    super();
+    this.files = files;
+    this.failures = failures;
+    this.chars = chars;
+    this.nanos = nanos;
+    this.threads = threads;
+  }
+
+  /**
+   * @return the number of files that have been parsed successfully.
+   */
+  public int getFiles() {
+
+    return this.files;
+  }
+
+  /**
+   * @return the number of files that could not be read or parsed.
+   */
+  public int getFailures() {
+
+    return this.failures;
+  }
+
+  /**
+   * @return the total number of characters that have been parsed.
+   */
+  public long getChars() {
+
+    return this.chars;
+  }
+
+  /**
+   * @return the total duration (wall-clock time) in nanoseconds.
+   */
+  public long getNanos() {
+
+    return this.nanos;
+  }
+
+  /**
+   * @return the number of threads used for parsing.
+   */
+  public int getThreads() {
+
+    return this.threads;
+  }
+
+  /**
+   * @return the throughput in files per second.
+   */
+  public double getFilesPerSecond() {
+
+    if (this.nanos == 0) {
+      return 0;
+    }
+    return this.files * NANOS_PER_SECOND / this.nanos;
+  }
+
+  /**
+   * @return the throughput in mega-bytes of source-code per second (assuming one byte per character).
+   */
+  public double getMegabytesPerSecond() {
+
+    if (this.nanos == 0) {
+      return 0;
+    }
+    return (this.chars / BYTES_PER_MB) * NANOS_PER_SECOND / this.nanos;
+  }
+
+  @Override
+  public String toString() {
+
+    return String.format(Locale.US,
+        "%d files (%d failed, %d chars) in %.1fms with %d thread(s): %.1f files/s, %.2f MB/s",
+        Integer.valueOf(this.files), Integer.valueOf(this.failures), Long.valueOf(this.chars),
+        Double.valueOf(this.nanos / 1_000_000.0), Integer.valueOf(this.threads), Double.valueOf(getFilesPerSecond()),
+        Double.valueOf(getMegabytesPerSecond()));
+  }
+
+}
@@ -0,0 +1,37 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR {@link Event} for parsing source-code.
+ *
+ * @see BaseContextJfrListener
+ * @since 1.0.0
+ */
+@Name("io.github.mmm.code.SourceParse")
+@Label("Source Parse")
+@Category({ "mmm", "Code" })
+@Description("Parsing of source-code by a code context.")
+public class BaseSourceParseEvent extends Event {
+
+  /** @see BaseContextListener#onSourceParsed(String, long, long) */
+  @Label("Qualified Name")
+  public String qualifiedName;
+
+  /** The number of characters parsed. */
+  @Label("Characters")
+  public long chars;
+
+  /** The duration of parsing. */
+  @Label("Parse Time")
+  @Timespan(Timespan.NANOSECONDS)
+  public long parseTime;
+
+}
@@ -0,0 +1,37 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR {@link Event} for the load of a {@link io.github.mmm.code.base.type.BaseType}.
+ *
+ * @see BaseContextJfrListener
+ * @since 1.0.0
+ */
+@Name("io.github.mmm.code.TypeLoad")
+@Label("Type Load")
+@Category({ "mmm", "Code" })
+@Description("Load of a type by a code context.")
+public class BaseTypeLoadEvent extends Event {
+
+  /** @see BaseContextListener#onTypeLoaded(String, BaseTypeOrigin, long) */
+  @Label("Qualified Name")
+  public String qualifiedName;
+
+  /** The {@link BaseTypeOrigin#name() name} of the {@link BaseTypeOrigin} or {@code null} if not found. */
+  @Label("Origin")
+  public String origin;
+
+  /** The duration of the load. */
+  @Label("Load Time")
+  @Timespan(Timespan.NANOSECONDS)
+  public long loadTime;
+
+}
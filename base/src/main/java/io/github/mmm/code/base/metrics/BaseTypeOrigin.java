@@ -0,0 +1,21 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.metrics;
+
+/**
+ * Enum with the origins a {@link io.github.mmm.code.base.type.BaseType} can be loaded from.
+ *
+ * @since 1.0.0
+ */
+public enum BaseTypeOrigin {
+
+  /** Type loaded from byte-code via reflection. */
+  REFLECTION,
+
+  /** Type loaded by parsing source-code. */
+  SOURCE,
+
+  /** Type newly created. */
+  CREATED
+
+}
@@ -298,6 +298,15 @@ public abstract class BaseNodeItemContainer<I extends CodeItem> extends BaseNode
   public boolean remove(I item) {
 
     verifyMutalbe();
+    return removeInternal(item);
+  }
+
+  /**
+   * @param item the item to remove.
+   * @return {@code true} if the item was removed, {@code false} if not contained.
+   */
+  protected boolean removeInternal(I item) {
+
     if (this.map != null) {
       String key = getKey(item);
       if (key != null) {
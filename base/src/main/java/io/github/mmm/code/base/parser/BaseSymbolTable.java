@@ -0,0 +1,349 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.parser;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe table of canonical {@link String} instances for symbols (identifiers and qualified names) read by a
+ * {@link SourceCodeParser}. The same names (e.g. {@code String}, {@code List}, {@code Override}, or package names)
+ * occur over and over again in a code base. Instead of storing a new {@link String} for each occurrence, all parsed
+ * elements share the same instance. A parser can {@link #intern(char[], int, int) lookup} a symbol directly from its
+ * buffer so no {@link String} is created at all if the symbol is already known.<br>
+ * Lookups are lock-free. Only adding a new symbol locks one of the segments the table is split into so concurrent
+ * parsers rarely block each other. To prevent unlimited growth, new symbols are no longer added once the
+ * {@link #getMaxSize() maximum size} is reached. There is no global instance as the symbols would then be retained as
+ * long as the JVM runs. Instead a table is owned by a context and released together with it. The table reports the
+ * estimated number of {@link #getSavedBytes() bytes saved}.
+ *
+ * @since 1.0.0
+ */
+public class BaseSymbolTable {
+
+  /** The default {@link #getMaxSize() maximum number of symbols}. */
+  public static final int DEFAULT_MAX_SIZE = 1 << 20;
+
+  private static final int SEGMENT_COUNT = 16;
+
+  private static final int SEGMENT_SHIFT = 4;
+
+  private final Segment[] segments;
+
+  private final int maxSize;
+
+  private final LongAdder hitCount;
+
+  private final LongAdder missCount;
+
+  private final LongAdder savedBytes;
+
+  /**
+   * The constructor.
+   *
+   * @param maxSize the {@link #getMaxSize() maximum number of symbols}.
+   */
+  public BaseSymbolTable(int maxSize) {
+
+    super();
+    if (maxSize < SEGMENT_COUNT) {
+      throw new IllegalArgumentException("maxSize=" + maxSize);
+    }
+    this.maxSize = maxSize;
+    this.segments = new Segment[SEGMENT_COUNT];
+    for (int i = 0; i < SEGMENT_COUNT; i++) {
+      this.segments[i] = new Segment(maxSize / SEGMENT_COUNT);
+    }
+    this.hitCount = new LongAdder();
+    this.missCount = new LongAdder();
+    this.savedBytes = new LongAdder();
+  }
+
+  /**
+   * @param chars the buffer containing the characters of the symbol starting at index {@code 0}.
+   * @param length the number of characters of the symbol.
+   * @param hash the {@link String#hashCode() hash code} of the symbol as computed by {@link #hash(int, char)}.
+   * @return the canonical {@link String} for the given symbol.
+   */
+  public String intern(char[] chars, int length, int hash) {
+
+    Segment segment = getSegment(hash);
+    String symbol = segment.get(chars, length, hash);
+    if (symbol == null) {
+      this.missCount.increment();
+      symbol = segment.add(new String(chars, 0, length));
+    }
+    return symbol;
+  }
+
+  /**
+   * @param string the {@link String} to intern.
+   * @return the canonical {@link String} {@link Object#equals(Object) equal} to the given {@link String}.
+   */
+  public String intern(String string) {
+
+    if (string == null) {
+      return null;
+    }
+    int hash = string.hashCode();
+    Segment segment = getSegment(hash);
+    String symbol = segment.get(string, hash);
+    if (symbol == null) {
+      this.missCount.increment();
+      symbol = segment.add(string);
+    }
+    return symbol;
+  }
+
+  private Segment getSegment(int hash) {
+
+    return this.segments[spread(hash) & (SEGMENT_COUNT - 1)];
+  }
+
+  /**
+   * @return the maximum number of symbols to store. Further symbols are returned as is but not added.
+   */
+  public int getMaxSize() {
+
+    return this.maxSize;
+  }
+
+  /**
+   * @return the number of symbols currently stored in this table.
+   */
+  public int getSize() {
+
+    int size = 0;
+    for (Segment segment : this.segments) {
+      size += segment.getSize();
+    }
+    return size;
+  }
+
+  /**
+   * @return the total number of lookups that returned an existing symbol.
+   */
+  public long getHitCount() {
+
+    return this.hitCount.sum();
+  }
+
+  /**
+   * @return the total number of lookups for new symbols.
+   */
+  public long getMissCount() {
+
+    return this.missCount.sum();
+  }
+
+  /**
+   * @return the estimated number of bytes saved by sharing existing symbols instead of storing new {@link String}s.
+   */
+  public long getSavedBytes() {
+
+    return this.savedBytes.sum();
+  }
+
+  @Override
+  public String toString() {
+
+    return "symbols=" + getSize() + "/" + this.maxSize + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+        + ", saved=" + (getSavedBytes() / 1024) + "KB";
+  }
+
+  /**
+   * @param hash the hash code of the previous characters or {@code 0} for the first character.
+   * @param c the next UTF-16 character of the symbol. A supplementary code point has to be passed as its two
+   *        {@link Character#toChars(int) surrogate characters}.
+   * @return the hash code including the given character. Equal to {@link String#hashCode()} after the last character.
+   */
+  public static int hash(int hash, char c) {
+
+    return (31 * hash) + c;
+  }
+
+  private static int spread(int hash) {
+
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * @return the estimated size of the given {@link String} in bytes (object header, fields, and array with compact
+   *         strings).
+   */
+  private static int estimateSize(String string) {
+
+    int length = string.length();
+    int bytesPerChar = 1;
+    for (int i = 0; i < length; i++) {
+      if (string.charAt(i) > 0xFF) {
+        bytesPerChar = 2;
+        break;
+      }
+    }
+    return 24 + (((16 + (length * bytesPerChar)) + 7) & ~7);
+  }
+
+  /**
+   * Segment of the table with open addressing and linear probing. Lookups read the {@code volatile} {@link Table}
+   * without locking. New symbols are added with the lock held and a resized {@link Table} is only published once it is
+   * complete, so a lookup always sees a consistent table. A lookup that misses a symbol added concurrently falls
+   * through to {@link #add(String)} that checks again with the lock held.
+   */
+  private final class Segment {
+
+    private final int maxSize;
+
+    private volatile Table table;
+
+    private int size;
+
+    private Segment(int maxSize) {
+
+      super();
+      this.maxSize = maxSize;
+      this.table = new Table(64);
+    }
+
+    private synchronized int getSize() {
+
+      return this.size;
+    }
+
+    private String get(char[] chars, int length, int hash) {
+
+      Table currentTable = this.table;
+      int i = currentTable.indexOf(chars, length, hash);
+      if (i < 0) {
+        return null;
+      }
+      return currentTable.hit(i);
+    }
+
+    private String get(String string, int hash) {
+
+      Table currentTable = this.table;
+      int i = currentTable.indexOf(string, hash);
+      if (i < 0) {
+        return null;
+      }
+      String symbol = currentTable.symbols[i];
+      if (symbol == string) {
+        return symbol;
+      }
+      return currentTable.hit(i);
+    }
+
+    private synchronized String add(String string) {
+
+      Table currentTable = this.table;
+      int i = currentTable.indexOf(string, string.hashCode());
+      if (i >= 0) {
+        return currentTable.symbols[i]; // added concurrently
+      }
+      if (this.size >= this.maxSize) {
+        return string;
+      }
+      if (2 * (this.size + 1) > currentTable.symbols.length) {
+        Table newTable = new Table(currentTable.symbols.length * 2);
+        for (int j = 0; j < currentTable.symbols.length; j++) {
+          String symbol = currentTable.symbols[j];
+          if (symbol != null) {
+            newTable.insert(symbol, currentTable.sizes[j]);
+          }
+        }
+        newTable.insert(string, estimateSize(string));
+        this.table = newTable;
+      } else {
+        currentTable.insert(string, estimateSize(string));
+      }
+      this.size++;
+      return string;
+    }
+  }
+
+  /**
+   * The slots of a {@link Segment} with the {@link #estimateSize(String) estimated size} of each symbol so a hit does
+   * not have to compute it again. A lock-free lookup may see a symbol added concurrently before its size (that is never
+   * {@code 0}) and then computes the size itself.
+   */
+  private final class Table {
+
+    private final String[] symbols;
+
+    private final int[] sizes;
+
+    private Table(int capacity) {
+
+      super();
+      this.symbols = new String[capacity];
+      this.sizes = new int[capacity];
+    }
+
+    private int indexOf(char[] chars, int length, int hash) {
+
+      int mask = this.symbols.length - 1;
+      int i = (spread(hash) >>> SEGMENT_SHIFT) & mask;
+      String symbol = this.symbols[i];
+      while (symbol != null) {
+        if ((symbol.hashCode() == hash) && matches(symbol, chars, length)) {
+          return i;
+        }
+        i = (i + 1) & mask;
+        symbol = this.symbols[i];
+      }
+      return -1;
+    }
+
+    private int indexOf(String string, int hash) {
+
+      int mask = this.symbols.length - 1;
+      int i = (spread(hash) >>> SEGMENT_SHIFT) & mask;
+      String symbol = this.symbols[i];
+      while (symbol != null) {
+        if ((symbol.hashCode() == hash) && symbol.equals(string)) {
+          return i;
+        }
+        i = (i + 1) & mask;
+        symbol = this.symbols[i];
+      }
+      return -1;
+    }
+
+    private String hit(int i) {
+
+      String symbol = this.symbols[i];
+      int size = this.sizes[i];
+      if (size == 0) {
+        size = estimateSize(symbol);
+      }
+      BaseSymbolTable.this.hitCount.increment();
+      BaseSymbolTable.this.savedBytes.add(size);
+      return symbol;
+    }
+
+    private void insert(String symbol, int size) {
+
+      int mask = this.symbols.length - 1;
+      int i = (spread(symbol.hashCode()) >>> SEGMENT_SHIFT) & mask;
+      while (this.symbols[i] != null) {
+        i = (i + 1) & mask;
+      }
+      this.sizes[i] = size;
+      this.symbols[i] = symbol;
+    }
+  }
+
+  private static boolean matches(String symbol, char[] chars, int length) {
+
+    if (symbol.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (symbol.charAt(i) != chars[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
@@ -0,0 +1,22 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.parser;
+
+/**
+ * Enum with the modes a {@link SourceCodeParser} can operate in.
+ *
+ * @since 1.0.0
+ */
+public enum SourceCodeParseMode {
+
+  /** Parse the entire source-code including the bodies of operations and initializers. */
+  FULL,
+
+  /**
+   * Parse only the declarations (types, fields, and operation signatures including annotations and JavaDoc). The
+   * bodies of operations and initializers are skipped and remain empty. Use this mode if the implementation is not
+   * needed (e.g. for API analysis or code generation) as it is much faster and creates far fewer objects.
+   */
+  SIGNATURES
+
+}
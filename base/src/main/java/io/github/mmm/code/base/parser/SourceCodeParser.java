@@ -9,7 +9,8 @@ import io.github.mmm.code.base.BasePackage;
 import io.github.mmm.code.base.type.BaseType;
 
 /**
- * Interface for a parser of Java source code.
+ * Interface for a parser of Java source code. Implementations have to be thread-safe as types may be loaded and
+ * parsed concurrently.
  *
  * @author Joerg Hohwiller (hohwille at users.sourceforge.net)
  * @since 1.0.0
@@ -39,4 +40,12 @@ public interface SourceCodeParser {
    */
   void parsePackage(Reader reader, BasePackage pkg);
 
+  /**
+   * @return the {@link SourceCodeParseMode} of this parser.
+   */
+  default SourceCodeParseMode getMode() {
+
+    return SourceCodeParseMode.FULL;
+  }
+
 }
@@ -0,0 +1,239 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base;
+
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.mmm.code.base.cache.BaseCacheConfig;
+import io.github.mmm.code.base.metrics.BaseContextListener;
+import io.github.mmm.code.base.metrics.BaseContextMetrics;
+import io.github.mmm.code.base.type.BaseType;
+
+/**
+ * Test of {@link AbstractBaseContextWithCache} via {@link TestContext}.
+ */
+class AbstractBaseContextWithCacheTest extends Assertions {
+
+  /**
+   * Test that evicting a type from a bounded cache detaches its file from the package tree and that an evicted type
+   * that is still referenced is restored as the same instance.
+   */
+  @Test
+  void testEvictionDetachesFile() {
+
+    // arrange
+    TestContext context = new TestContext(BaseCacheConfig.ofMaxSize(2));
+    BaseType stringType = (BaseType) context.getType(String.class);
+    BasePathElements javaLang = stringType.getParentPackage().getChildren();
+    assertThat(javaLang.getFile("String", false)).isSameAs(stringType.getFile());
+
+    // act
+    context.getType(Integer.class);
+    context.getType(Long.class);
+
+    // assert
+    assertThat(context.getTypeCacheSize()).isEqualTo(2);
+    assertThat(javaLang.getFile("String", false)).isNull();
+    assertThat(javaLang.getFile("Long", false)).isNotNull();
+    assertThat(context.getType(String.class)).isSameAs(stringType);
+    assertThat(javaLang.getFile("String", false)).isSameAs(stringType.getFile());
+  }
+
+  /**
+   * Test that nested types are not cached together with their declaring type but still resolved on demand.
+   */
+  @Test
+  void testNestedTypeResolvedOnDemand() {
+
+    // arrange
+    TestContext context = new TestContext(new TestContext(), BaseCacheConfig.UNBOUNDED);
+    BasePathElements rootChildren = context.getSource().getRootPackage().getChildren();
+    BaseType outerType = rootChildren.getOrCreateFile(context.parseName("mydomain.Outer"), true).getType();
+    BaseType innerType = outerType.getNestedTypes().add("Inner");
+    BaseType nestedInnerType = innerType.getNestedTypes().add("Nested");
+
+    // act
+    BaseType outer = context.getType("mydomain.Outer");
+    int cacheSize = context.getTypeCacheSize();
+    BaseType inner = context.getType("mydomain.Outer.Inner");
+    BaseType nestedInner = context.getType("mydomain.Outer.Inner.Nested");
+
+    // assert
+    assertThat(outer).isSameAs(outerType);
+    assertThat(cacheSize).isEqualTo(1);
+    assertThat(inner).isSameAs(innerType);
+    assertThat(nestedInner).isSameAs(nestedInnerType);
+    assertThat(context.getTypeCacheSize()).isEqualTo(3);
+    assertThat(context.getType("mydomain.Outer.Undefined")).isNull();
+  }
+
+  /**
+   * Test that a nested type is resolved via its declaring type if that is not yet cached.
+   */
+  @Test
+  void testNestedTypeResolvedViaDeclaringType() {
+
+    // arrange
+    TestContext context = new TestContext(new TestContext(), BaseCacheConfig.UNBOUNDED);
+    BasePathElements rootChildren = context.getSource().getRootPackage().getChildren();
+    BaseType outerType = rootChildren.getOrCreateFile(context.parseName("mydomain.Outer"), true).getType();
+    BaseType innerType = outerType.getNestedTypes().add("Inner");
+
+    // act
+    BaseType inner = context.getType("mydomain.Outer.Inner");
+
+    // assert
+    assertThat(inner).isSameAs(innerType);
+    assertThat(context.getTypeCacheSize()).isEqualTo(2);
+    assertThat(context.getNegativeCacheMisses()).isZero();
+  }
+
+  /**
+   * Test that unresolvable names are remembered in the negative cache so the loader is not asked again.
+   */
+  @Test
+  void testNegativeCache() {
+
+    // arrange
+    TestContext context = new TestContext();
+    String qualifiedName = "Undefined";
+
+    // act
+    BaseType type1 = context.getType(qualifiedName);
+    BaseType type2 = context.getType(qualifiedName);
+
+    // assert
+    assertThat(type1).isNull();
+    assertThat(type2).isNull();
+    assertThat(context.getNegativeCacheMisses()).isEqualTo(1);
+    assertThat(context.getNegativeCacheHits()).isEqualTo(1);
+  }
+
+  /**
+   * Test that {@link AbstractBaseContextWithCache#getOrCreateType(String, boolean)} creates the type even if its name
+   * is already in the negative cache.
+   */
+  @Test
+  void testGetOrCreateTypeIgnoresNegativeCache() {
+
+    // arrange
+    TestContext context = new TestContext();
+    String qualifiedName = "mydomain.MyClass";
+    assertThat(context.getType(qualifiedName)).isNull();
+
+    // act
+    BaseType type = context.getOrCreateType(qualifiedName, false);
+
+    // assert
+    assertThat(type).isNotNull();
+    assertThat(type.getQualifiedName()).isEqualTo(qualifiedName);
+    assertThat(context.getType(qualifiedName)).isSameAs(type);
+  }
+
+  /**
+   * Test that invalidating the negative cache of a parent also invalidates the negative caches of its children.
+   */
+  @Test
+  void testInvalidateNegativeCacheOfChildren() {
+
+    // arrange
+    TestContext parent = new TestContext();
+    TestContext child = new TestContext(parent, BaseCacheConfig.UNBOUNDED);
+    TestContext grandChild = new TestContext(child, BaseCacheConfig.UNBOUNDED);
+    assertThat(child.getType("mydomain.Undefined")).isNull();
+    assertThat(grandChild.getType("mydomain.Unknown")).isNull();
+
+    // act
+    parent.invalidateNegativeCache();
+    child.getType("mydomain.Undefined");
+    grandChild.getType("mydomain.Unknown");
+
+    // assert
+    assertThat(child.getNegativeCacheHits()).isZero();
+    assertThat(grandChild.getNegativeCacheHits()).isZero();
+  }
+
+  /**
+   * Test that the read-through views of child contexts on the cache of their ancestors are discarded when an ancestor
+   * invalidates a cached type.
+   */
+  @Test
+  void testParentViewDroppedWhenAncestorChanges() {
+
+    // arrange
+    TestContext root = new TestContext();
+    TestContext child = new TestContext(root, BaseCacheConfig.UNBOUNDED);
+    TestContext grandChild = new TestContext(child, BaseCacheConfig.UNBOUNDED);
+    BaseType stringType = (BaseType) root.getType(String.class);
+    assertThat(child.getType(String.class)).isSameAs(stringType);
+    assertThat(grandChild.getType(String.class)).isSameAs(stringType);
+
+    // act
+    root.getSource().getLoader().detachFile(stringType.getFile()); // as if the type has been changed
+    root.invalidateTypes(List.of(String.class.getName()));
+    BaseType newStringType = (BaseType) root.getType(String.class);
+
+    // assert
+    assertThat(newStringType).isNotSameAs(stringType);
+    assertThat(child.getType(String.class)).isSameAs(newStringType);
+    assertThat(grandChild.getType(String.class)).isSameAs(newStringType);
+  }
+
+  /**
+   * Test that invalidating a top-level type also removes its cached nested types.
+   */
+  @Test
+  void testInvalidateTypesIncludingNestedTypes() {
+
+    // arrange
+    TestContext context = new TestContext(new TestContext(), BaseCacheConfig.UNBOUNDED);
+    BasePathElements rootChildren = context.getSource().getRootPackage().getChildren();
+    BaseType outerType = rootChildren.getOrCreateFile(context.parseName("mydomain.Outer"), true).getType();
+    outerType.getNestedTypes().add("Inner").getNestedTypes().add("Nested");
+    BaseType otherType = rootChildren.getOrCreateFile(context.parseName("mydomain.Other"), true).getType();
+    otherType.getNestedTypes().add("Inner");
+    context.getType("mydomain.Outer.Inner.Nested");
+    context.getType("mydomain.Other.Inner");
+    assertThat(context.getTypeCacheSize()).isEqualTo(5);
+
+    // act
+    int count = context.invalidateTypes(List.of("mydomain.Outer"));
+
+    // assert
+    assertThat(count).isEqualTo(3);
+    assertThat(context.getTypeCacheSize()).isEqualTo(2);
+    assertThat(context.getType("mydomain.Other.Inner")).isNotNull();
+  }
+
+  /**
+   * Test that a child context inherits the listener of its parent and is refreshed when the listener of the parent is
+   * changed after it has already been resolved.
+   */
+  @Test
+  void testListenerInheritedAndRefreshed() {
+
+    // arrange
+    TestContext parent = new TestContext();
+    TestContext child = new TestContext(parent, BaseCacheConfig.UNBOUNDED);
+    assertThat(child.getListener()).isSameAs(BaseContextListener.NONE);
+    BaseContextMetrics metrics = new BaseContextMetrics();
+    BaseContextMetrics childMetrics = new BaseContextMetrics();
+
+    // act
+    parent.setListener(metrics);
+    BaseContextListener inherited = child.getListener();
+    child.setListener(childMetrics);
+    BaseContextListener own = child.getListener();
+    child.setListener(null);
+    parent.setListener(null);
+
+    // assert
+    assertThat(inherited).isSameAs(metrics);
+    assertThat(own).isSameAs(childMetrics);
+    assertThat(child.getListener()).isSameAs(BaseContextListener.NONE);
+  }
+
+}
@@ -0,0 +1,82 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base;
+
+import java.lang.management.ManagementFactory;
+
+import io.github.mmm.code.api.type.CodeType;
+import io.github.mmm.code.base.cache.BaseCacheConfig;
+import io.github.mmm.code.base.type.BaseType;
+
+/**
+ * Micro benchmark comparing lazy resolution of nested types (only when requested by name) with the former eager
+ * approach that put all nested types of a type into the cache together with the type itself. Uses {@link TestContext}
+ * with synthetic top-level types that each have nested types and resolves every top-level type once. Reports the time,
+ * the number of cached types, and the allocated bytes.<br>
+ * Run manually with the number of top-level types and of nested types per type as optional arguments (defaults to
+ * {@code 20000} and {@code 4}).
+ */
+public class NestedTypeResolutionBenchmark {
+
+  private static final int ITERATIONS = 5;
+
+  /**
+   * @param args the command-line arguments.
+   */
+  public static void main(String[] args) {
+
+    int typeCount = 20000;
+    int nestedCount = 4;
+    if (args.length > 0) {
+      typeCount = Integer.parseInt(args[0]);
+    }
+    if (args.length > 1) {
+      nestedCount = Integer.parseInt(args[1]);
+    }
+    System.out.println("Resolving " + typeCount + " types with " + nestedCount + " nested types each");
+    for (int i = 0; i < ITERATIONS; i++) {
+      run("eager", typeCount, nestedCount, true);
+      run("lazy ", typeCount, nestedCount, false);
+    }
+  }
+
+  private static void run(String name, int typeCount, int nestedCount, boolean eager) {
+
+    TestContext context = new TestContext(new TestContext(), BaseCacheConfig.UNBOUNDED);
+    BasePathElements rootChildren = context.getSource().getRootPackage().getChildren();
+    String[] qualifiedNames = new String[typeCount];
+    for (int i = 0; i < typeCount; i++) {
+      String qualifiedName = "mydomain.pkg" + (i % 100) + ".Type" + i;
+      BaseType type = rootChildren.getOrCreateFile(context.parseName(qualifiedName), true).getType();
+      for (int j = 0; j < nestedCount; j++) {
+        type.getNestedTypes().add("Nested" + j);
+      }
+      qualifiedNames[i] = qualifiedName;
+    }
+    long allocated = getAllocatedBytes();
+    long start = System.nanoTime();
+    for (String qualifiedName : qualifiedNames) {
+      BaseType type = context.getType(qualifiedName);
+      if (eager) { // former behaviour of putTypeInCache
+        for (CodeType nested : type.getNestedTypes().getDeclared()) {
+          context.getType(nested.getQualifiedName());
+        }
+      }
+    }
+    long nanos = System.nanoTime() - start;
+    allocated = getAllocatedBytes() - allocated;
+    System.out.printf("%s: %6d ms %8d cached types %12d bytes allocated%n", name, Long.valueOf(nanos / 1_000_000),
+        Integer.valueOf(context.getTypeCacheSize()), Long.valueOf(allocated));
+  }
+
+  @SuppressWarnings("deprecation")
+  private static long getAllocatedBytes() {
+
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return 0;
+  }
+
+}
@@ -11,6 +11,7 @@ import io.github.mmm.code.api.CodeName;
 import io.github.mmm.code.api.element.CodeElementWithDeclaringType;
 import io.github.mmm.code.api.language.CodeLanguage;
 import io.github.mmm.code.api.language.JavaLanguage;
+import io.github.mmm.code.base.cache.BaseCacheConfig;
 import io.github.mmm.code.base.loader.BaseLoader;
 import io.github.mmm.code.base.loader.BaseSourceLoader;
 import io.github.mmm.code.base.loader.BaseSourceLoaderImpl;
@@ -25,18 +26,43 @@ import io.github.mmm.code.base.type.BaseTypeWildcard;
  */
 public class TestContext extends AbstractBaseContextWithCache {
 
+  private final TestContext parent;
+
   /**
    * The constructor.
    */
   public TestContext() {
 
-    super(createSource());
+    this(BaseCacheConfig.UNBOUNDED);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param cacheConfig the {@link BaseCacheConfig}.
+   */
+  public TestContext(BaseCacheConfig cacheConfig) {
+
+    this(null, cacheConfig);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param parent the {@link #getParent() parent} or {@code null} for a root context. A child context has a mutable
+   *        {@link #getSource() source}.
+   * @param cacheConfig the {@link BaseCacheConfig}.
+   */
+  public TestContext(TestContext parent, BaseCacheConfig cacheConfig) {
+
+    super(createSource(parent == null), null, cacheConfig);
+    this.parent = parent;
   }
 
-  private static BaseSourceImpl createSource() {
+  private static BaseSourceImpl createSource(boolean immutable) {
 
     BaseSourceLoader loader = new TestSoureLoader();
-    BaseSourceImpl source = new BaseSourceImpl(new File(""), null, null, null, loader);
+    BaseSourceImpl source = new BaseSourceImpl(null, new File(""), null, null, null, null, loader, immutable);
     return source;
   }
 
@@ -118,7 +144,7 @@ public class TestContext extends AbstractBaseContextWithCache {
   @Override
   public AbstractBaseContext getParent() {
 
-    return null;
+    return this.parent;
   }
 
   @Override
@@ -152,7 +178,7 @@ public class TestContext extends AbstractBaseContextWithCache {
     @Override
     public BaseType getType(CodeName qualifiedName) {
 
-      return null;
+      return getType(qualifiedName.getFullName());
     }
 
     @Override
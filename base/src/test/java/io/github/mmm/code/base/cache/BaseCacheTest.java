@@ -0,0 +1,207 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of {@link BaseCache}.
+ */
+class BaseCacheTest extends Assertions {
+
+  /**
+   * Test that {@link BaseCache} evicts least recently used entries when exceeding its maximum size.
+   */
+  @Test
+  void testEvictLeastRecentlyUsed() {
+
+    // arrange
+    BaseCache<String, Integer> cache = new BaseCache<>(BaseCacheConfig.ofMaxSize(10), v -> true);
+    for (int i = 0; i < 10; i++) {
+      cache.put("key" + i, Integer.valueOf(i));
+    }
+    cache.get("key0");
+
+    // act
+    cache.put("key10", Integer.valueOf(10));
+
+    // assert
+    assertThat(cache.size()).isEqualTo(10);
+    assertThat(cache.containsKey("key1")).isFalse();
+    assertThat(cache.get("key0")).isEqualTo(Integer.valueOf(0));
+    for (int i = 2; i <= 10; i++) {
+      assertThat(cache.containsKey("key" + i)).as("key" + i).isTrue();
+    }
+  }
+
+  /**
+   * Test that {@link BaseCache} evicts in the order of access independent of the iteration order of the keys.
+   */
+  @Test
+  void testEvictionOrderDeterministic() {
+
+    // arrange
+    BaseCache<Integer, Integer> cache = new BaseCache<>(BaseCacheConfig.ofMaxSize(20), v -> true);
+    for (int i = 0; i < 20; i++) {
+      cache.put(Integer.valueOf(i), Integer.valueOf(i));
+    }
+    for (int i = 19; i >= 0; i--) {
+      cache.get(Integer.valueOf(i));
+    }
+
+    // act + assert
+    for (int i = 20; i < 30; i++) {
+      cache.put(Integer.valueOf(i), Integer.valueOf(i));
+      assertThat(cache.containsKey(Integer.valueOf(i - 20))).as("key" + (i - 20)).isFalse();
+      assertThat(cache.size()).isEqualTo(20);
+    }
+  }
+
+  /**
+   * Test that {@link BaseCache} restores an evicted value that is still referenced instead of losing its identity and
+   * notifies the {@link BaseCacheListener}.
+   */
+  @Test
+  void testRestoreEvictedValue() {
+
+    // arrange
+    List<String> events = new ArrayList<>();
+    BaseCacheListener<String> listener = new BaseCacheListener<>() {
+
+      @Override
+      public void onEvicted(String value) {
+
+        events.add("evicted:" + value);
+      }
+
+      @Override
+      public void onRestored(String value) {
+
+        events.add("restored:" + value);
+      }
+    };
+    BaseCache<String, String> cache = new BaseCache<>(BaseCacheConfig.ofMaxSize(2), v -> true, listener);
+    String a = new String("a");
+    cache.put("a", a);
+    cache.put("b", "b");
+    cache.put("c", "c");
+    assertThat(cache.containsKey("a")).isFalse();
+
+    // act
+    String restored = cache.get("a");
+
+    // assert
+    assertThat(restored).isSameAs(a);
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(events).containsExactly("evicted:a", "restored:a", "evicted:b");
+  }
+
+  /**
+   * Test that {@link BaseCache} only samples a bounded number of entries per eviction.
+   */
+  @Test
+  void testEvictionWorkBounded() {
+
+    // arrange
+    int maxSize = 100 * BaseCache.SAMPLE_SIZE;
+    AtomicInteger checks = new AtomicInteger();
+    BaseCache<Integer, Integer> cache = new BaseCache<>(BaseCacheConfig.ofMaxSize(maxSize), v -> {
+      checks.incrementAndGet();
+      return true;
+    });
+    for (int i = 0; i < maxSize; i++) {
+      cache.put(Integer.valueOf(i), Integer.valueOf(i));
+    }
+
+    // act
+    cache.put(Integer.valueOf(maxSize), Integer.valueOf(maxSize));
+
+    // assert
+    assertThat(cache.size()).isEqualTo(maxSize);
+    assertThat(checks.get()).isLessThanOrEqualTo(BaseCache.SAMPLE_SIZE);
+  }
+
+  /**
+   * Test that {@link BaseCache} never evicts pinned entries.
+   */
+  @Test
+  void testPinnedEntriesNotEvicted() {
+
+    // arrange
+    BaseCache<String, Integer> cache = new BaseCache<>(BaseCacheConfig.ofMaxSize(10), v -> (v.intValue() % 2) == 0);
+
+    // act
+    for (int i = 0; i < 30; i++) {
+      cache.put("key" + i, Integer.valueOf(i));
+    }
+
+    // assert
+    assertThat(cache.size()).isLessThanOrEqualTo(20);
+    for (int i = 0; i < 30; i += 2) {
+      assertThat(cache.containsKey("key" + (i + 1))).as("key" + (i + 1)).isTrue();
+    }
+  }
+
+  /**
+   * Test that a value that is still referenced is never lost while other threads concurrently evict and restore it.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  void testConcurrentEvictAndRestore() throws Exception {
+
+    // arrange
+    int count = 64;
+    String[] values = new String[count];
+    BaseCacheListener<String> slowListener = new BaseCacheListener<>() {
+
+      @Override
+      public void onEvicted(String value) {
+
+        Thread.yield();
+      }
+    };
+    BaseCache<Integer, String> cache = new BaseCache<>(BaseCacheConfig.ofMaxSize(8), v -> true, slowListener);
+    for (int i = 0; i < count; i++) {
+      values[i] = new String("value" + i);
+      cache.put(Integer.valueOf(i), values[i]);
+    }
+    int threads = 4;
+    List<Callable<Integer>> tasks = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      int offset = t;
+      tasks.add(() -> {
+        int lost = 0;
+        for (int i = 0; i < 50000; i++) {
+          int key = ((i * 7) + offset) % count;
+          if (cache.get(Integer.valueOf(key)) != values[key]) {
+            lost++;
+          }
+        }
+        return Integer.valueOf(lost);
+      });
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      // act
+      List<Future<Integer>> results = executor.invokeAll(tasks);
+
+      // assert
+      for (Future<Integer> result : results) {
+        assertThat(result.get()).isEqualTo(0);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+}
@@ -0,0 +1,148 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.loader;
+
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test of {@link BaseSourceCodeCache}.
+ */
+class BaseSourceCodeCacheTest extends Assertions {
+
+  private static String read(Reader reader) throws Exception {
+
+    try (Reader r = reader) {
+      StringBuilder sb = new StringBuilder();
+      char[] buffer = new char[16];
+      int count = r.read(buffer);
+      while (count >= 0) {
+        sb.append(buffer, 0, count);
+        count = r.read(buffer);
+      }
+      return sb.toString();
+    }
+  }
+
+  /**
+   * Test that unchanged source-code is shared by the providers of different contexts and changed source-code is read
+   * again even if the last modification time did not change.
+   *
+   * @param tempDir the temporary directory.
+   * @throws Exception on error.
+   */
+  @Test
+  void testSharedByProviders(@TempDir Path tempDir) throws Exception {
+
+    // arrange
+    Path foo = Files.createDirectories(tempDir.resolve("com/foo")).resolve("Foo.java");
+    Files.writeString(foo, "class Foo {}");
+    BaseSourceCodeCache cache = new BaseSourceCodeCache(BaseSourceCodeCache.DEFAULT_MAX_CHARS);
+    try (BaseSourceCodeProviderDirectory provider1 = new BaseSourceCodeProviderDirectory(tempDir.toFile());
+        BaseSourceCodeProviderDirectory provider2 = new BaseSourceCodeProviderDirectory(tempDir.toFile())) {
+      provider1.setCache(cache);
+      provider2.setCache(cache);
+
+      // act + assert
+      assertThat(read(provider1.openType("com.foo.Foo"))).isEqualTo("class Foo {}");
+      assertThat(cache.getMissCount()).isEqualTo(1);
+      assertThat(cache.getSize()).isEqualTo(1);
+      Reader reader = provider2.openType("com.foo.Foo");
+      assertThat(cache.getHitCount()).isEqualTo(1);
+      assertThat(read(reader)).isEqualTo("class Foo {}");
+      assertThat(read(provider2.openType("com.foo.Foo"))).isEqualTo("class Foo {}");
+      assertThat(cache.getHitCount()).isEqualTo(2);
+
+      FileTime modified = Files.getLastModifiedTime(foo);
+      Files.writeString(foo, "class Foo { void bar() {} }");
+      Files.setLastModifiedTime(foo, modified);
+      assertThat(read(provider2.openType("com.foo.Foo"))).isEqualTo("class Foo { void bar() {} }");
+      assertThat(cache.getMissCount()).isEqualTo(2);
+      assertThat(read(provider1.openType("com.foo.Foo"))).isEqualTo("class Foo { void bar() {} }");
+      assertThat(cache.getHitCount()).isEqualTo(3);
+    }
+  }
+
+  /**
+   * Test that the oldest source-code is evicted when the maximum number of characters is exceeded unless it has been
+   * hit in the meantime.
+   *
+   * @param tempDir the temporary directory.
+   * @throws Exception on error.
+   */
+  @Test
+  void testMaxChars(@TempDir Path tempDir) throws Exception {
+
+    // arrange
+    Files.writeString(tempDir.resolve("Foo.java"), "class Foo {}");
+    Files.writeString(tempDir.resolve("Bar.java"), "class Bar {}");
+    Files.writeString(tempDir.resolve("Some.java"), "class Some {}");
+    Files.writeString(tempDir.resolve("Huge.java"), "class Huge { int a; int b; }");
+    BaseSourceCodeCache cache = new BaseSourceCodeCache(25);
+    try (BaseSourceCodeProviderDirectory provider = new BaseSourceCodeProviderDirectory(tempDir.toFile())) {
+      provider.setCache(cache);
+
+      // act
+      read(provider.openType("Foo"));
+      read(provider.openType("Bar"));
+      read(provider.openType("Foo"));
+      read(provider.openType("Some"));
+      read(provider.openType("Huge"));
+
+      // assert
+      assertThat(cache.getSize()).isEqualTo(2);
+      assertThat(cache.getHitCount()).isEqualTo(1);
+      assertThat(read(provider.openType("Foo"))).isEqualTo("class Foo {}");
+      assertThat(cache.getHitCount()).isEqualTo(2);
+      assertThat(read(provider.openType("Bar"))).isEqualTo("class Bar {}");
+      assertThat(read(provider.openType("Huge"))).isEqualTo("class Huge { int a; int b; }");
+      assertThat(cache.getHitCount()).isEqualTo(2);
+    }
+  }
+
+  /**
+   * Test that the same archive entry is shared by the providers of different contexts.
+   *
+   * @param tempDir the temporary directory.
+   * @throws Exception on error.
+   */
+  @Test
+  void testSharedByArchiveProviders(@TempDir Path tempDir) throws Exception {
+
+    // arrange
+    Path archive = tempDir.resolve("test-sources.jar");
+    try (OutputStream out = Files.newOutputStream(archive); ZipOutputStream zip = new ZipOutputStream(out)) {
+      zip.putNextEntry(new ZipEntry("com/foo/Foo.java"));
+      zip.write("class Foo {}".getBytes(StandardCharsets.UTF_8));
+      zip.closeEntry();
+    }
+    BaseSourceCodeCache cache = new BaseSourceCodeCache(BaseSourceCodeCache.DEFAULT_MAX_CHARS);
+    try (BaseSourceCodeProviderZipFile provider1 = new BaseSourceCodeProviderZipFile(archive.toFile());
+        BaseSourceCodeProviderZipFile provider2 = new BaseSourceCodeProviderZipFile(archive.toFile())) {
+      provider1.setCache(cache);
+      provider2.setCache(cache);
+
+      // act
+      String code1 = read(provider1.openType("com.foo.Foo"));
+      String code2 = read(provider2.openType("com.foo.Foo"));
+
+      // assert
+      assertThat(code1).isEqualTo("class Foo {}");
+      assertThat(code2).isEqualTo(code1);
+      assertThat(cache.getMissCount()).isEqualTo(1);
+      assertThat(cache.getHitCount()).isEqualTo(1);
+      assertThat(provider2.openType("com.foo.Missing")).isNull();
+    }
+  }
+
+}
@@ -0,0 +1,63 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.loader;
+
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test of {@link BaseSourceCodeProviderComposite}.
+ */
+class BaseSourceCodeProviderCompositeTest extends Assertions {
+
+  /**
+   * Test of {@link BaseSourceCodeProviderComposite} with two source roots.
+   *
+   * @param tempDir the temporary directory.
+   * @throws Exception on error.
+   */
+  @Test
+  void testMultipleRoots(@TempDir Path tempDir) throws Exception {
+
+    // arrange
+    Path main = Files.createDirectories(tempDir.resolve("main/com/foo"));
+    Files.writeString(main.resolve("Foo.java"), "class Foo {}");
+    Files.writeString(main.resolve("Bar.java"), "class Bar {}");
+    Path generated = Files.createDirectories(tempDir.resolve("generated/com/foo"));
+    Files.writeString(generated.resolve("package-info.java"), "package com.foo;");
+    Files.writeString(generated.resolve("Foo.java"), "class Foo { int generated; }");
+    Files.writeString(generated.resolve("FooBuilder.java"), "class FooBuilder {}");
+
+    try (BaseSourceCodeProviderComposite provider = new BaseSourceCodeProviderComposite(
+        new BaseSourceCodeProviderDirectory(tempDir.resolve("main").toFile()),
+        new BaseSourceCodeProviderDirectory(tempDir.resolve("generated").toFile()))) {
+
+      // act + assert
+      assertThat(provider.scanPackage("com.foo")).containsExactlyInAnyOrder("Foo", "Bar", "FooBuilder");
+      assertThat(read(provider.openType("com.foo.Foo"))).isEqualTo("class Foo {}");
+      assertThat(read(provider.openType("com.foo.FooBuilder"))).isEqualTo("class FooBuilder {}");
+      assertThat(provider.openType("com.foo.Undefined")).isNull();
+      assertThat(read(provider.openPackage("com.foo"))).isEqualTo("package com.foo;");
+    }
+  }
+
+  private static String read(Reader reader) throws Exception {
+
+    try (Reader r = reader) {
+      StringBuilder sb = new StringBuilder();
+      char[] buffer = new char[64];
+      int count = r.read(buffer);
+      while (count > 0) {
+        sb.append(buffer, 0, count);
+        count = r.read(buffer);
+      }
+      return sb.toString();
+    }
+  }
+
+}
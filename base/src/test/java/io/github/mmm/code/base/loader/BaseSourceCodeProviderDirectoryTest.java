@@ -0,0 +1,49 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.loader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test of {@link BaseSourceCodeProviderDirectory}.
+ */
+class BaseSourceCodeProviderDirectoryTest extends Assertions {
+
+  /**
+   * Test of {@link BaseSourceCodeProviderDirectory#scanPackage(String)} and
+   * {@link BaseSourceCodeProviderDirectory#invalidatePackageIndex()}.
+   *
+   * @param tempDir the temporary directory.
+   * @throws Exception on error.
+   */
+  @Test
+  void testScanPackage(@TempDir Path tempDir) throws Exception {
+
+    // arrange
+    Path pkg = Files.createDirectories(tempDir.resolve("com/foo"));
+    Files.writeString(pkg.resolve("package-info.java"), "package com.foo;");
+    Files.writeString(pkg.resolve("Foo.java"), "class Foo {}");
+    Files.writeString(pkg.resolve("Bar.java"), "class Bar {}");
+    Files.writeString(pkg.resolve("readme.txt"), "");
+    Files.writeString(tempDir.resolve("module-info.java"), "module foo {}");
+
+    try (BaseSourceCodeProviderDirectory provider = new BaseSourceCodeProviderDirectory(tempDir.toFile())) {
+
+      // act + assert
+      assertThat(provider.scanPackage("com.foo")).containsExactlyInAnyOrder("Foo", "Bar");
+      assertThat(provider.scanPackage("com")).isEmpty();
+      assertThat(provider.scanPackage("")).isEmpty();
+
+      Files.writeString(pkg.resolve("Some.java"), "class Some {}");
+      assertThat(provider.scanPackage("com.foo")).containsExactlyInAnyOrder("Foo", "Bar");
+      provider.invalidatePackageIndex();
+      assertThat(provider.scanPackage("com.foo")).containsExactlyInAnyOrder("Foo", "Bar", "Some");
+    }
+  }
+
+}
@@ -0,0 +1,89 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.loader;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.mmm.code.api.language.JavaLanguage;
+
+/**
+ * Test of {@link BaseSourceCodeProviderDirectoryWatching}.
+ */
+class BaseSourceCodeProviderDirectoryWatchingTest extends Assertions {
+
+  /**
+   * Test that changed, added and deleted source files are detected.
+   *
+   * @param tempDir the temporary directory.
+   * @throws Exception on error.
+   */
+  @Test
+  void testDetectChanges(@TempDir Path tempDir) throws Exception {
+
+    // arrange
+    Path pkg = Files.createDirectories(tempDir.resolve("com/foo"));
+    Path foo = Files.writeString(pkg.resolve("Foo.java"), "class Foo {}");
+    Files.writeString(pkg.resolve("Bar.java"), "class Bar {}");
+    BlockingQueue<Collection<String>> queue = new LinkedBlockingQueue<>();
+    try (BaseSourceCodeProviderDirectoryWatching provider = new BaseSourceCodeProviderDirectoryWatching(
+        tempDir.toFile(), JavaLanguage.TYPE_EXTENSION_JAVA, StandardCharsets.UTF_8, Duration.ofMillis(100))) {
+      provider.setChangeListener(queue::add);
+      assertThat(provider.scanPackage("com.foo")).containsExactlyInAnyOrder("Foo", "Bar");
+
+      // act + assert
+      Files.writeString(foo, "class Foo { int x; }");
+      Files.setLastModifiedTime(foo, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+      assertThat(queue.poll(10, TimeUnit.SECONDS)).containsExactly("com.foo.Foo");
+
+      Path sub = Files.createDirectories(pkg.resolve("bar"));
+      Files.writeString(sub.resolve("Some.java"), "class Some {}");
+      assertThat(queue.poll(10, TimeUnit.SECONDS)).containsExactly("com.foo.bar.Some");
+      assertThat(provider.scanPackage("com.foo.bar")).containsExactly("Some");
+
+      Files.delete(pkg.resolve("Bar.java"));
+      assertThat(queue.poll(10, TimeUnit.SECONDS)).containsExactly("com.foo.Bar");
+      assertThat(provider.scanPackage("com.foo")).containsExactly("Foo");
+    }
+  }
+
+  /**
+   * Test that a modification is detected even if the last modification time did not change (e.g. on file systems with
+   * coarse time resolution).
+   *
+   * @param tempDir the temporary directory.
+   * @throws Exception on error.
+   */
+  @Test
+  void testDetectChangeWithSameModificationTime(@TempDir Path tempDir) throws Exception {
+
+    // arrange
+    Path foo = Files.writeString(Files.createDirectories(tempDir.resolve("com/foo")).resolve("Foo.java"),
+        "class Foo {}");
+    FileTime modified = Files.getLastModifiedTime(foo);
+    BlockingQueue<Collection<String>> queue = new LinkedBlockingQueue<>();
+    try (BaseSourceCodeProviderDirectoryWatching provider = new BaseSourceCodeProviderDirectoryWatching(
+        tempDir.toFile(), JavaLanguage.TYPE_EXTENSION_JAVA, StandardCharsets.UTF_8, Duration.ofMillis(100))) {
+      provider.setChangeListener(queue::add);
+
+      // act
+      Files.writeString(foo, "class Foo { int x; }");
+      Files.setLastModifiedTime(foo, modified);
+
+      // assert
+      assertThat(queue.poll(10, TimeUnit.SECONDS)).containsExactly("com.foo.Foo");
+    }
+  }
+
+}
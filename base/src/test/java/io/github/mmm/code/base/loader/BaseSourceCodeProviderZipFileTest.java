@@ -0,0 +1,145 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.loader;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test of {@link BaseSourceCodeProviderZipFile}.
+ */
+class BaseSourceCodeProviderZipFileTest extends Assertions {
+
+  /**
+   * Test of {@link BaseSourceCodeProviderZipFile#openType(String)},
+   * {@link BaseSourceCodeProviderZipFile#openPackage(String)} and
+   * {@link BaseSourceCodeProviderZipFile#scanPackage(String)}.
+   *
+   * @param tempDir the temporary directory.
+   * @throws Exception on error.
+   */
+  @Test
+  void testIndex(@TempDir Path tempDir) throws Exception {
+
+    // arrange
+    Path archive = tempDir.resolve("test-sources.jar");
+    try (OutputStream out = Files.newOutputStream(archive); ZipOutputStream zip = new ZipOutputStream(out)) {
+      zip.putNextEntry(new ZipEntry("com/foo/"));
+      addEntry(zip, "com/foo/package-info.java", "package com.foo;");
+      addEntry(zip, "com/foo/Foo.java", "class Foo {}");
+      addEntry(zip, "com/foo/Bar.java", "class Bar {}");
+      addEntry(zip, "com/foo/bar/Some.java", "class Some {}");
+      addEntry(zip, "META-INF/MANIFEST.MF", "");
+    }
+    File file = archive.toFile();
+
+    // act
+    try (BaseSourceCodeProviderZipFile provider = new BaseSourceCodeProviderZipFile(file)) {
+
+      // assert
+      assertThat(read(provider.openType("com.foo.Foo"))).isEqualTo("class Foo {}");
+      assertThat(read(provider.openPackage("com.foo"))).isEqualTo("package com.foo;");
+      assertThat(provider.openType("com.foo.Missing")).isNull();
+      assertThat(provider.openPackage("com.foo.bar")).isNull();
+      assertThat(provider.scanPackage("com.foo")).containsExactlyInAnyOrder("Foo", "Bar");
+      assertThat(provider.scanPackage("com.foo.bar")).containsExactly("Some");
+      assertThat(provider.scanPackage("com")).isEmpty();
+    }
+  }
+
+  /**
+   * Test of {@link BaseSourceCodeProviderZipFile} with a modular layout like {@code src.zip} of the JDK.
+   *
+   * @param tempDir the temporary directory.
+   * @throws Exception on error.
+   */
+  @Test
+  void testModular(@TempDir Path tempDir) throws Exception {
+
+    // arrange
+    Path archive = tempDir.resolve("src.zip");
+    try (OutputStream out = Files.newOutputStream(archive); ZipOutputStream zip = new ZipOutputStream(out)) {
+      addEntry(zip, "java.base/module-info.java", "module java.base {}");
+      addEntry(zip, "java.base/java/lang/package-info.java", "package java.lang;");
+      addEntry(zip, "java.base/java/lang/String.java", "class String {}");
+      addEntry(zip, "java.sql/module-info.java", "module java.sql {}");
+      addEntry(zip, "java.sql/java/sql/Date.java", "class Date {}");
+    }
+    File file = archive.toFile();
+
+    // act
+    try (BaseSourceCodeProviderZipFile provider = new BaseSourceCodeProviderZipFile(file)) {
+
+      // assert
+      assertThat(provider.isModular()).isTrue();
+      assertThat(read(provider.openType("java.lang.String"))).isEqualTo("class String {}");
+      assertThat(read(provider.openType("java.sql.Date"))).isEqualTo("class Date {}");
+      assertThat(read(provider.openPackage("java.lang"))).isEqualTo("package java.lang;");
+      assertThat(provider.scanPackage("java.lang")).containsExactly("String");
+      assertThat(provider.getModuleName("java.sql")).isEqualTo("java.sql");
+      assertThat(provider.getModuleName("java.base")).isNull();
+      // module-info.java of each module is no type so it must not break scanning or parsing all types
+      assertThat(provider.scanPackage("")).isEmpty();
+      assertThat(provider.scanPackages()).containsExactlyInAnyOrder("java.lang", "java.sql");
+      assertThat(provider.openType("module-info")).isNull();
+    }
+  }
+
+  /**
+   * Test that {@link BaseSourceCodeProviderZipFile#close()} only releases the archive once.
+   *
+   * @param tempDir the temporary directory.
+   * @throws Exception on error.
+   */
+  @Test
+  void testCloseTwice(@TempDir Path tempDir) throws Exception {
+
+    // arrange
+    Path archive = tempDir.resolve("test-sources.jar");
+    try (OutputStream out = Files.newOutputStream(archive); ZipOutputStream zip = new ZipOutputStream(out)) {
+      addEntry(zip, "com/foo/Foo.java", "class Foo {}");
+    }
+    int openArchives = BaseSourceCodeProviderArchive.getOpenArchiveCount();
+    BaseSourceCodeProviderZipFile provider = new BaseSourceCodeProviderZipFile(archive.toFile());
+    assertThat(BaseSourceCodeProviderArchive.getOpenArchiveCount()).isEqualTo(openArchives + 1);
+
+    // act
+    provider.close();
+    provider.close();
+
+    // assert
+    assertThat(BaseSourceCodeProviderArchive.getOpenArchiveCount()).isEqualTo(openArchives);
+    try {
+      provider.openType("com.foo.Foo");
+      failBecauseExceptionWasNotThrown(IllegalStateException.class);
+    } catch (IllegalStateException e) {
+      assertThat(e.getMessage()).isEqualTo("already closed!");
+    }
+  }
+
+  private static void addEntry(ZipOutputStream zip, String name, String content) throws Exception {
+
+    zip.putNextEntry(new ZipEntry(name));
+    zip.write(content.getBytes(StandardCharsets.UTF_8));
+    zip.closeEntry();
+  }
+
+  private static String read(Reader reader) throws Exception {
+
+    try (BufferedReader in = new BufferedReader(reader)) {
+      return in.readLine();
+    }
+  }
+
+}
@@ -0,0 +1,147 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.loader;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Micro benchmark comparing {@link BaseSourceCodeReader} with {@link InputStreamReader} decoding all sources from the
+ * JDK {@code src.zip}. The entries are loaded into memory before so only reading and decoding is measured. Reports
+ * throughput in bytes per second and allocated bytes per source file. Further compares reading the entire source into a
+ * {@link String} (as done by the parser to keep the source for lazy bodies) directly from
+ * {@link BaseSourceCodeReader#getChars()} with reading through a {@link FilterReader} that hides the
+ * {@link BaseSourceCodeReader} (e.g. to track or count).<br>
+ * Run manually with the path to {@code src.zip} as optional argument (defaults to {@code ${java.home}/lib/src.zip}).
+ */
+public class BaseSourceCodeReaderBenchmark {
+
+  private static final int ITERATIONS = 5;
+
+  /**
+   * @param args the command-line arguments.
+   * @throws Exception on error.
+   */
+  public static void main(String[] args) throws Exception {
+
+    File srcZip;
+    if (args.length > 0) {
+      srcZip = new File(args[0]);
+    } else {
+      srcZip = new File(System.getProperty("java.home"), "lib/src.zip");
+    }
+    List<byte[]> sources = load(srcZip);
+    long totalBytes = 0;
+    for (byte[] source : sources) {
+      totalBytes += source.length;
+    }
+    System.out.println("Loaded " + sources.size() + " sources with " + totalBytes + " bytes from " + srcZip);
+    char[] buffer = new char[4096]; // simulates the buffer of the scanner
+    for (int i = 0; i < ITERATIONS; i++) {
+      run("InputStreamReader   ", sources, totalBytes, buffer, false);
+      run("BaseSourceCodeReader", sources, totalBytes, buffer, true);
+      runToString("String via getChars ", sources, totalBytes, false);
+      runToString("String via wrapper  ", sources, totalBytes, true);
+    }
+  }
+
+  private static List<byte[]> load(File srcZip) throws IOException {
+
+    List<byte[]> sources = new ArrayList<>();
+    try (ZipFile zip = new ZipFile(srcZip)) {
+      for (ZipEntry entry : Collections.list(zip.entries())) {
+        if (entry.getName().endsWith(".java")) {
+          try (InputStream in = zip.getInputStream(entry)) {
+            sources.add(in.readAllBytes());
+          }
+        }
+      }
+    }
+    return sources;
+  }
+
+  private static void run(String name, List<byte[]> sources, long totalBytes, char[] buffer, boolean fast)
+      throws IOException {
+
+    long checksum = 0;
+    long allocated = getAllocatedBytes();
+    long start = System.nanoTime();
+    for (byte[] source : sources) {
+      InputStream in = new ByteArrayInputStream(source);
+      Reader reader;
+      if (fast) {
+        reader = BaseSourceCodeReader.of(in, source.length, StandardCharsets.UTF_8);
+      } else {
+        reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+      }
+      try (Reader r = reader) {
+        int count = r.read(buffer, 0, buffer.length);
+        while (count > 0) {
+          checksum += buffer[count - 1];
+          count = r.read(buffer, 0, buffer.length);
+        }
+      }
+    }
+    long nanos = System.nanoTime() - start;
+    allocated = getAllocatedBytes() - allocated;
+    double mbPerSecond = (totalBytes / (1024.0 * 1024.0)) / (nanos / 1_000_000_000.0);
+    System.out.printf("%s: %8.1f MB/s %10d bytes allocated/op (checksum %d)%n", name, Double.valueOf(mbPerSecond),
+        Long.valueOf(allocated / sources.size()), Long.valueOf(checksum));
+  }
+
+  private static void runToString(String name, List<byte[]> sources, long totalBytes, boolean wrapped)
+      throws IOException {
+
+    long checksum = 0;
+    long allocated = getAllocatedBytes();
+    long start = System.nanoTime();
+    for (byte[] source : sources) {
+      BaseSourceCodeReader sourceReader = BaseSourceCodeReader.of(new ByteArrayInputStream(source), source.length,
+          StandardCharsets.UTF_8);
+      String string;
+      if (wrapped) {
+        try (Reader reader = new FilterReader(sourceReader) {
+          // hides the BaseSourceCodeReader
+        }) {
+          StringWriter writer = new StringWriter(4096);
+          reader.transferTo(writer);
+          string = writer.toString();
+        }
+      } else {
+        try (BaseSourceCodeReader reader = sourceReader) {
+          string = new String(reader.getChars(), 0, reader.getLength());
+        }
+      }
+      checksum += string.length();
+    }
+    long nanos = System.nanoTime() - start;
+    allocated = getAllocatedBytes() - allocated;
+    double mbPerSecond = (totalBytes / (1024.0 * 1024.0)) / (nanos / 1_000_000_000.0);
+    System.out.printf("%s: %8.1f MB/s %10d bytes allocated/op (checksum %d)%n", name, Double.valueOf(mbPerSecond),
+        Long.valueOf(allocated / sources.size()), Long.valueOf(checksum));
+  }
+
+  @SuppressWarnings("deprecation")
+  private static long getAllocatedBytes() {
+
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return 0;
+  }
+
+}
@@ -0,0 +1,86 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.loader;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of {@link BaseSourceCodeReader}.
+ */
+class BaseSourceCodeReaderTest extends Assertions {
+
+  private static final String ASCII = "package com.foo;\n\nclass Foo {}\n";
+
+  private static final String NON_ASCII = "class Grüße { String s = \"€ 😀\"; }";
+
+  /**
+   * Test of {@link BaseSourceCodeReader} with pure ASCII.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  void testAscii() throws Exception {
+
+    assertThat(decode(ASCII, StandardCharsets.UTF_8)).isEqualTo(ASCII);
+  }
+
+  /**
+   * Test of {@link BaseSourceCodeReader} with non-ASCII characters after an ASCII prefix.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  void testNonAscii() throws Exception {
+
+    assertThat(decode(NON_ASCII, StandardCharsets.UTF_8)).isEqualTo(NON_ASCII);
+    assertThat(decode("äöü", StandardCharsets.ISO_8859_1)).isEqualTo("äöü");
+    assertThat(decode(NON_ASCII, StandardCharsets.UTF_16)).isEqualTo(NON_ASCII);
+  }
+
+  /**
+   * Test that {@link BaseSourceCodeReader} skips the UTF-8 byte order mark.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  void testUtf8Bom() throws Exception {
+
+    // arrange
+    byte[] content = ASCII.getBytes(StandardCharsets.UTF_8);
+    byte[] bytes = new byte[content.length + 3];
+    bytes[0] = (byte) 0xEF;
+    bytes[1] = (byte) 0xBB;
+    bytes[2] = (byte) 0xBF;
+    System.arraycopy(content, 0, bytes, 3, content.length);
+
+    // act
+    try (BaseSourceCodeReader reader = BaseSourceCodeReader.of(new ByteArrayInputStream(bytes), -1,
+        StandardCharsets.UTF_8)) {
+
+      // assert
+      assertThat(new String(reader.getChars(), 0, reader.getLength())).isEqualTo(ASCII);
+    }
+  }
+
+  private static String decode(String text, Charset charset) throws Exception {
+
+    byte[] bytes = text.getBytes(charset);
+    StringBuilder sb = new StringBuilder();
+    try (BaseSourceCodeReader reader = BaseSourceCodeReader.of(new ByteArrayInputStream(bytes), bytes.length,
+        charset)) {
+      char[] buffer = new char[7];
+      int count = reader.read(buffer, 0, buffer.length);
+      while (count > 0) {
+        sb.append(buffer, 0, count);
+        count = reader.read(buffer, 0, buffer.length);
+      }
+    }
+    return sb.toString();
+  }
+
+}
@@ -0,0 +1,107 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.loader;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test of {@link SourceCodeProviderPool}.
+ */
+class SourceCodeProviderPoolTest extends Assertions {
+
+  /**
+   * Test that the least recently used archive is closed and reopened transparently.
+   *
+   * @param tempDir the temporary directory.
+   * @throws Exception on error.
+   */
+  @Test
+  void testEviction(@TempDir Path tempDir) throws Exception {
+
+    // arrange
+    SourceCodeProviderPool pool = new SourceCodeProviderPool(2);
+    SourceCodeProviderProxy[] proxies = new SourceCodeProviderProxy[3];
+    for (int i = 0; i < proxies.length; i++) {
+      File archive = createArchive(tempDir.resolve("a" + i + "-sources.jar"), "com/foo/Foo" + i + ".java");
+      proxies[i] = new SourceCodeProviderProxy(() -> new BaseSourceCodeProviderZipFile(archive), pool);
+    }
+
+    try {
+      // act
+      for (int i = 0; i < proxies.length; i++) {
+        try (Reader reader = proxies[i].openType("com.foo.Foo" + i)) {
+          assertThat(reader).isNotNull();
+        }
+      }
+      proxies[2].openType("com.foo.Foo2").close();
+
+      // assert
+      assertThat(pool.getOpenCount()).isEqualTo(2);
+      assertThat(pool.getEvictionCount()).isEqualTo(1);
+      assertThat(pool.getMissCount()).isEqualTo(3);
+      assertThat(pool.getHitCount()).isEqualTo(1);
+      try (Reader reader = proxies[0].openType("com.foo.Foo0")) {
+        assertThat(reader).isNotNull();
+      }
+      assertThat(pool.getOpenCount()).isEqualTo(2);
+      assertThat(pool.getEvictionCount()).isEqualTo(2);
+      assertThat(pool.getMissCount()).isEqualTo(4);
+    } finally {
+      for (SourceCodeProviderProxy proxy : proxies) {
+        proxy.close();
+      }
+    }
+    assertThat(pool.getOpenCount()).isZero();
+  }
+
+  /**
+   * Test that readers are tracked without hiding the {@link BaseSourceCodeReader} so consumers keep the fast path.
+   *
+   * @param tempDir the temporary directory.
+   * @throws Exception on error.
+   */
+  @Test
+  void testReaderTrackedWithoutWrapper(@TempDir Path tempDir) throws Exception {
+
+    // arrange
+    File archive = createArchive(tempDir.resolve("a-sources.jar"), "com/foo/Foo.java");
+    SourceCodeProviderProxy proxy = new SourceCodeProviderProxy(() -> new BaseSourceCodeProviderZipFile(archive));
+
+    try {
+      // act
+      Reader reader = proxy.openType("com.foo.Foo");
+
+      // assert
+      assertThat(reader).isInstanceOf(BaseSourceCodeReader.class);
+      assertThat(((BaseSourceCodeReader) reader).getLength()).isEqualTo("class Foo {}".length());
+      assertThat(proxy.release(0)).isFalse();
+      reader.close();
+      reader.close();
+      assertThat(proxy.release(0)).isTrue();
+    } finally {
+      proxy.close();
+    }
+  }
+
+  private static File createArchive(Path path, String entry) throws Exception {
+
+    try (OutputStream out = Files.newOutputStream(path); ZipOutputStream zip = new ZipOutputStream(out)) {
+      zip.putNextEntry(new ZipEntry(entry));
+      zip.write("class Foo {}".getBytes(StandardCharsets.UTF_8));
+      zip.closeEntry();
+    }
+    return path.toFile();
+  }
+
+}
@@ -0,0 +1,174 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.loader;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test of {@link SourceCodeProviderPrefetching}.
+ */
+class SourceCodeProviderPrefetchingTest extends Assertions {
+
+  /**
+   * Test that {@link SourceCodeProviderPrefetching#openType(String)} returns the prefetched source-code only once.
+   *
+   * @param tempDir the temporary directory.
+   * @throws Exception on error.
+   */
+  @Test
+  void testPrefetch(@TempDir Path tempDir) throws Exception {
+
+    // arrange
+    Path pkg = Files.createDirectories(tempDir.resolve("com/foo"));
+    Path foo = Files.writeString(pkg.resolve("Foo.java"), "class Foo {}");
+    try (SourceCodeProviderPrefetching provider = new SourceCodeProviderPrefetching(
+        new BaseSourceCodeProviderDirectory(tempDir.toFile()), Runnable::run, 10)) {
+
+      // act
+      provider.prefetch(List.of("com.foo.Foo", "com.foo.Missing"));
+      Files.writeString(foo, "class Foo { int changed; }");
+
+      // assert
+      Reader reader = provider.openType("com.foo.Foo");
+      assertThat(reader).isInstanceOf(BaseSourceCodeReader.class);
+      assertThat(read(reader)).isEqualTo("class Foo {}");
+      assertThat(read(provider.openType("com.foo.Foo"))).isEqualTo("class Foo { int changed; }");
+      assertThat(provider.openType("com.foo.Missing")).isNull();
+    }
+  }
+
+  /**
+   * Test that prefetching supplied by a {@link SourceCodeProviderProxy} never reopens a released provider.
+   *
+   * @param tempDir the temporary directory.
+   * @throws Exception on error.
+   */
+  @Test
+  void testPrefetchInsideProxy(@TempDir Path tempDir) throws Exception {
+
+    // arrange
+    Files.writeString(Files.createDirectories(tempDir.resolve("com/foo")).resolve("Foo.java"), "class Foo {}");
+    AtomicInteger created = new AtomicInteger();
+    try (SourceCodeProviderProxy proxy = new SourceCodeProviderProxy(() -> {
+      created.incrementAndGet();
+      return new SourceCodeProviderPrefetching(new BaseSourceCodeProviderDirectory(tempDir.toFile()), Runnable::run,
+          10);
+    })) {
+
+      // act + assert
+      proxy.prefetch(List.of("com.foo.Foo"));
+      assertThat(created.get()).isZero();
+      assertThat(proxy.scanPackage("com.foo")).containsExactly("Foo");
+      proxy.prefetch(List.of("com.foo.Foo"));
+      assertThat(read(proxy.openType("com.foo.Foo"))).isEqualTo("class Foo {}");
+      assertThat(proxy.release(0)).isTrue();
+      proxy.prefetch(List.of("com.foo.Foo"));
+      assertThat(created.get()).isEqualTo(1);
+    }
+  }
+
+  /**
+   * Test that source-code prefetched before a change is not returned after the change has been notified.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  void testChangeDuringPrefetch() throws Exception {
+
+    // arrange
+    ChangingProvider delegate = new ChangingProvider();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try (SourceCodeProviderPrefetching provider = new SourceCodeProviderPrefetching(delegate, executor, 10)) {
+      provider.setChangeListener(changes -> {
+        // nothing to invalidate
+      });
+      provider.prefetch(List.of("com.foo.Foo"));
+      assertThat(delegate.opened.await(10, TimeUnit.SECONDS)).isTrue();
+
+      // act
+      delegate.sourceCode = "class Foo { int changed; }";
+      delegate.listener.accept(List.of("com.foo.Foo"));
+      delegate.proceed.countDown();
+      executor.shutdown();
+      assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+      // assert
+      assertThat(read(provider.openType("com.foo.Foo"))).isEqualTo("class Foo { int changed; }");
+    }
+  }
+
+  private static String read(Reader reader) throws Exception {
+
+    try (BufferedReader in = new BufferedReader(reader)) {
+      return in.readLine();
+    }
+  }
+
+  /** {@link SourceCodeProvider} that blocks the first {@link #openType(String) read} until the test proceeds. */
+  private static class ChangingProvider implements SourceCodeProvider {
+
+    private final CountDownLatch opened = new CountDownLatch(1);
+
+    private final CountDownLatch proceed = new CountDownLatch(1);
+
+    private volatile String sourceCode = "class Foo {}";
+
+    private volatile Consumer<Collection<String>> listener;
+
+    @Override
+    public Reader openType(String qualifiedName) {
+
+      String code = this.sourceCode;
+      if (this.opened.getCount() > 0) {
+        this.opened.countDown();
+        try {
+          this.proceed.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return new StringReader(code);
+    }
+
+    @Override
+    public Reader openPackage(String qualifiedName) {
+
+      return null;
+    }
+
+    @Override
+    public List<String> scanPackage(String qualifiedName) {
+
+      return null;
+    }
+
+    @Override
+    public void setChangeListener(Consumer<Collection<String>> changeListener) {
+
+      this.listener = changeListener;
+    }
+
+    @Override
+    public void close() {
+
+      // nothing to do
+    }
+  }
+
+}
@@ -0,0 +1,132 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.base.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of {@link BaseSymbolTable}.
+ */
+class BaseSymbolTableTest extends Assertions {
+
+  private static String intern(BaseSymbolTable table, String symbol) {
+
+    char[] chars = (symbol + "garbage").toCharArray();
+    int hash = 0;
+    for (int i = 0; i < symbol.length(); i++) {
+      hash = BaseSymbolTable.hash(hash, chars[i]);
+    }
+    return table.intern(chars, symbol.length(), hash);
+  }
+
+  /** Test that equal symbols are shared. */
+  @Test
+  void testIntern() {
+
+    // arrange
+    BaseSymbolTable table = new BaseSymbolTable(1000);
+    String list = new String("java.util.List");
+    // act
+    String symbol1 = intern(table, "java.util.List");
+    String symbol2 = intern(table, "java.util.List");
+    String symbol3 = table.intern(list);
+    String other = intern(table, "Override");
+    // assert
+    assertThat(symbol1).isEqualTo("java.util.List");
+    assertThat(symbol2).isSameAs(symbol1);
+    assertThat(symbol3).isSameAs(symbol1);
+    assertThat(other).isEqualTo("Override");
+    assertThat(table.getSize()).isEqualTo(2);
+    assertThat(table.getMissCount()).isEqualTo(2);
+    assertThat(table.getHitCount()).isEqualTo(2);
+    assertThat(table.getSavedBytes()).isEqualTo(2 * (24 + 32));
+  }
+
+  /** Test that the table does not grow beyond its maximum size. */
+  @Test
+  void testMaxSize() {
+
+    // arrange
+    BaseSymbolTable table = new BaseSymbolTable(16);
+    // act
+    for (int i = 0; i < 1000; i++) {
+      assertThat(intern(table, "symbol" + i)).isEqualTo("symbol" + i);
+    }
+    // assert
+    assertThat(table.getSize()).isLessThanOrEqualTo(16);
+    assertThat(intern(table, "symbol999")).isEqualTo("symbol999");
+  }
+
+  /** Test that symbols with supplementary code points (surrogate pairs) are hashed and shared like other symbols. */
+  @Test
+  void testSupplementaryCharacters() {
+
+    // arrange
+    BaseSymbolTable table = new BaseSymbolTable(1000);
+    String symbol = "\uD835\uDC9C\u00e4bc\uD835\uDC9E";
+    // act
+    String symbol1 = intern(table, symbol);
+    String symbol2 = intern(table, symbol);
+    String symbol3 = table.intern(new String(symbol));
+    // assert
+    assertThat(symbol1).isEqualTo(symbol);
+    assertThat(symbol1.codePointCount(0, symbol1.length())).isEqualTo(5);
+    assertThat(symbol2).isSameAs(symbol1);
+    assertThat(symbol3).isSameAs(symbol1);
+    assertThat(table.getSize()).isEqualTo(1);
+    assertThat(table.getSavedBytes()).isEqualTo(2 * (24 + 32));
+  }
+
+  /**
+   * Test that concurrent lookups and additions (including resizes of the segments) always return one canonical
+   * instance per symbol.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  void testConcurrent() throws Exception {
+
+    // arrange
+    BaseSymbolTable table = new BaseSymbolTable(BaseSymbolTable.DEFAULT_MAX_SIZE);
+    int threads = 4;
+    int count = 5000;
+    List<Callable<String[]>> tasks = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      tasks.add(() -> {
+        String[] symbols = new String[count];
+        for (int i = 0; i < count; i++) {
+          symbols[i] = intern(table, "symbol" + i);
+        }
+        return symbols;
+      });
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    List<String[]> results = new ArrayList<>();
+    try {
+      // act
+      for (Future<String[]> future : executor.invokeAll(tasks)) {
+        results.add(future.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+    // assert
+    assertThat(table.getSize()).isEqualTo(count);
+    String[] first = results.get(0);
+    for (String[] symbols : results) {
+      for (int i = 0; i < count; i++) {
+        assertThat(symbols[i]).isEqualTo("symbol" + i).isSameAs(first[i]);
+        assertThat(intern(table, "symbol" + i)).isSameAs(first[i]);
+      }
+    }
+  }
+
+}
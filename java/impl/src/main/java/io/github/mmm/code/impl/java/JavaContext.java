@@ -2,12 +2,33 @@
  * http://www.apache.org/licenses/LICENSE-2.0 */
 package io.github.mmm.code.impl.java;
 
+import java.io.IOException;
 import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.CodeSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,14 +38,20 @@ import io.github.mmm.code.api.element.CodeElementWithDeclaringType;
 import io.github.mmm.code.api.element.CodeElementWithTypeVariables;
 import io.github.mmm.code.api.node.CodeNode;
 import io.github.mmm.code.api.type.CodeTypeVariable;
+import io.github.mmm.code.base.AbstractBaseContext;
 import io.github.mmm.code.base.AbstractBaseContextWithCache;
 import io.github.mmm.code.base.BaseContext;
 import io.github.mmm.code.base.arg.BaseOperationArg;
+import io.github.mmm.code.base.cache.BaseCacheConfig;
 import io.github.mmm.code.base.element.BaseElement;
 import io.github.mmm.code.base.element.BaseElementWithDeclaringType;
 import io.github.mmm.code.base.loader.BaseLoader;
+import io.github.mmm.code.base.loader.BaseSourceLoader;
+import io.github.mmm.code.base.loader.SourceCodeProvider;
 import io.github.mmm.code.base.member.BaseOperation;
 import io.github.mmm.code.base.node.BaseNodeItem;
+import io.github.mmm.code.base.parser.BaseSymbolTable;
+import io.github.mmm.code.base.parser.SourceCodeParseMode;
 import io.github.mmm.code.base.source.BaseSource;
 import io.github.mmm.code.base.source.BaseSourceImpl;
 import io.github.mmm.code.base.source.BaseSourceProvider;
@@ -35,6 +62,8 @@ import io.github.mmm.code.base.type.BaseType;
 import io.github.mmm.code.base.type.BaseTypeVariable;
 import io.github.mmm.code.base.type.BaseTypeVariables;
 import io.github.mmm.code.base.type.BaseTypeWildcard;
+import io.github.mmm.code.impl.java.loader.JavaSourceLoader;
+import io.github.mmm.code.impl.java.parser.JavaSourceCodeParserImpl;
 
 /**
  * Implementation of {@link io.github.mmm.code.api.CodeContext} for Java.
@@ -46,6 +75,17 @@ public abstract class JavaContext extends AbstractBaseContextWithCache {
 
   private static final Logger LOG = LoggerFactory.getLogger(JavaContext.class);
 
+  /** The maximum number of threads used by {@link #warmUp(Collection)}. */
+  private static final int WARM_UP_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
+  private static final AtomicInteger WARM_UP_THREAD_COUNT = new AtomicInteger();
+
+  private final Object parserLock = new Object();
+
+  private volatile JavaSourceCodeParserImpl parser;
+
+  private volatile JavaSourceCodeParserImpl signaturesParser;
+
   /**
    * The constructor.
    *
@@ -67,12 +107,257 @@ public abstract class JavaContext extends AbstractBaseContextWithCache {
     super(source, sourceProvider);
   }
 
+  /**
+   * The constructor.
+   *
+   * @param source the top-level {@link #getSource() source}.
+   * @param sourceProvider the {@link BaseSourceProvider}.
+   * @param cacheConfig the {@link BaseCacheConfig} for the cache of {@link BaseType}s.
+   */
+  public JavaContext(BaseSourceImpl source, BaseSourceProvider sourceProvider, BaseCacheConfig cacheConfig) {
+
+    super(source, sourceProvider, cacheConfig);
+  }
+
   /**
    * @return the root {@link JavaContext context} responsible for the fundamental code (from JDK).
    */
   @Override
   public abstract JavaRootContext getRootContext();
 
+  /**
+   * @param mode the requested {@link JavaSourceCodeParserImpl#getMode() mode}.
+   * @return the {@link JavaSourceCodeParserImpl} of this context for the given {@link SourceCodeParseMode}. All parsers
+   *         of this context share the same {@link JavaSourceCodeParserImpl#getSymbolTable() symbol table} that is
+   *         released together with this context.
+   */
+  public JavaSourceCodeParserImpl getParser(SourceCodeParseMode mode) {
+
+    Objects.requireNonNull(mode, "mode");
+    JavaSourceCodeParserImpl result = (mode == SourceCodeParseMode.SIGNATURES) ? this.signaturesParser : this.parser;
+    if (result == null) {
+      synchronized (this.parserLock) {
+        BaseSymbolTable symbolTable = null;
+        if (this.parser != null) {
+          symbolTable = this.parser.getSymbolTable();
+        } else if (this.signaturesParser != null) {
+          symbolTable = this.signaturesParser.getSymbolTable();
+        } else {
+          symbolTable = new BaseSymbolTable(BaseSymbolTable.DEFAULT_MAX_SIZE);
+        }
+        if (mode == SourceCodeParseMode.SIGNATURES) {
+          if (this.signaturesParser == null) {
+            this.signaturesParser = new JavaSourceCodeParserImpl(mode,
+                JavaSourceCodeParserImpl.DEFAULT_MAX_POOLED_READERS, symbolTable);
+          }
+          result = this.signaturesParser;
+        } else {
+          if (this.parser == null) {
+            this.parser = new JavaSourceCodeParserImpl(mode, JavaSourceCodeParserImpl.DEFAULT_MAX_POOLED_READERS,
+                symbolTable);
+          }
+          result = this.parser;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Same as {@link #warmUp(Collection, Executor)} using a dedicated pool of at most four daemon threads that is shut
+   * down once the warm-up has completed. Unlike the common {@link java.util.concurrent.ForkJoinPool} this does not
+   * starve other tasks of the application while types are loaded.
+   *
+   * @param names the names to {@link #warmUp(Collection, Executor) warm up}.
+   * @return a {@link CompletableFuture} that completes with the {@link Duration} the warm-up took.
+   * @see #warmUp(Collection, Executor)
+   */
+  public CompletableFuture<Duration> warmUp(Collection<String> names) {
+
+    ExecutorService executor = Executors.newFixedThreadPool(WARM_UP_THREADS, r -> {
+      Thread thread = new Thread(r, "mmm-code-warm-up-" + WARM_UP_THREAD_COUNT.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    CompletableFuture<Duration> future;
+    try {
+      future = warmUp(names, executor);
+    } catch (RuntimeException e) {
+      executor.shutdownNow();
+      throw e;
+    }
+    future.whenComplete((duration, error) -> executor.shutdown());
+    return future;
+  }
+
+  /**
+   * Preloads the given types and packages asynchronously in the background so later lookups are served from the
+   * cache. Threads that request a type while the warm-up is running only block if that specific type is currently
+   * loaded.
+   *
+   * @param names the {@link BaseType#getQualifiedName() qualified names} of the types to preload. A name ending with
+   *        {@code .*} (e.g. {@code java.util.*}) denotes all top-level types of the according package.
+   * @param executor the {@link Executor} used to run the warm-up tasks. E.g. on Java 21+ consider
+   *        {@code Executors.newVirtualThreadPerTaskExecutor()}.
+   * @return a {@link CompletableFuture} that completes with the {@link Duration} the warm-up took.
+   */
+  public CompletableFuture<Duration> warmUp(Collection<String> names, Executor executor) {
+
+    long start = System.nanoTime();
+    List<CompletableFuture<Void>> futures = new ArrayList<>(names.size());
+    for (String name : names) {
+      if (name.endsWith(".*")) {
+        String packageName = name.substring(0, name.length() - 2);
+        futures.add(CompletableFuture.supplyAsync(() -> getPackageTypeNames(packageName), executor)
+            .thenCompose(typeNames -> warmUpTypes(typeNames, executor)));
+      } else {
+        futures.add(CompletableFuture.runAsync(() -> warmUpType(name), executor));
+      }
+    }
+    return allOf(futures).thenApply(v -> {
+      Duration duration = Duration.ofNanos(System.nanoTime() - start);
+      LOG.info("Warm-up of {} entries completed in {}ms.", Integer.valueOf(names.size()),
+          Long.valueOf(duration.toMillis()));
+      return duration;
+    });
+  }
+
+  private CompletableFuture<Void> warmUpTypes(Collection<String> qualifiedNames, Executor executor) {
+
+    List<CompletableFuture<Void>> futures = new ArrayList<>(qualifiedNames.size());
+    for (String qualifiedName : qualifiedNames) {
+      futures.add(CompletableFuture.runAsync(() -> warmUpType(qualifiedName), executor));
+    }
+    return allOf(futures);
+  }
+
+  private static CompletableFuture<Void> allOf(List<CompletableFuture<Void>> futures) {
+
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+  }
+
+  private void warmUpType(String qualifiedName) {
+
+    try {
+      if (getType(qualifiedName) == null) {
+        LOG.debug("Type {} for warm-up not found.", qualifiedName);
+      }
+    } catch (RuntimeException e) {
+      LOG.warn("Warm-up of type {} failed: {}", qualifiedName, e.toString());
+    }
+  }
+
+  /**
+   * Gives the {@link SourceCodeProvider} of the {@link BaseSource} owning each of the given types a
+   * {@link SourceCodeProvider#prefetch(Collection) hint} to prefetch its source-code, as these types will most likely
+   * be resolved next. The owning {@link BaseSource} is determined via the byte-code like on {@link #getType(String)
+   * resolution} so hints also reach dependencies or the JDK. Types that are already cached are skipped.
+   *
+   * @param qualifiedNames the {@link BaseType#getQualifiedName() qualified names} of the types to prefetch.
+   * @param fallback the {@link JavaSourceLoader} to hint about types without byte-code (e.g. from the source-code of
+   *        the project that has not been compiled) or {@code null} to ignore such types.
+   */
+  public void prefetch(Collection<String> qualifiedNames, JavaSourceLoader fallback) {
+
+    ClassLoader classLoader = getClassLoader();
+    if (classLoader == null) {
+      classLoader = getRootContext().getClassLoader();
+    }
+    Map<SourceCodeProvider, List<String>> hints = new IdentityHashMap<>();
+    for (String qualifiedName : qualifiedNames) {
+      if (isCached(qualifiedName)) {
+        continue;
+      }
+      JavaSourceLoader sourceLoader = fallback;
+      try {
+        Class<?> clazz = Class.forName(qualifiedName, false, classLoader);
+        BaseSource source = getOrCreateSource(clazz.getProtectionDomain().getCodeSource());
+        if ((source != null) && (source.getLoader() instanceof JavaSourceLoader)) {
+          sourceLoader = (JavaSourceLoader) source.getLoader();
+        }
+      } catch (ClassNotFoundException | LinkageError | RuntimeException e) {
+        LOG.trace("No byte-code to prefetch {}: {}", qualifiedName, e.toString());
+      }
+      if (sourceLoader != null) {
+        SourceCodeProvider sourceCodeProvider = sourceLoader.getSourceCodeProvider();
+        if (sourceCodeProvider != null) {
+          hints.computeIfAbsent(sourceCodeProvider, p -> new ArrayList<>()).add(qualifiedName);
+        }
+      }
+    }
+    for (Map.Entry<SourceCodeProvider, List<String>> entry : hints.entrySet()) {
+      entry.getKey().prefetch(entry.getValue());
+    }
+  }
+
+  private boolean isCached(String qualifiedName) {
+
+    AbstractBaseContext context = this;
+    while (context instanceof JavaContext) {
+      JavaContext javaContext = (JavaContext) context;
+      if (javaContext.getTypeFromCache(qualifiedName) != null) {
+        return true;
+      }
+      context = javaContext.getParent();
+    }
+    return false;
+  }
+
+  /**
+   * @param packageName the {@link io.github.mmm.code.base.BasePackage#getQualifiedName() qualified name} of a package.
+   * @return the {@link BaseType#getQualifiedName() qualified names} of the top-level types in the given package that
+   *         could be discovered from the JDK runtime image or the source code of this context.
+   */
+  protected Set<String> getPackageTypeNames(String packageName) {
+
+    Set<String> qualifiedNames = new LinkedHashSet<>();
+    collectJdkTypeNames(packageName, qualifiedNames);
+    BaseSourceLoader sourceLoader = getSource().getLoader();
+    if (sourceLoader instanceof JavaSourceLoader) {
+      SourceCodeProvider sourceCodeProvider = ((JavaSourceLoader) sourceLoader).getSourceCodeProvider();
+      if (sourceCodeProvider != null) {
+        try {
+          for (String simpleName : sourceCodeProvider.scanPackage(packageName)) {
+            qualifiedNames.add(packageName + "." + simpleName);
+          }
+        } catch (IOException e) {
+          LOG.debug("Package scan of {} failed: {}", packageName, e.toString());
+        }
+      }
+    }
+    return qualifiedNames;
+  }
+
+  private static void collectJdkTypeNames(String packageName, Set<String> qualifiedNames) {
+
+    try {
+      FileSystem jrt = FileSystems.getFileSystem(URI.create("jrt:/"));
+      Path packagePath = jrt.getPath("packages", packageName);
+      if (!Files.isDirectory(packagePath)) {
+        return;
+      }
+      String folder = packageName.replace('.', '/');
+      try (Stream<Path> modules = Files.list(packagePath)) {
+        for (Path module : (Iterable<Path>) modules::iterator) {
+          Path packageFolder = jrt.getPath("modules", module.getFileName().toString(), folder);
+          try (Stream<Path> children = Files.list(packageFolder)) {
+            children.map(child -> child.getFileName().toString()).filter(JavaContext::isTopLevelClassFile)
+                .map(filename -> packageName + "." + filename.substring(0, filename.length() - 6))
+                .forEach(qualifiedNames::add);
+          }
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      LOG.debug("Failed to list JDK package {}: {}", packageName, e.toString());
+    }
+  }
+
+  private static boolean isTopLevelClassFile(String filename) {
+
+    return filename.endsWith(".class") && (filename.indexOf('$') < 0) && !filename.startsWith("package-info")
+        && !filename.startsWith("module-info");
+  }
+
   @Override
   protected BaseType getTypeFromCache(String qualifiedName) { // make visible
 
@@ -226,7 +511,8 @@ public abstract class JavaContext extends AbstractBaseContextWithCache {
       BaseType type = getSource().getLoader().getType(parseName(qualifiedName));
       if (type != null) {
         // TODO make or create as system immutable to prevent eager init
-        type.setImmutable();
+        // eager init resolves referenced types so it must not happen while holding the lock for this type
+        runWithoutTypeLocks(type::setImmutable);
       }
       return type;
     }
@@ -2,6 +2,7 @@
  * http://www.apache.org/licenses/LICENSE-2.0 */
 package io.github.mmm.code.impl.java;
 
+import io.github.mmm.code.base.cache.BaseCacheConfig;
 import io.github.mmm.code.base.loader.BaseLoader;
 import io.github.mmm.code.base.source.BaseSourceImpl;
 import io.github.mmm.code.base.source.BaseSourceProvider;
@@ -43,7 +44,22 @@ public class JavaExtendedContext extends JavaContext {
   public JavaExtendedContext(JavaContext parent, BaseSourceImpl source, BaseSourceProvider sourceProvider,
       ClassLoader classLoader) {
 
-    super(source, sourceProvider);
+    this(parent, source, sourceProvider, classLoader, BaseCacheConfig.UNBOUNDED);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param parent the {@link #getParent() parent context}.
+   * @param source the {@link #getSource() source}.
+   * @param sourceProvider the {@link BaseSourceProvider}.
+   * @param classLoader the explicit {@link ClassLoader} used to load the byte-code.
+   * @param cacheConfig the {@link BaseCacheConfig} for the cache of {@link io.github.mmm.code.base.type.BaseType}s.
+   */
+  public JavaExtendedContext(JavaContext parent, BaseSourceImpl source, BaseSourceProvider sourceProvider,
+      ClassLoader classLoader, BaseCacheConfig cacheConfig) {
+
+    super(source, sourceProvider, cacheConfig);
 
     this.parent = parent;
 
@@ -8,7 +8,10 @@ import io.github.mmm.code.api.language.CodeLanguage;
 import io.github.mmm.code.api.language.JavaLanguage;
 import io.github.mmm.code.api.source.CodeSourceDescriptor;
 import io.github.mmm.code.base.loader.BaseLoader;
+import io.github.mmm.code.base.loader.BaseSourceCodeProviderZipFile;
 import io.github.mmm.code.base.loader.SourceCodeProvider;
+import io.github.mmm.code.base.loader.SourceCodeProviderPool;
+import io.github.mmm.code.base.loader.SourceCodeProviderProxy;
 import io.github.mmm.code.base.source.BaseSourceDescriptorType;
 import io.github.mmm.code.base.source.BaseSourceImpl;
 import io.github.mmm.code.base.type.BaseType;
@@ -23,7 +26,7 @@ import io.github.mmm.code.impl.java.loader.JavaSourceLoader;
  */
 public class JavaRootContext extends JavaContext {
 
-  private static JavaRootContext instance;
+  private static volatile JavaRootContext instance;
 
   private final JavaClassLoader loader;
 
@@ -156,8 +159,6 @@ public class JavaRootContext extends JavaContext {
 
   private static BaseSourceImpl createRootSource() {
 
-    SourceCodeProvider sourceCodeProvider = null; // TODO
-    JavaSourceLoader loader = new JavaSourceLoader(sourceCodeProvider);
     String javaHome = System.getProperty("java.home");
     File byteCodeLocation = new File(javaHome);
     String version = System.getProperty("java.version");
@@ -165,17 +166,43 @@ public class JavaRootContext extends JavaContext {
     String docUrl = "http://docs.oracle.com/javase/" + majorVersion + "/docs/api/";
     String groupId = "java";
     String artifactId = "jre";
-    File jdkHome = byteCodeLocation.getParentFile();
-    File srcZip = new File(jdkHome, "src.zip");
+    File srcZip = findSrcZip(byteCodeLocation);
     File sourceCodeLocation = null;
-    if (srcZip.isFile()) {
+    SourceCodeProvider sourceCodeProvider = null;
+    if (srcZip != null) {
       artifactId = "jdk";
       sourceCodeLocation = srcZip;
+      // lazy as indexing src.zip is only required when the source of a JDK type is actually requested
+      sourceCodeProvider = new SourceCodeProviderProxy(() -> new BaseSourceCodeProviderZipFile(srcZip),
+          SourceCodeProviderPool.getDefault());
     }
+    JavaSourceLoader loader = new JavaSourceLoader(sourceCodeProvider);
     CodeSourceDescriptor descriptor = new BaseSourceDescriptorType(groupId, artifactId, version, null, docUrl);
     return new BaseSourceImpl(byteCodeLocation, sourceCodeLocation, null, descriptor, loader);
   }
 
+  /**
+   * @param javaHome the {@link File} pointing to {@code java.home}.
+   * @return the {@link File} pointing to the {@code src.zip} of the JDK or {@code null} if not available. Since Java 9
+   *         it is located in {@code lib/src.zip} with a {@link BaseSourceCodeProviderZipFile#isModular() modular
+   *         layout}, before it was located in the JDK folder containing the JRE as {@code java.home}.
+   */
+  private static File findSrcZip(File javaHome) {
+
+    File srcZip = new File(javaHome, "lib/src.zip");
+    if (srcZip.isFile()) {
+      return srcZip;
+    }
+    File jdkHome = javaHome.getParentFile();
+    if (jdkHome != null) {
+      srcZip = new File(jdkHome, "src.zip");
+      if (srcZip.isFile()) {
+        return srcZip;
+      }
+    }
+    return null;
+  }
+
   private static String getJavaMajorVersion(String version) {
 
     String majorVersion;
@@ -201,8 +228,12 @@ public class JavaRootContext extends JavaContext {
   public static JavaRootContext get() {
 
     if (instance == null) {
-      BaseSourceImpl source = createRootSource();
-      instance = new JavaRootContext(source);
+      synchronized (JavaRootContext.class) {
+        if (instance == null) {
+          BaseSourceImpl source = createRootSource();
+          instance = new JavaRootContext(source);
+        }
+      }
     }
     return instance;
   }
@@ -6,23 +6,44 @@ import java.io.IOException;
 import java.io.Reader;
 import java.net.URL;
 import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.github.mmm.base.exception.RuntimeIoException;
 import io.github.mmm.code.api.CodeContext;
 import io.github.mmm.code.api.CodeName;
+import io.github.mmm.code.api.imports.CodeImport;
+import io.github.mmm.code.base.BaseContext;
 import io.github.mmm.code.base.BaseFile;
 import io.github.mmm.code.base.BasePackage;
+import io.github.mmm.code.base.loader.BaseSourceCodeReader;
 import io.github.mmm.code.base.loader.BaseSourceLoaderImpl;
 import io.github.mmm.code.base.loader.SourceCodeProvider;
+import io.github.mmm.code.base.loader.SourceCodeProviderPrefetching;
+import io.github.mmm.code.base.loader.SourceCodeProviderProxy;
+import io.github.mmm.code.base.metrics.BaseContextListener;
+import io.github.mmm.code.base.metrics.BaseParseStatistics;
+import io.github.mmm.code.base.parser.SourceCodeParseMode;
 import io.github.mmm.code.base.parser.SourceCodeParser;
 import io.github.mmm.code.base.source.BaseSource;
 import io.github.mmm.code.base.type.BaseGenericType;
 import io.github.mmm.code.base.type.BaseType;
+import io.github.mmm.code.impl.java.JavaContext;
 import io.github.mmm.code.impl.java.parser.JavaSourceCodeParserImpl;
 
 /**
@@ -35,10 +56,20 @@ public class JavaSourceLoader extends BaseSourceLoaderImpl {
 
   private static final Logger LOG = LoggerFactory.getLogger(JavaSourceLoader.class);
 
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
   private SourceCodeProvider sourceCodeProvider;
 
   private SourceCodeParser parser;
 
+  private final SourceCodeParseMode parseMode;
+
+  /**
+   * The {@link BaseFile}s {@link #parseAll(int) parsed in bulk} handed over to the resolution of their types during
+   * the merge phase. Only visible to the thread running the merge phase of that invocation.
+   */
+  private final ThreadLocal<Map<String, BaseFile>> parsedFiles;
+
   /**
    * The constructor.
    *
@@ -46,21 +77,53 @@ public class JavaSourceLoader extends BaseSourceLoaderImpl {
    */
   public JavaSourceLoader(SourceCodeProvider sourceCodeProvider) {
 
+    this(sourceCodeProvider, SourceCodeParseMode.FULL);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param sourceCodeProvider the {@link SourceCodeProvider}.
+   * @param parseMode the {@link #getParseMode() parse mode}.
+   */
+  public JavaSourceLoader(SourceCodeProvider sourceCodeProvider, SourceCodeParseMode parseMode) {
+
     super();
+    Objects.requireNonNull(parseMode, "parseMode");
     this.sourceCodeProvider = sourceCodeProvider;
+    this.parseMode = parseMode;
+    this.parsedFiles = new ThreadLocal<>();
+    if (sourceCodeProvider != null) {
+      sourceCodeProvider.setChangeListener(this::invalidateTypes);
+    }
   }
 
   /**
-   * @return the {@link SourceCodeParser} used to parse source code files.
+   * @return the {@link SourceCodeParser} used to parse source code files. Has to be thread-safe as types may be loaded
+   *         concurrently. By default the {@link JavaContext#getParser(SourceCodeParseMode) parser of the context}.
    */
   public SourceCodeParser getParser() {
 
     if (this.parser == null) {
-      this.parser = JavaSourceCodeParserImpl.get();
+      BaseContext context = getContext();
+      if (context instanceof JavaContext) {
+        this.parser = ((JavaContext) context).getParser(this.parseMode);
+      } else {
+        this.parser = JavaSourceCodeParserImpl.get(this.parseMode);
+      }
     }
     return this.parser;
   }
 
+  /**
+   * @return the {@link SourceCodeParseMode} used by the {@link #getParser() default parser}. In case of
+   *         {@link SourceCodeParseMode#SIGNATURES} the bodies of operations loaded from source remain empty.
+   */
+  public SourceCodeParseMode getParseMode() {
+
+    return this.parseMode;
+  }
+
   /**
    * @param parser the new value of {@link #getParser()}.
    */
@@ -98,13 +161,17 @@ public class JavaSourceLoader extends BaseSourceLoaderImpl {
       return null;
     }
     CodeName parent = qualifiedName.getParent();
+    BaseFile parsedFile = takeParsedFile(qualifiedName.getFullName());
+    if (parsedFile != null) {
+      return parsedFile.getType();
+    }
     try (Reader reader = this.sourceCodeProvider.openType(qualifiedName.getFullName())) {
       if (reader == null) {
         return getTypeFromSource(parent, qualifiedName.getSimpleName());
       } else {
         BasePackage pkg = getPackage(parent);
         BaseFile file = pkg.getChildren().createFile(qualifiedName.getSimpleName());
-        getParser().parseType(reader, file);
+        parseType(reader, file);
         return file.getType();
       }
     } catch (IOException e) {
@@ -139,9 +206,17 @@ public class JavaSourceLoader extends BaseSourceLoaderImpl {
       String pkgName = pkg.getName();
       parentPackage = getPackage(source.parseName(pkgName));
     }
-    return getTypeInternal(clazz, parentPackage);
+    synchronized (source.getRootPackage()) {
+      return getTypeInternal(clazz, parentPackage);
+    }
   }
 
+  /**
+   * <b>Attention:</b> Modifies the shared package tree and has to be called while holding the lock on the
+   * {@link BaseSource#getRootPackage() root package}. This lock is always acquired after the per-name type lock of the
+   * context (see {@link io.github.mmm.code.base.AbstractBaseContextWithCache}) so types must not be resolved via the
+   * context while holding it.
+   */
   private BaseType getTypeInternal(Class<?> clazz, BasePackage pkg) {
 
     String simpleName = clazz.getSimpleName();
@@ -168,7 +243,9 @@ public class JavaSourceLoader extends BaseSourceLoaderImpl {
 
     BasePackage pkg = getSource().getRootPackage();
     if (qualifiedName != null) {
-      pkg = getPackage(pkg.getChildren(), qualifiedName, false, this::createPackage, true, true);
+      synchronized (pkg) {
+        pkg = getPackage(pkg.getChildren(), qualifiedName, false, this::createPackage, true, true);
+      }
     }
     return pkg;
   }
@@ -188,7 +265,10 @@ public class JavaSourceLoader extends BaseSourceLoaderImpl {
     BasePackage pkg = new BasePackage(parentPackage, simpleName, null, null, true);
     try (Reader reader = this.sourceCodeProvider.openPackage(pkg.getQualifiedName())) {
       if (reader != null) {
+        long start = System.nanoTime();
         getParser().parsePackage(reader, pkg);
+        getContext().getListener().onSourceParsed(pkg.getQualifiedName(), getLength(reader),
+            System.nanoTime() - start);
       }
     } catch (IOException e) {
       LOG.debug("Open package failed: {}", e.getMessage(), e);
@@ -207,9 +287,13 @@ public class JavaSourceLoader extends BaseSourceLoaderImpl {
   private BaseFile getFileFromSource(BasePackage pkg, String simpleName) {
 
     BaseFile file = pkg.getChildren().createFile(simpleName);
+    BaseFile parsedFile = takeParsedFile(file.getQualifiedName());
+    if (parsedFile != null) {
+      return parsedFile;
+    }
     try (Reader reader = this.sourceCodeProvider.openType(file.getQualifiedName())) {
       if (reader != null) {
-        getParser().parseType(reader, file);
+        parseType(reader, file);
         return file;
       }
     } catch (IOException | RuntimeException e) {
@@ -218,6 +302,61 @@ public class JavaSourceLoader extends BaseSourceLoaderImpl {
     return null;
   }
 
+  private void parseType(Reader reader, BaseFile file) {
+
+    long start = System.nanoTime();
+    getParser().parseType(reader, file);
+    getContext().getListener().onSourceParsed(file.getQualifiedName(), getLength(reader), System.nanoTime() - start);
+    prefetchImports(file);
+  }
+
+  /**
+   * @param reader the {@link Reader} of the source-code.
+   * @return the number of characters of the source-code for {@link BaseContextListener#onSourceParsed(String, long,
+   *         long)} or {@code 0} if unknown. Wrapping the {@link Reader} to count would defeat the fast path of the
+   *         parser for {@link BaseSourceCodeReader}.
+   */
+  private static long getLength(Reader reader) {
+
+    if (reader instanceof BaseSourceCodeReader) {
+      return ((BaseSourceCodeReader) reader).getLength();
+    }
+    return 0;
+  }
+
+  /**
+   * Gives the {@link SourceCodeProvider}s a {@link SourceCodeProvider#prefetch(Collection) hint} about the imported
+   * types of the given {@link BaseFile} as they will most likely be resolved next. The hints are
+   * {@link JavaContext#prefetch(Collection, JavaSourceLoader) routed} through the context to the source owning the type.
+   */
+  private void prefetchImports(BaseFile file) {
+
+    List<? extends CodeImport> imports = file.getImports().getDeclared();
+    if (imports.isEmpty()) {
+      return;
+    }
+    List<String> qualifiedNames = new ArrayList<>(imports.size());
+    for (CodeImport imp : imports) {
+      String reference = imp.getReference();
+      if (imp.isStatic()) {
+        int lastDot = reference.lastIndexOf('.');
+        if (lastDot <= 0) {
+          continue;
+        }
+        reference = reference.substring(0, lastDot); // type owning the static member(s)
+      }
+      if (!reference.endsWith("*") && !qualifiedNames.contains(reference)) {
+        qualifiedNames.add(reference);
+      }
+    }
+    BaseContext context = getContext();
+    if (context instanceof JavaContext) {
+      ((JavaContext) context).prefetch(qualifiedNames, this);
+    } else {
+      this.sourceCodeProvider.prefetch(qualifiedNames);
+    }
+  }
+
   private BaseType getTypeFromSource(CodeName parent, String simpleName) {
 
     if (parent == null) {
@@ -253,6 +392,175 @@ public class JavaSourceLoader extends BaseSourceLoaderImpl {
     }
   }
 
+  /**
+   * Parses the source-code of all top-level types of this source in parallel using all available processors.
+   *
+   * @return the {@link BaseParseStatistics} with the throughput.
+   * @see #parseAll(int)
+   */
+  public BaseParseStatistics parseAll() {
+
+    return parseAll(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Parses the source-code of all top-level types of this source in parallel. Each thread reads and parses the
+   * source files with the (thread-safe) {@link #getParser() parser} into detached {@link BaseFile}s. Afterwards these
+   * are linked into the package tree and type cache by resolving them via the {@link #getContext() context} in a
+   * sequential merge phase on the calling thread so the regular locking and caching applies. Types that have already
+   * been loaded before (e.g. concurrently by another thread) are not replaced. This method may be invoked concurrently.
+   *
+   * @param parallelism the number of threads to use for parsing.
+   * @return the {@link BaseParseStatistics} with the throughput.
+   */
+  public BaseParseStatistics parseAll(int parallelism) {
+
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism=" + parallelism);
+    }
+    long start = System.nanoTime();
+    List<String> qualifiedNames = collectTypeNames();
+    if (qualifiedNames.isEmpty()) {
+      return new BaseParseStatistics(0, 0, 0, System.nanoTime() - start, 0);
+    }
+    int threads = Math.min(parallelism, qualifiedNames.size());
+    Map<String, BaseFile> parsedFiles = new ConcurrentHashMap<>(qualifiedNames.size());
+    AtomicInteger next = new AtomicInteger();
+    AtomicInteger failures = new AtomicInteger();
+    AtomicLong chars = new AtomicLong();
+    List<Callable<Void>> workers = new ArrayList<>(threads);
+    for (int i = 0; i < threads; i++) {
+      workers.add(() -> {
+        int index = next.getAndIncrement();
+        while (index < qualifiedNames.size()) {
+          parseDetached(qualifiedNames.get(index), parsedFiles, chars, failures);
+          index = next.getAndIncrement();
+        }
+        return null;
+      });
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+      Thread thread = new Thread(r, "mmm-code-parse-" + THREAD_COUNT.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      for (Future<Void> future : executor.invokeAll(workers)) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while parsing " + getSource().getId(), e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Failed to parse " + getSource().getId(), e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+    int files = parsedFiles.size();
+    merge(qualifiedNames, parsedFiles);
+    BaseParseStatistics statistics = new BaseParseStatistics(files, failures.get(), chars.get(),
+        System.nanoTime() - start, threads);
+    LOG.debug("Parsed {}: {}", getSource().getId(), statistics);
+    if (getParser() instanceof JavaSourceCodeParserImpl) {
+      LOG.debug("Symbol table: {}", ((JavaSourceCodeParserImpl) getParser()).getSymbolTable());
+    }
+    return statistics;
+  }
+
+  /**
+   * Links the given {@link BaseFile}s into the package tree and type cache by resolving their types via the
+   * {@link #getContext() context} on the current thread. While resolving, {@link #getType(CodeName)} takes the parsed
+   * {@link BaseFile} instead of parsing the source-code again. Concurrent requests from other threads are not affected
+   * and if they win the race for a type, its parsed {@link BaseFile} is simply discarded.
+   */
+  private void merge(List<String> qualifiedNames, Map<String, BaseFile> files) {
+
+    this.parsedFiles.set(files);
+    try {
+      CodeContext context = getContext();
+      for (String qualifiedName : qualifiedNames) {
+        if (files.containsKey(qualifiedName)) {
+          BaseType type = (BaseType) context.getType(qualifiedName);
+          if ((type != null) && (type.getReflectiveObject() != null)) {
+            type.getFile().getSourceCodeObject(); // link parsed file as source of reflective type
+          }
+        }
+      }
+    } finally {
+      this.parsedFiles.remove();
+    }
+  }
+
+  private List<String> collectTypeNames() {
+
+    List<String> qualifiedNames = new ArrayList<>();
+    if (this.sourceCodeProvider == null) {
+      return qualifiedNames;
+    }
+    try {
+      List<String> packageNames = this.sourceCodeProvider.scanPackages();
+      if (packageNames == null) {
+        LOG.debug("Source {} does not support to scan packages.", getSource().getId());
+        return qualifiedNames;
+      }
+      for (String packageName : packageNames) {
+        String prefix = "";
+        if (!packageName.isEmpty()) {
+          prefix = packageName + ".";
+        }
+        for (String simpleName : this.sourceCodeProvider.scanPackage(packageName)) {
+          qualifiedNames.add(prefix + simpleName);
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeIoException(e);
+    }
+    return qualifiedNames;
+  }
+
+  private void parseDetached(String qualifiedName, Map<String, BaseFile> files, AtomicLong chars,
+      AtomicInteger failures) {
+
+    CodeName name = getSource().parseName(qualifiedName);
+    try (Reader reader = this.sourceCodeProvider.openType(qualifiedName)) {
+      if (reader == null) {
+        return;
+      }
+      BaseFile file = getPackage(name.getParent()).getChildren().createFile(name.getSimpleName());
+      long start = System.nanoTime();
+      getParser().parseType(reader, file);
+      long length = getLength(reader);
+      getContext().getListener().onSourceParsed(qualifiedName, length, System.nanoTime() - start);
+      chars.addAndGet(length);
+      files.put(qualifiedName, file);
+    } catch (IOException | RuntimeException e) {
+      failures.incrementAndGet();
+      LOG.warn("Failed to parse type {}: {}", qualifiedName, e.getMessage(), e);
+    }
+  }
+
+  private BaseFile takeParsedFile(String qualifiedName) {
+
+    Map<String, BaseFile> files = this.parsedFiles.get();
+    if (files == null) {
+      return null;
+    }
+    return files.remove(qualifiedName);
+  }
+
+  @Override
+  public boolean release(long idleNanos) {
+
+    SourceCodeProvider provider = this.sourceCodeProvider;
+    if (provider instanceof SourceCodeProviderPrefetching) {
+      provider = ((SourceCodeProviderPrefetching) provider).getDelegate();
+    }
+    if (provider instanceof SourceCodeProviderProxy) {
+      return ((SourceCodeProviderProxy) provider).release(idleNanos);
+    }
+    return false;
+  }
+
   @Override
   public void close() {
 
@@ -0,0 +1,228 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.impl.java.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import io.github.mmm.code.api.statement.CodeStatement;
+import io.github.mmm.code.base.statement.BaseTextStatement;
+
+/**
+ * {@link Supplier} of the {@link CodeStatement}s of a block (e.g. the body of an operation) that are parsed on demand
+ * from the source-code of the block. Only the source-code of the block itself is retained so the source-code of the
+ * compilation unit can be garbage collected after parsing and each block is released once loaded.<br>
+ * The block is split into its top-level statements by a single pass over the characters. A statement ends with a
+ * semicolon or with the closing curly brace of a block statement (e.g. {@code if}, {@code for}, or {@code try}) that
+ * is not continued (e.g. by {@code else} or {@code catch}). Nested parentheses, brackets, and braces (e.g. of lambdas,
+ * anonymous classes, or array initializers) as well as string, text-block, and char literals and comments are
+ * skipped so the result does not depend on the formatting of the source-code. Standalone comments become statements
+ * of their own.
+ *
+ * @since 1.0.0
+ */
+final class JavaBlockParser implements Supplier<List<CodeStatement>> {
+
+  /** {@link JavaBlockParser} for an empty block. */
+  static final JavaBlockParser EMPTY = new JavaBlockParser("", 0, 0);
+
+  /** Lookup table for the ASCII characters that need to be handled by {@link #findStatementEnd(int)}. */
+  private static final boolean[] SPECIAL_CHARS = new boolean[128];
+
+  static {
+    for (char c : "()[]{};\"'/".toCharArray()) {
+      SPECIAL_CHARS[c] = true;
+    }
+  }
+
+  private final String sourceCode;
+
+  private final int start;
+
+  private final int end;
+
+  /**
+   * The constructor.
+   *
+   * @param block the source-code of the block between its curly braces.
+   */
+  JavaBlockParser(String block) {
+
+    this(block, 0, block.length());
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param sourceCode the source-code containing the block (e.g. of the entire compilation unit).
+   * @param start the index of the first character after the opening curly brace of the block.
+   * @param end the index of the closing curly brace of the block.
+   */
+  JavaBlockParser(String sourceCode, int start, int end) {
+
+    super();
+    this.sourceCode = sourceCode;
+    this.start = start;
+    this.end = end;
+  }
+
+  @Override
+  public List<CodeStatement> get() {
+
+    List<CodeStatement> statements = new ArrayList<>();
+    int i = skipWhitespaces(this.start);
+    while (i < this.end) {
+      int statementEnd = Math.min(findStatementEnd(i), this.end);
+      int last = statementEnd;
+      while ((last > i) && Character.isWhitespace(this.sourceCode.charAt(last - 1))) {
+        last--;
+      }
+      statements.add(new BaseTextStatement(this.sourceCode.substring(i, last)));
+      i = skipWhitespaces(statementEnd);
+    }
+    return statements;
+  }
+
+  private int findStatementEnd(int statementStart) {
+
+    if (isComment(statementStart)) {
+      return skipLiteralOrComment('/', statementStart + 1);
+    }
+    boolean doLoop = isKeyword(statementStart, "do");
+    int depth = 0;
+    int i = statementStart;
+    while (i < this.end) {
+      char c = this.sourceCode.charAt(i++);
+      if ((c >= SPECIAL_CHARS.length) || !SPECIAL_CHARS[c]) {
+        continue;
+      } else if ((c == '(') || (c == '[') || (c == '{')) {
+        depth++;
+      } else if ((c == ')') || (c == ']')) {
+        depth--;
+      } else if (c == '}') {
+        depth--;
+        if ((depth <= 0) && !isContinuedAfterBlock(i, doLoop)) {
+          return i;
+        }
+      } else if (c == ';') {
+        if ((depth <= 0) && !isKeyword(skipWhitespacesAndComments(i), "else")) {
+          return i;
+        }
+      } else {
+        i = skipLiteralOrComment(c, i);
+      }
+    }
+    return this.end;
+  }
+
+  private boolean isContinuedAfterBlock(int index, boolean doLoop) {
+
+    int i = skipWhitespacesAndComments(index);
+    if (i >= this.end) {
+      return false;
+    }
+    char c = this.sourceCode.charAt(i);
+    if ((c == ';') || (c == ',') || (c == '.') || (c == ')') || (c == ']') || (c == '?') || (c == ':')) {
+      return true; // e.g. anonymous class, lambda, or array initializer
+    }
+    return isKeyword(i, "else") || isKeyword(i, "catch") || isKeyword(i, "finally")
+        || (doLoop && isKeyword(i, "while"));
+  }
+
+  /**
+   * @param c the character that has just been consumed.
+   * @param index the index after {@code c}.
+   * @return the index after the literal or comment started by {@code c} or the given {@code index} if {@code c} does
+   *         not start a literal or comment.
+   */
+  private int skipLiteralOrComment(char c, int index) {
+
+    if (c == '"') {
+      if (this.sourceCode.startsWith("\"\"", index)) {
+        return skipTextBlock(index + 2);
+      }
+      return skipLiteral('"', index);
+    } else if (c == '\'') {
+      return skipLiteral('\'', index);
+    } else if ((c == '/') && (index < this.end)) {
+      char next = this.sourceCode.charAt(index);
+      if (next == '/') {
+        int eol = this.sourceCode.indexOf('\n', index);
+        if ((eol < 0) || (eol > this.end)) {
+          return this.end;
+        }
+        return eol;
+      } else if (next == '*') {
+        int commentEnd = this.sourceCode.indexOf("*/", index + 1);
+        if ((commentEnd < 0) || (commentEnd + 2 > this.end)) {
+          return this.end;
+        }
+        return commentEnd + 2;
+      }
+    }
+    return index;
+  }
+
+  private int skipLiteral(char quote, int index) {
+
+    int i = index;
+    while (i < this.end) {
+      char c = this.sourceCode.charAt(i++);
+      if (c == '\\') {
+        i++;
+      } else if ((c == quote) || (c == '\n')) {
+        return i;
+      }
+    }
+    return this.end;
+  }
+
+  private int skipTextBlock(int index) {
+
+    int i = index;
+    while (i < this.end) {
+      char c = this.sourceCode.charAt(i++);
+      if (c == '\\') {
+        i++;
+      } else if ((c == '"') && this.sourceCode.startsWith("\"\"", i)) {
+        return i + 2;
+      }
+    }
+    return this.end;
+  }
+
+  private int skipWhitespaces(int index) {
+
+    int i = index;
+    while ((i < this.end) && Character.isWhitespace(this.sourceCode.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private int skipWhitespacesAndComments(int index) {
+
+    int i = skipWhitespaces(index);
+    while (isComment(i)) {
+      i = skipWhitespaces(skipLiteralOrComment('/', i + 1));
+    }
+    return i;
+  }
+
+  private boolean isComment(int index) {
+
+    return (index + 1 < this.end) && (this.sourceCode.charAt(index) == '/')
+        && ((this.sourceCode.charAt(index + 1) == '/') || (this.sourceCode.charAt(index + 1) == '*'));
+  }
+
+  private boolean isKeyword(int index, String keyword) {
+
+    if (!this.sourceCode.startsWith(keyword, index)) {
+      return false;
+    }
+    int next = index + keyword.length();
+    return (next >= this.end) || !Character.isJavaIdentifierPart(this.sourceCode.charAt(next));
+  }
+
+}
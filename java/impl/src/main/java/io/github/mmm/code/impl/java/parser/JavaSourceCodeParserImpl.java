@@ -3,37 +3,134 @@
 package io.github.mmm.code.impl.java.parser;
 
 import java.io.Reader;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import io.github.mmm.code.base.BaseFile;
 import io.github.mmm.code.base.BasePackage;
+import io.github.mmm.code.base.parser.BaseSymbolTable;
+import io.github.mmm.code.base.parser.SourceCodeParseMode;
 import io.github.mmm.code.base.parser.SourceCodeParser;
 import io.github.mmm.code.base.type.BaseType;
 
 /**
- * Implementation of {@link SourceCodeParser}.
+ * Implementation of {@link SourceCodeParser}. This class is thread-safe: each invocation of
+ * {@link #parseType(Reader, BaseFile)} uses its own {@link JavaSourceCodeReaderHighlevel reader} that is taken from
+ * a pool and returned after parsing so its buffers are reused. Hence, concurrent threads never share a reader (and
+ * therefore never block each other) while only a small number of readers is ever allocated.
  *
  * @author Joerg Hohwiller (hohwille at users.sourceforge.net)
  * @since 1.0.0
  */
 public class JavaSourceCodeParserImpl implements SourceCodeParser {
 
-  private static JavaSourceCodeParserImpl instance;
+  /** The default maximum number of idle {@link JavaSourceCodeReaderHighlevel readers} kept for reuse. */
+  public static final int DEFAULT_MAX_POOLED_READERS = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
 
-  private final JavaSourceCodeReaderHighlevel codeReader;
+  private static volatile JavaSourceCodeParserImpl instance;
+
+  private static volatile JavaSourceCodeParserImpl signaturesInstance;
+
+  private final BlockingQueue<JavaSourceCodeReaderHighlevel> readerPool;
+
+  private final SourceCodeParseMode mode;
+
+  private final BaseSymbolTable symbolTable;
 
   /**
    * The constructor.
    */
   public JavaSourceCodeParserImpl() {
 
+    this(SourceCodeParseMode.FULL);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param mode the {@link #getMode() mode}.
+   */
+  public JavaSourceCodeParserImpl(SourceCodeParseMode mode) {
+
+    this(mode, DEFAULT_MAX_POOLED_READERS);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param mode the {@link #getMode() mode}.
+   * @param maxPooledReaders the maximum number of idle {@link JavaSourceCodeReaderHighlevel readers} kept for reuse.
+   */
+  public JavaSourceCodeParserImpl(SourceCodeParseMode mode, int maxPooledReaders) {
+
+    this(mode, maxPooledReaders, new BaseSymbolTable(BaseSymbolTable.DEFAULT_MAX_SIZE));
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param mode the {@link #getMode() mode}.
+   * @param maxPooledReaders the maximum number of idle {@link JavaSourceCodeReaderHighlevel readers} kept for reuse.
+   * @param symbolTable the {@link #getSymbolTable() symbol table}.
+   */
+  public JavaSourceCodeParserImpl(SourceCodeParseMode mode, int maxPooledReaders, BaseSymbolTable symbolTable) {
+
     super();
-    this.codeReader = new JavaSourceCodeReaderHighlevel();
+    Objects.requireNonNull(mode, "mode");
+    Objects.requireNonNull(symbolTable, "symbolTable");
+    this.mode = mode;
+    this.readerPool = new ArrayBlockingQueue<>(maxPooledReaders);
+    this.symbolTable = symbolTable;
+  }
+
+  @Override
+  public SourceCodeParseMode getMode() {
+
+    return this.mode;
+  }
+
+  /**
+   * @return the {@link BaseSymbolTable} used to share the {@link String} instances of identifiers and names. By
+   *         default a new one owned by this parser.
+   */
+  public BaseSymbolTable getSymbolTable() {
+
+    return this.symbolTable;
   }
 
   @Override
   public BaseType parseType(Reader reader, BaseFile file) {
 
-    return this.codeReader.parse(reader, file);
+    JavaSourceCodeReaderHighlevel codeReader = acquireReader();
+    BaseType type = codeReader.parse(reader, file);
+    // only reached on success - otherwise the reader might be in an inconsistent state and is discarded
+    releaseReader(codeReader);
+    return type;
+  }
+
+  private JavaSourceCodeReaderHighlevel acquireReader() {
+
+    JavaSourceCodeReaderHighlevel codeReader = this.readerPool.poll();
+    if (codeReader == null) {
+      codeReader = new JavaSourceCodeReaderHighlevel(4096, this.mode, this.symbolTable);
+    }
+    return codeReader;
+  }
+
+  private void releaseReader(JavaSourceCodeReaderHighlevel codeReader) {
+
+    codeReader.reset();
+    // if the pool is full the reader is simply dropped
+    this.readerPool.offer(codeReader);
+  }
+
+  /**
+   * @return the number of idle {@link JavaSourceCodeReaderHighlevel readers} currently pooled for reuse.
+   */
+  public int getPooledReaderCount() {
+
+    return this.readerPool.size();
   }
 
   @Override
@@ -42,7 +139,10 @@ public class JavaSourceCodeParserImpl implements SourceCodeParser {
   }
 
   /**
-   * @return the default instance of this class.
+   * @return the default instance of this class for {@link SourceCodeParseMode#FULL}. As this class is thread-safe, it
+   *         can be shared by all threads. Its {@link #getSymbolTable() symbol table} is retained as long as the JVM
+   *         runs so contexts use their {@link io.github.mmm.code.impl.java.JavaContext#getParser(SourceCodeParseMode)
+   *         own parser} instead.
    */
   public static JavaSourceCodeParserImpl get() {
 
@@ -56,4 +156,23 @@ public class JavaSourceCodeParserImpl implements SourceCodeParser {
     return instance;
   }
 
+  /**
+   * @param mode the requested {@link #getMode() mode}.
+   * @return the default instance of this class for the given {@link SourceCodeParseMode}.
+   */
+  public static JavaSourceCodeParserImpl get(SourceCodeParseMode mode) {
+
+    if (mode == SourceCodeParseMode.SIGNATURES) {
+      if (signaturesInstance == null) {
+        synchronized (JavaSourceCodeParserImpl.class) {
+          if (signaturesInstance == null) {
+            signaturesInstance = new JavaSourceCodeParserImpl(mode);
+          }
+        }
+      }
+      return signaturesInstance;
+    }
+    return get();
+  }
+
 }
@@ -2,6 +2,9 @@
  * http://www.apache.org/licenses/LICENSE-2.0 */
 package io.github.mmm.code.impl.java.parser;
 
+import java.io.CharArrayReader;
+import java.io.CharArrayWriter;
+import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
@@ -9,6 +12,7 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.github.mmm.base.exception.RuntimeIoException;
 import io.github.mmm.base.filter.CharFilter;
 import io.github.mmm.code.api.annotation.CodeAnnotation;
 import io.github.mmm.code.api.annotation.CodeAnnotations;
@@ -28,9 +32,10 @@ import io.github.mmm.code.api.type.CodeTypePlaceholder;
 import io.github.mmm.code.base.BaseFile;
 import io.github.mmm.code.base.arg.BaseExceptions;
 import io.github.mmm.code.base.arg.BaseParameters;
-import io.github.mmm.code.base.block.BaseBlockBody;
+import io.github.mmm.code.base.block.BaseBlockBodyLazy;
 import io.github.mmm.code.base.block.BaseBlockInitializer;
 import io.github.mmm.code.base.doc.BaseDocParser;
+import io.github.mmm.code.base.loader.BaseSourceCodeReader;
 import io.github.mmm.code.base.element.BaseElement;
 import io.github.mmm.code.base.member.BaseConstructor;
 import io.github.mmm.code.base.member.BaseConstructors;
@@ -38,7 +43,8 @@ import io.github.mmm.code.base.member.BaseField;
 import io.github.mmm.code.base.member.BaseMember;
 import io.github.mmm.code.base.member.BaseMethod;
 import io.github.mmm.code.base.member.BaseOperation;
-import io.github.mmm.code.base.statement.BaseTextStatement;
+import io.github.mmm.code.base.parser.BaseSymbolTable;
+import io.github.mmm.code.base.parser.SourceCodeParseMode;
 import io.github.mmm.code.base.type.BaseGenericType;
 import io.github.mmm.code.base.type.BaseType;
 import io.github.mmm.code.base.type.BaseTypeVariable;
@@ -56,12 +62,31 @@ public class JavaSourceCodeReaderHighlevel extends JavaSourceCodeReaderLowlevel
 
   private BaseDocParser docParser;
 
+  private final SourceCodeParseMode mode;
+
+  /**
+   * The characters of the source-code of the {@link #file} to parse or {@code null} in
+   * {@link SourceCodeParseMode#SIGNATURES}. Only valid during {@link #parse(Reader, BaseFile)} as it may be the
+   * internal buffer of a {@link BaseSourceCodeReader}.
+   */
+  private char[] sourceCode;
+
   /**
    * The constructor.
    */
   public JavaSourceCodeReaderHighlevel() {
 
-    this(4096);
+    this(SourceCodeParseMode.FULL);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param mode the {@link SourceCodeParseMode}.
+   */
+  public JavaSourceCodeReaderHighlevel(SourceCodeParseMode mode) {
+
+    this(4096, mode);
   }
 
   /**
@@ -71,8 +96,32 @@ public class JavaSourceCodeReaderHighlevel extends JavaSourceCodeReaderLowlevel
    */
   public JavaSourceCodeReaderHighlevel(int capacity) {
 
-    super(capacity);
+    this(capacity, SourceCodeParseMode.FULL);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param capacity the buffer capacity.
+   * @param mode the {@link SourceCodeParseMode}.
+   */
+  public JavaSourceCodeReaderHighlevel(int capacity, SourceCodeParseMode mode) {
+
+    this(capacity, mode, new BaseSymbolTable(BaseSymbolTable.DEFAULT_MAX_SIZE));
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param capacity the buffer capacity.
+   * @param mode the {@link SourceCodeParseMode}.
+   * @param symbols the {@link BaseSymbolTable} to use.
+   */
+  public JavaSourceCodeReaderHighlevel(int capacity, SourceCodeParseMode mode, BaseSymbolTable symbols) {
+
+    super(capacity, symbols);
     this.docParser = new BaseDocParser();
+    this.mode = mode;
   }
 
   /**
@@ -85,7 +134,17 @@ public class JavaSourceCodeReaderHighlevel extends JavaSourceCodeReaderLowlevel
     if (this.file != null) {
       throw new IllegalStateException();
     }
-    setReader(reader);
+    if (this.mode == SourceCodeParseMode.FULL) {
+      // keep the source-code to copy the blocks for lazy parsing of the bodies
+      this.sourceCode = readSourceCode(reader);
+      if (reader instanceof BaseSourceCodeReader) {
+        setReader(reader);
+      } else {
+        setReader(new CharArrayReader(this.sourceCode));
+      }
+    } else {
+      setReader(reader);
+    }
     this.file = javaFile;
     // parse the source code
     parsePackage();
@@ -93,9 +152,24 @@ public class JavaSourceCodeReaderHighlevel extends JavaSourceCodeReaderLowlevel
     parseTypes();
     // clear
     this.file = null;
+    this.sourceCode = null;
     return javaFile.getType();
   }
 
+  private static char[] readSourceCode(Reader reader) {
+
+    if (reader instanceof BaseSourceCodeReader) {
+      return ((BaseSourceCodeReader) reader).getChars();
+    }
+    CharArrayWriter writer = new CharArrayWriter(4096);
+    try {
+      reader.transferTo(writer);
+    } catch (IOException e) {
+      throw new RuntimeIoException(e);
+    }
+    return writer.toCharArray();
+  }
+
   private void parsePackage() {
 
     consume();
@@ -221,11 +295,14 @@ public class JavaSourceCodeReaderHighlevel extends JavaSourceCodeReaderLowlevel
     JavaTypeVariablesFromSource typeVariables = parseTypeVariables(null, type);
     String name = parseIdentifier();
     if (name == null) {
-      List<CodeStatement> statements = parseBlock();
-      if (statements == null) {
+      JavaBlockParser block = parseBlock();
+      if (block == null) {
         LOG.warn("Invalid member of type {} at {}", type.getSimpleName(), this.file.getQualifiedName());
         return false;
+      } else if (this.mode == SourceCodeParseMode.SIGNATURES) {
+        return true;
       }
+      List<CodeStatement> statements = block.get();
       CodeBlockInitializer initializer;
       if (modifiers.isStatic()) {
         assert (modifiers.getModifiers().size() == 1);
@@ -389,46 +466,42 @@ public class JavaSourceCodeReaderHighlevel extends JavaSourceCodeReaderLowlevel
     if (expectOne(';')) {
       return;
     }
-    List<CodeStatement> statements = parseBlock();
-    if (statements == null) {
+    JavaBlockParser block = parseBlock();
+    if (block == null) {
       LOG.warn("Expecting ';' or '{' to terminate signature of operation {} but found '{}' in {}", operation,
           "" + peek(), this.file.getQualifiedName());
       return;
+    } else if (this.mode == SourceCodeParseMode.SIGNATURES) {
+      return;
     }
-    operation.setBody(new BaseBlockBody(operation, statements));
+    operation.setBody(new BaseBlockBodyLazy(operation, block));
   }
 
-  private List<CodeStatement> parseBlock() {
+  /**
+   * Skips the block at the current position and copies its source-code.
+   *
+   * @return the {@link JavaBlockParser} to parse the statements of the block on demand or {@code null} if not
+   *         pointing to a block. In {@link SourceCodeParseMode#SIGNATURES} mode the source-code is not copied and
+   *         {@link JavaBlockParser#EMPTY} is returned.
+   */
+  private JavaBlockParser parseBlock() {
 
     if (!expectOne('{')) {
       return null;
     }
-    skipWhile(CharFilter.WHITESPACE);
-    List<CodeStatement> statements = new ArrayList<>();
-    // TODO HACK: this only works for formatted source code!
-    int braceCount = 1;
-    while (braceCount > 0) {
-      String statement = readLine(true);
-      braceCount += countMatches(statement, '{');
-      braceCount -= countMatches(statement, '}');
-      if (braceCount > 0) {
-        statements.add(new BaseTextStatement(statement));
-      } else {
-        assert (statement.equals("}"));
-      }
+    int start = (int) getPosition();
+    int end;
+    if (skipBlock()) {
+      end = (int) getPosition() - 1;
+    } else {
+      LOG.warn("Unterminated block in {}", this.file.getQualifiedName());
+      end = (int) getPosition();
     }
-    return statements;
-  }
-
-  private static int countMatches(String str, char c) {
-
-    int count = 0;
-    int index = 0;
-    while ((index = str.indexOf(c, index)) != -1) {
-      count++;
-      index++;
+    if ((this.sourceCode == null) || (end <= start)) {
+      return JavaBlockParser.EMPTY;
     }
-    return count;
+    // only the block itself is retained until its statements are loaded and not the entire compilation unit
+    return new JavaBlockParser(new String(this.sourceCode, start, end - start));
   }
 
   private JavaTypeVariablesFromSource parseTypeVariables(CodeElementWithTypeVariables element, BaseElement owner) {
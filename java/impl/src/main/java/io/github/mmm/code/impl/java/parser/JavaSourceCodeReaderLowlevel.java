@@ -4,6 +4,7 @@ package io.github.mmm.code.impl.java.parser;
 
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +35,7 @@ import io.github.mmm.code.base.expression.BaseFieldReferenceLazy;
 import io.github.mmm.code.base.expression.BaseMethodInvocation;
 import io.github.mmm.code.base.member.BaseMethod;
 import io.github.mmm.code.base.operator.BaseOperator;
+import io.github.mmm.code.base.parser.BaseSymbolTable;
 import io.github.mmm.code.impl.java.expression.JavaNAryOperatorExpression;
 import io.github.mmm.code.impl.java.expression.literal.JavaLiteral;
 import io.github.mmm.code.impl.java.expression.literal.JavaLiteralBoolean;
@@ -82,6 +84,11 @@ public abstract class JavaSourceCodeReaderLowlevel extends CharReaderScanner {
   /** The current {@link BaseFile} to parse. */
   protected BaseFile file;
 
+  /** The {@link BaseSymbolTable} for the {@link #parseIdentifier() identifiers} and {@link #parseQName() names}. */
+  protected final BaseSymbolTable symbols;
+
+  private char[] symbolBuffer;
+
   /**
    * The constructor.
    */
@@ -97,10 +104,24 @@ public abstract class JavaSourceCodeReaderLowlevel extends CharReaderScanner {
    */
   public JavaSourceCodeReaderLowlevel(int capacity) {
 
+    this(capacity, new BaseSymbolTable(BaseSymbolTable.DEFAULT_MAX_SIZE));
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param capacity the buffer capacity.
+   * @param symbols the {@link BaseSymbolTable} to use.
+   */
+  public JavaSourceCodeReaderLowlevel(int capacity, BaseSymbolTable symbols) {
+
     super(capacity);
+    Objects.requireNonNull(symbols, "symbols");
     this.javaDocLines = new ArrayList<>();
     this.comments = new ArrayList<>();
     this.annotations = new ArrayList<>();
+    this.symbols = symbols;
+    this.symbolBuffer = new char[64];
   }
 
   @Override
@@ -220,7 +241,7 @@ public abstract class JavaSourceCodeReaderLowlevel extends CharReaderScanner {
   protected String parseIdentifier() {
 
     if (Character.isJavaIdentifierStart(peek())) {
-      return readWhile(CHAR_FILTER_IDENTIFIER);
+      return readSymbol(CHAR_FILTER_IDENTIFIER);
     }
     return null;
   }
@@ -231,11 +252,111 @@ public abstract class JavaSourceCodeReaderLowlevel extends CharReaderScanner {
   protected String parseQName() {
 
     if (Character.isJavaIdentifierStart(peek())) {
-      return readWhile(CHAR_FILTER_QNAME);
+      return readSymbol(CHAR_FILTER_QNAME);
     }
     return null;
   }
 
+  /**
+   * Like {@link #readWhile(CharFilter)} but returns the canonical instance from the {@link BaseSymbolTable} that is
+   * looked up directly from the characters so no new {@link String} is created for known symbols.
+   *
+   * @param filter the {@link CharFilter} accepting the code points of the symbol.
+   * @return the symbol.
+   */
+  private String readSymbol(CharFilter filter) {
+
+    int length = 0;
+    int hash = 0;
+    while (hasNext()) {
+      int cp = peek();
+      if (!filter.accept(cp)) {
+        break;
+      }
+      next();
+      if (length + 2 > this.symbolBuffer.length) {
+        this.symbolBuffer = Arrays.copyOf(this.symbolBuffer, 2 * this.symbolBuffer.length);
+      }
+      int count = Character.toChars(cp, this.symbolBuffer, length);
+      for (int i = 0; i < count; i++) {
+        hash = BaseSymbolTable.hash(hash, this.symbolBuffer[length++]);
+      }
+    }
+    return this.symbols.intern(this.symbolBuffer, length, hash);
+  }
+
+  /**
+   * Skips a block of source-code (e.g. the body of an operation) on character level without parsing it. The opening
+   * curly brace has to be consumed before. Nested curly braces are matched while braces inside string, text-block or
+   * char literals as well as comments are ignored.
+   *
+   * @return {@code true} if the block has been skipped including its closing curly brace, {@code false} if the end of
+   *         the stream has been reached before.
+   */
+  protected boolean skipBlock() {
+
+    int depth = 1;
+    while (hasNext()) {
+      int cp = next();
+      if (cp == '{') {
+        depth++;
+      } else if (cp == '}') {
+        depth--;
+        if (depth == 0) {
+          return true;
+        }
+      } else if (cp == '"') {
+        if (expect("\"\"")) {
+          skipTextBlock();
+        } else {
+          skipLiteral('"');
+        }
+      } else if (cp == '\'') {
+        skipLiteral('\'');
+      } else if (cp == '/') {
+        if (expectOne('/')) {
+          skipWhile(c -> (c != '\n'));
+        } else if (expectOne('*')) {
+          skipBlockComment();
+        }
+      }
+    }
+    return false;
+  }
+
+  private void skipLiteral(char quote) {
+
+    while (hasNext()) {
+      int cp = next();
+      if (cp == '\\') {
+        next();
+      } else if ((cp == quote) || (cp == '\n')) {
+        return;
+      }
+    }
+  }
+
+  private void skipTextBlock() {
+
+    while (hasNext()) {
+      int cp = next();
+      if (cp == '\\') {
+        next();
+      } else if ((cp == '"') && expect("\"\"")) {
+        return;
+      }
+    }
+  }
+
+  private void skipBlockComment() {
+
+    while (hasNext()) {
+      if ((next() == '*') && expectOne('/')) {
+        return;
+      }
+    }
+  }
+
   private void parseAnnotations() {
 
     String annotationTypeName = parseQName();
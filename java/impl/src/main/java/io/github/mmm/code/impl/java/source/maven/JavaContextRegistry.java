@@ -0,0 +1,426 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.impl.java.source.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.mmm.code.base.loader.BaseSourceCodeCache;
+import io.github.mmm.code.base.loader.BaseSourceLoaderRootPackage;
+import io.github.mmm.code.base.metrics.BaseContextListener;
+import io.github.mmm.code.base.metrics.BaseTypeOrigin;
+import io.github.mmm.code.base.source.BaseSource;
+import io.github.mmm.code.base.source.BaseSourceDescriptorType;
+import io.github.mmm.code.base.source.BaseSourceImpl;
+import io.github.mmm.code.impl.java.JavaContext;
+import io.github.mmm.code.impl.java.JavaExtendedContext;
+import io.github.mmm.code.impl.java.JavaRootContext;
+
+/**
+ * Registry for {@link JavaContext}s of many Maven projects analyzed in the same JVM. It hands out one
+ * {@link JavaContext} per project location and keeps the approximate retained size of all contexts within a given
+ * budget by {@link JavaContext#close() closing} the least recently used ones. The budget is checked when a context is
+ * {@link #getContext(File) requested} and in the background after every {@link #getSweepInterval() N} types that have
+ * been loaded in any of the contexts, as contexts grow while they are used.<br>
+ * As the background check may close a context while another thread is still using it, such usage has to be guarded
+ * by a {@link #lease(File) lease}. A context is never closed to fit into the budget while it is leased.<br>
+ * All project contexts have a shared {@link #getSharedContext() parent context} where the {@link BaseSource}s of
+ * immutable dependencies (artifacts from the Maven repository) are registered so they are only loaded once for all
+ * projects with the same dependency. The shared context counts towards the budget but is never evicted, so the budget
+ * should leave room for the dependencies of all analyzed projects. When a {@link MavenClassLoader} is built for each
+ * project, no dependencies are shared, as their types would be bound to the {@link ClassLoader} of the project that
+ * loaded them first.
+ *
+ * @since 1.0.0
+ */
+public class JavaContextRegistry implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(JavaContextRegistry.class);
+
+  /** Rough estimation of the average retained size of a cached {@link io.github.mmm.code.base.type.BaseType}. */
+  protected static final long ESTIMATED_BYTES_PER_TYPE = 4 * 1024;
+
+  /** Rough estimation of the retained size of an empty {@link JavaContext}. */
+  protected static final long ESTIMATED_BYTES_PER_CONTEXT = 64 * 1024;
+
+  /**
+   * Rough estimation of the average retained size of a {@link io.github.mmm.code.base.BasePackage package} or
+   * {@link io.github.mmm.code.base.BaseFile file} in the package tree of a {@link BaseSource}.
+   */
+  protected static final long ESTIMATED_BYTES_PER_PATH_ELEMENT = 256;
+
+  /** The default {@link #getSweepInterval() sweep interval}. */
+  protected static final int DEFAULT_SWEEP_INTERVAL = 1000;
+
+  private final long budget;
+
+  private final boolean buildClassLoader;
+
+  private final JavaSourceProviderUsingMaven sharedProvider;
+
+  private final JavaExtendedContext sharedContext;
+
+  private final Map<File, JavaContext> contexts;
+
+  private final Map<JavaContext, Integer> leases;
+
+  private final BudgetListener budgetListener;
+
+  private BaseContextListener listener;
+
+  private final ExecutorService sweeper;
+
+  private boolean closed;
+
+  /**
+   * The constructor.
+   *
+   * @param budget the maximum approximate retained size in bytes of all contexts.
+   */
+  public JavaContextRegistry(long budget) {
+
+    this(budget, false);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param budget the maximum approximate retained size in bytes of all contexts.
+   * @param buildClassLoader - {@code true} to build a custom {@link ClassLoader} for each maven project, {@code false}
+   *        to use the existing {@link Thread#getContextClassLoader() CCL}.
+   */
+  public JavaContextRegistry(long budget, boolean buildClassLoader) {
+
+    super();
+    if (budget <= 0) {
+      throw new IllegalArgumentException("budget=" + budget);
+    }
+    this.budget = budget;
+    this.buildClassLoader = buildClassLoader;
+    this.sharedProvider = new JavaSourceProviderUsingMaven();
+    BaseSourceDescriptorType descriptor = new BaseSourceDescriptorType("shared", "dependencies", "SNAPSHOT", null,
+        null);
+    BaseSourceImpl sharedSource = new BaseSourceImpl(null, null, null, "shared-dependencies", descriptor,
+        Collections.emptyList(), new BaseSourceLoaderRootPackage(), true);
+    this.sharedContext = new JavaExtendedContext(JavaRootContext.get(), sharedSource, this.sharedProvider);
+    this.contexts = new LinkedHashMap<>(16, 0.75f, true);
+    this.leases = new IdentityHashMap<>();
+    this.budgetListener = new BudgetListener();
+    this.listener = this.budgetListener;
+    this.sweeper = Executors.newSingleThreadExecutor(r -> {
+      Thread thread = new Thread(r, "mmm-code-context-registry");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.sharedContext.setListener(this.listener);
+  }
+
+  /**
+   * @return the shared {@link JavaContext} that is the {@link JavaContext#getParent() parent} of all contexts from
+   *         this registry and holds the shared {@link BaseSource}s of immutable dependencies.
+   */
+  public JavaContext getSharedContext() {
+
+    return this.sharedContext;
+  }
+
+  /**
+   * @param listener the {@link BaseContextListener} to notify about type resolution and source parsing of all contexts
+   *        from this registry or {@code null} for none. Use this method instead of
+   *        {@link JavaContext#setListener(BaseContextListener) setting the listener} of the
+   *        {@link #getSharedContext() shared context} as otherwise the budget is no longer checked while types are
+   *        loaded.
+   */
+  public synchronized void setListener(BaseContextListener listener) {
+
+    if (listener == null) {
+      this.listener = this.budgetListener;
+    } else {
+      this.listener = BaseContextListener.of(this.budgetListener, listener);
+    }
+    this.sharedContext.setListener(this.listener);
+    for (JavaContext context : this.contexts.values()) {
+      if (context.getParent() != this.sharedContext) {
+        context.setListener(this.listener);
+      }
+    }
+  }
+
+  /**
+   * @param prefetchImports - {@code true} to {@link JavaSourceProviderUsingMaven#setPrefetchImports(boolean) prefetch}
+   *        the source-code of imported types in the background for all contexts created afterwards, {@code false}
+   *        otherwise (default).
+   */
+  public void setPrefetchImports(boolean prefetchImports) {
+
+    this.sharedProvider.setPrefetchImports(prefetchImports);
+  }
+
+  /**
+   * @param sourceCodeCache the {@link BaseSourceCodeCache} to share the decoded source-code across contexts (e.g. if a
+   *        project is analyzed again after its context was closed to fit into the budget) or {@code null} for no
+   *        caching (default). Applies to all contexts created afterwards.
+   */
+  public void setSourceCodeCache(BaseSourceCodeCache sourceCodeCache) {
+
+    this.sharedProvider.setSourceCodeCache(sourceCodeCache);
+  }
+
+  /**
+   * @return the number of types to load in the contexts of this registry before the budget is checked again in the
+   *         background. Override to change.
+   */
+  protected int getSweepInterval() {
+
+    return DEFAULT_SWEEP_INTERVAL;
+  }
+
+  /**
+   * @param location the {@link File} pointing to the Maven project.
+   * @return the existing or newly created {@link JavaContext} for the Maven project at the given {@code location}. It
+   *         may be closed by the background check of the budget as soon as another context is requested. Use
+   *         {@link #lease(File)} to prevent this while the context is in use.
+   */
+  public synchronized JavaContext getContext(File location) {
+
+    if (this.closed) {
+      throw new IllegalStateException("Registry already closed!");
+    }
+    File key = MavenDependencyCollector.normalize(location);
+    JavaContext context = this.contexts.get(key);
+    if (context == null) {
+      if (this.buildClassLoader) {
+        MavenDependencyCollector dependencyCollector = new MavenDependencyCollector(true, true, null);
+        context = JavaSourceProviderUsingMaven.createFromLocalMavenProject(key, dependencyCollector,
+            this.sharedProvider, false, false);
+        context.setListener(this.listener);
+      } else {
+        context = JavaSourceProviderUsingMaven.createFromLocalMavenProject(key, null, this.sharedProvider, true,
+            false);
+      }
+      this.contexts.put(key, context);
+    }
+    evictIfRequired(context);
+    return context;
+  }
+
+  /**
+   * @param location the {@link File} pointing to the Maven project.
+   * @return a new {@link Lease} on the {@link #getContext(File) context} for the Maven project at the given
+   *         {@code location}. Until the {@link Lease} is {@link Lease#close() closed}, that context is not closed to
+   *         fit into the budget.
+   */
+  public synchronized Lease lease(File location) {
+
+    JavaContext context = getContext(location);
+    this.leases.merge(context, Integer.valueOf(1), (a, b) -> Integer.valueOf(a.intValue() + b.intValue()));
+    return new Lease(context);
+  }
+
+  private synchronized void unlease(JavaContext context) {
+
+    Integer count = this.leases.get(context);
+    if (count == null) {
+      return;
+    } else if (count.intValue() == 1) {
+      this.leases.remove(context);
+    } else {
+      this.leases.put(context, Integer.valueOf(count.intValue() - 1));
+    }
+  }
+
+  /**
+   * @param location the {@link File} pointing to the Maven project.
+   * @return {@code true} if the {@link JavaContext} for the given {@code location} was {@link JavaContext#close()
+   *         closed} and removed, {@code false} if no such context was registered. Existing {@link #lease(File) leases}
+   *         are ignored and must no longer be used.
+   */
+  public synchronized boolean release(File location) {
+
+    JavaContext context = this.contexts.remove(MavenDependencyCollector.normalize(location));
+    if (context == null) {
+      return false;
+    }
+    this.leases.remove(context);
+    close(context);
+    return true;
+  }
+
+  /**
+   * @return the number of currently registered project contexts.
+   */
+  public synchronized int size() {
+
+    return this.contexts.size();
+  }
+
+  /**
+   * @return the approximate retained size in bytes of all contexts including the {@link #getSharedContext() shared
+   *         context}.
+   */
+  public synchronized long getRetainedSize() {
+
+    long size = estimateRetainedSize(this.sharedContext);
+    for (JavaContext context : this.contexts.values()) {
+      size = size + estimateRetainedSize(context);
+    }
+    return size;
+  }
+
+  /**
+   * @param context the {@link JavaContext}.
+   * @return the approximate retained size of the given {@link JavaContext} in bytes. Includes the cached types as well
+   *         as the package trees of its {@link BaseSource}s. Override to plug in a more accurate estimation.
+   */
+  protected long estimateRetainedSize(JavaContext context) {
+
+    return ESTIMATED_BYTES_PER_CONTEXT + (context.getTypeCacheSize() * ESTIMATED_BYTES_PER_TYPE)
+        + (context.getPathElementCount() * ESTIMATED_BYTES_PER_PATH_ELEMENT);
+  }
+
+  /**
+   * Checks the budget in the background and closes least recently used contexts if it is exceeded. The most recently
+   * {@link #getContext(File) requested} context and {@link #lease(File) leased} contexts are never closed.
+   */
+  private synchronized void sweep() {
+
+    if (this.closed || this.contexts.isEmpty()) {
+      return;
+    }
+    JavaContext current = null;
+    for (JavaContext context : this.contexts.values()) {
+      current = context; // last entry is the most recently used
+    }
+    evictIfRequired(current);
+  }
+
+  private void evictIfRequired(JavaContext current) {
+
+    long size = getRetainedSize();
+    if (size <= this.budget) {
+      return;
+    }
+    List<File> evicted = new ArrayList<>();
+    Iterator<Map.Entry<File, JavaContext>> iterator = this.contexts.entrySet().iterator();
+    while ((size > this.budget) && iterator.hasNext()) {
+      Map.Entry<File, JavaContext> entry = iterator.next();
+      JavaContext context = entry.getValue();
+      if ((context != current) && !this.leases.containsKey(context)) {
+        size = size - estimateRetainedSize(context);
+        iterator.remove();
+        close(context);
+        evicted.add(entry.getKey());
+      }
+    }
+    if (!evicted.isEmpty()) {
+      LOG.debug("Closed least recently used contexts {} to fit into budget of {} bytes.", evicted,
+          Long.valueOf(this.budget));
+    }
+  }
+
+  private static void close(JavaContext context) {
+
+    ClassLoader classLoader = context.getClassLoader();
+    context.close();
+    if (classLoader instanceof MavenClassLoader) {
+      try {
+        ((MavenClassLoader) classLoader).close();
+      } catch (IOException e) {
+        LOG.warn("Failed to close class loader of {}", context, e);
+      }
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+
+    if (this.closed) {
+      return;
+    }
+    for (JavaContext context : this.contexts.values()) {
+      close(context);
+    }
+    this.contexts.clear();
+    this.leases.clear();
+    this.sharedContext.close();
+    this.sweeper.shutdownNow();
+    this.closed = true;
+  }
+
+  /**
+   * A lease on a {@link JavaContext} of this registry that prevents it from being closed to fit into the budget. Use
+   * it with try-with-resources around any usage of the context.
+   */
+  public final class Lease implements AutoCloseable {
+
+    private final JavaContext context;
+
+    private final AtomicBoolean released;
+
+    private Lease(JavaContext context) {
+
+      super();
+      this.context = context;
+      this.released = new AtomicBoolean();
+    }
+
+    /**
+     * @return the leased {@link JavaContext}.
+     */
+    public JavaContext getContext() {
+
+      return this.context;
+    }
+
+    @Override
+    public void close() {
+
+      if (this.released.compareAndSet(false, true)) {
+        unlease(this.context);
+      }
+    }
+  }
+
+  /**
+   * {@link BaseContextListener} inherited by all contexts of this registry that schedules a {@link #sweep() sweep}
+   * after every {@link #getSweepInterval() N} loaded types.
+   */
+  private class BudgetListener implements BaseContextListener {
+
+    private final AtomicLong loadCount = new AtomicLong();
+
+    private final AtomicBoolean sweepPending = new AtomicBoolean();
+
+    @Override
+    public void onTypeLoaded(String qualifiedName, BaseTypeOrigin origin, long nanos) {
+
+      long count = this.loadCount.incrementAndGet();
+      if (((count % getSweepInterval()) == 0) && this.sweepPending.compareAndSet(false, true)) {
+        try {
+          JavaContextRegistry.this.sweeper.execute(() -> {
+            this.sweepPending.set(false);
+            sweep();
+          });
+        } catch (RejectedExecutionException e) {
+          this.sweepPending.set(false); // registry closed
+        }
+      }
+    }
+  }
+
+}
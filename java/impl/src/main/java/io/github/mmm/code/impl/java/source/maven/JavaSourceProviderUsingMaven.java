@@ -7,6 +7,9 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.security.CodeSource;
 import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.Supplier;
 
@@ -15,10 +18,17 @@ import org.apache.maven.model.Model;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import io.github.mmm.code.base.loader.BaseSourceCodeProviderArchive;
+import io.github.mmm.code.api.language.JavaLanguage;
+import io.github.mmm.code.base.loader.BaseSourceCodeCache;
+import io.github.mmm.code.base.loader.BaseSourceCodeProvider;
+import io.github.mmm.code.base.loader.BaseSourceCodeProviderComposite;
 import io.github.mmm.code.base.loader.BaseSourceCodeProviderDirectory;
+import io.github.mmm.code.base.loader.BaseSourceCodeProviderDirectoryWatching;
+import io.github.mmm.code.base.loader.BaseSourceCodeProviderZipFile;
 import io.github.mmm.code.base.loader.BaseSourceLoader;
 import io.github.mmm.code.base.loader.SourceCodeProvider;
+import io.github.mmm.code.base.loader.SourceCodeProviderPool;
+import io.github.mmm.code.base.loader.SourceCodeProviderPrefetching;
 import io.github.mmm.code.base.loader.SourceCodeProviderProxy;
 import io.github.mmm.code.base.source.BaseSource;
 import io.github.mmm.code.base.source.BaseSourceHelper;
@@ -47,6 +57,14 @@ public class JavaSourceProviderUsingMaven extends BaseSourceProviderImpl impleme
 
   private static final Logger LOG = LoggerFactory.getLogger(JavaSourceProviderUsingMaven.class);
 
+  private JavaSourceProviderUsingMaven sharedProvider;
+
+  private boolean watchSourceDirectories;
+
+  private boolean prefetchImports;
+
+  private BaseSourceCodeCache sourceCodeCache;
+
   /**
    * The constructor.
    */
@@ -73,8 +91,8 @@ public class JavaSourceProviderUsingMaven extends BaseSourceProviderImpl impleme
     File location = BaseSourceHelper.asFile(source.getLocation());
     Supplier<Model> supplier = createModelSupplier(location);
     SourceCodeProvider sourceCodeProvider = new SourceCodeProviderProxy(
-        () -> createSourceCodeProvider(location, supplier));
-    BaseSourceLoader loader = new JavaSourceLoader(sourceCodeProvider);
+        () -> withPrefetching(createSourceCodeProvider(location, supplier)), SourceCodeProviderPool.getDefault());
+    BaseSourceLoader loader = createLoader(sourceCodeProvider);
     return new JavaSourceUsingMaven(this, source, supplier, loader);
   }
 
@@ -82,12 +100,13 @@ public class JavaSourceProviderUsingMaven extends BaseSourceProviderImpl impleme
 
     File artifactSources = this.mavenBridge.findArtifactSources(location);
     if (artifactSources != null) {
-      return new BaseSourceCodeProviderArchive(artifactSources);
+      return withCache(new BaseSourceCodeProviderZipFile(artifactSources));
     }
     if (location.isDirectory()) {
       Model model = supplier.get();
       if (model != null) {
-        return new BaseSourceCodeProviderDirectory(ModelHelper.getSourceDirectory(model));
+        return createDirectoryProvider(ModelHelper.getSourceDirectory(model),
+            ModelHelper.getAdditionalSourceDirectories(model), false);
       }
     }
     return null;
@@ -114,22 +133,140 @@ public class JavaSourceProviderUsingMaven extends BaseSourceProviderImpl impleme
         () -> this.mavenBridge.readEffectiveModelFromLocationWithFallback(location));
   }
 
-  private static BaseSourceLoader createLoader(File sourceCodeLocation) {
+  private BaseSourceLoader createLoader(File sourceCodeLocation) {
+
+    return createLoader(sourceCodeLocation, false);
+  }
+
+  private BaseSourceLoader createLoader(File sourceCodeLocation, boolean watch) {
+
+    return createLoader(sourceCodeLocation, Collections.emptyList(), watch);
+  }
+
+  private BaseSourceLoader createLoader(File sourceCodeLocation, List<File> additionalSourceDirectories,
+      boolean watch) {
 
     SourceCodeProvider sourceCodeProvider;
-    if ((sourceCodeLocation == null) || !sourceCodeLocation.exists()) {
+    if (!additionalSourceDirectories.isEmpty()) {
+      sourceCodeProvider = withPrefetching(
+          createDirectoryProvider(sourceCodeLocation, additionalSourceDirectories, watch));
+    } else if ((sourceCodeLocation == null) || !sourceCodeLocation.exists()) {
       sourceCodeProvider = null;
     } else if (sourceCodeLocation.isDirectory()) {
-      sourceCodeProvider = new BaseSourceCodeProviderDirectory(sourceCodeLocation);
+      sourceCodeProvider = withPrefetching(createDirectoryProvider(sourceCodeLocation, watch));
     } else {
-      sourceCodeProvider = new BaseSourceCodeProviderArchive(sourceCodeLocation);
+      // lazy so the archive is only opened on demand and can be released when idle or exceeding the pool limit
+      sourceCodeProvider = new SourceCodeProviderProxy(
+          () -> withPrefetching(withCache(new BaseSourceCodeProviderZipFile(sourceCodeLocation))),
+          SourceCodeProviderPool.getDefault());
     }
+    return createLoader(sourceCodeProvider);
+  }
+
+  private BaseSourceLoader createLoader(SourceCodeProvider sourceCodeProvider) {
+
     return new JavaSourceLoader(sourceCodeProvider);
   }
 
+  /**
+   * Wraps the given {@link SourceCodeProvider} for {@link #isPrefetchImports() prefetching}. A
+   * {@link SourceCodeProviderProxy} has to supply the wrapped provider itself so prefetching never reopens a released
+   * archive.
+   */
+  private SourceCodeProvider withPrefetching(SourceCodeProvider sourceCodeProvider) {
+
+    if (this.prefetchImports && (sourceCodeProvider != null)) {
+      return new SourceCodeProviderPrefetching(sourceCodeProvider);
+    }
+    return sourceCodeProvider;
+  }
+
+  private BaseSourceCodeProvider createDirectoryProvider(File sourceDirectory, List<File> additionalSourceDirectories,
+      boolean watch) {
+
+    if (additionalSourceDirectories.isEmpty()) {
+      return createDirectoryProvider(sourceDirectory, watch);
+    }
+    // merge all source roots with an index so a type is not searched in every root
+    List<BaseSourceCodeProvider> providers = new ArrayList<>(additionalSourceDirectories.size() + 1);
+    if ((sourceDirectory != null) && sourceDirectory.isDirectory()) {
+      providers.add(createDirectoryProvider(sourceDirectory, watch));
+    }
+    for (File directory : additionalSourceDirectories) {
+      providers.add(createDirectoryProvider(directory, watch));
+    }
+    return new BaseSourceCodeProviderComposite(JavaLanguage.TYPE_EXTENSION_JAVA, providers);
+  }
+
+  private BaseSourceCodeProvider createDirectoryProvider(File directory, boolean watch) {
+
+    if (watch) {
+      return withCache(new BaseSourceCodeProviderDirectoryWatching(directory));
+    } else {
+      return withCache(new BaseSourceCodeProviderDirectory(directory));
+    }
+  }
+
+  private <P extends BaseSourceCodeProvider> P withCache(P provider) {
+
+    provider.setCache(this.sourceCodeCache);
+    return provider;
+  }
+
+  /**
+   * @return the {@link BaseSourceCodeCache} to share the decoded source-code with other contexts or {@code null} for
+   *         no caching (default).
+   */
+  public BaseSourceCodeCache getSourceCodeCache() {
+
+    return this.sourceCodeCache;
+  }
+
+  /**
+   * @param sourceCodeCache the new value of {@link #getSourceCodeCache()}. E.g.
+   *        {@link BaseSourceCodeCache#getDefault()} so unchanged sources of the same project or dependency are not
+   *        decoded again when another context parses them (e.g. after a {@link JavaContextRegistry} evicted the context
+   *        of a project). Only applies to sources created afterwards.
+   */
+  public void setSourceCodeCache(BaseSourceCodeCache sourceCodeCache) {
+
+    this.sourceCodeCache = sourceCodeCache;
+  }
+
+  /**
+   * @return {@code true} if the source-code of imported types is {@link SourceCodeProviderPrefetching prefetched} in
+   *         the background after a type has been parsed, {@code false} otherwise (default).
+   */
+  public boolean isPrefetchImports() {
+
+    return this.prefetchImports;
+  }
+
+  /**
+   * @param prefetchImports the new value of {@link #isPrefetchImports()}. Only applies to sources created afterwards
+   *        (e.g. for dependencies that are resolved on demand).
+   */
+  public void setPrefetchImports(boolean prefetchImports) {
+
+    this.prefetchImports = prefetchImports;
+  }
+
+  /**
+   * @param sharedProvider the {@link JavaSourceProviderUsingMaven} of a shared {@link JavaContext} where the sources of
+   *        immutable dependencies (artifacts from the repository) shall be created and registered so they can be
+   *        shared across multiple projects. Use {@code null} to disable sharing (default).
+   */
+  void setSharedProvider(JavaSourceProviderUsingMaven sharedProvider) {
+
+    this.sharedProvider = sharedProvider;
+  }
+
   BaseSource createSource(Dependency dependency) {
 
     File byteCodeArtifact = this.mavenBridge.findArtifact(dependency);
+    if ((this.sharedProvider != null) && (byteCodeArtifact != null) && byteCodeArtifact.isFile()) {
+      return this.sharedProvider.createSource(dependency);
+    }
     JavaContext context = (JavaContext) getContext();
     String id = BaseSourceImpl.getNormalizedId(byteCodeArtifact);
     return context.getOrCreateSource(id, () -> createSource(dependency, byteCodeArtifact));
@@ -179,10 +316,12 @@ public class JavaSourceProviderUsingMaven extends BaseSourceProviderImpl impleme
     File byteCodeLocation = ModelHelper.getOutputDirectory(model);
     File sourceCodeLocation = ModelHelper.getSourceDirectory(model);
     JavaSourceUsingMaven compileDependency = new JavaSourceUsingMaven(this, byteCodeLocation, sourceCodeLocation,
-        modelSupplier, SCOPE_COMPILE, createLoader(sourceCodeLocation));
+        modelSupplier, SCOPE_COMPILE, createLoader(sourceCodeLocation, ModelHelper.getAdditionalSourceDirectories(model),
+            this.watchSourceDirectories));
     File testByteCodeLocation = ModelHelper.getTestOutputDirectory(model);
     File testSourceCodeLocation = ModelHelper.getTestSourceDirectory(model);
-    BaseSourceLoader testLoader = createLoader(testSourceCodeLocation);
+    BaseSourceLoader testLoader = createLoader(testSourceCodeLocation,
+        ModelHelper.getAdditionalTestSourceDirectories(model), this.watchSourceDirectories);
     JavaSourceUsingMaven testDependency = new JavaSourceUsingMaven(this, compileDependency, testByteCodeLocation,
         testSourceCodeLocation, modelSupplier, testLoader);
     return testDependency;
@@ -227,13 +366,56 @@ public class JavaSourceProviderUsingMaven extends BaseSourceProviderImpl impleme
    */
   public static JavaContext createFromLocalMavenProject(File location, MavenDependencyCollector dependencyCollector) {
 
+    return createFromLocalMavenProject(location, dependencyCollector, false);
+  }
+
+  /**
+   * @param location the {@link File} pointing to the Maven project.
+   * @param dependencyCollector the {@link MavenDependencyCollector} used to build the classpath.
+   * @param watch - {@code true} to {@link BaseSourceCodeProviderDirectoryWatching watch} the source directories of the
+   *        project for changes so changed types are parsed again on their next access (e.g. for a long-running
+   *        development server), {@code false} otherwise.
+   * @return the {@link JavaContext} for the Maven project at the given {@code location}.
+   */
+  public static JavaContext createFromLocalMavenProject(File location, MavenDependencyCollector dependencyCollector,
+      boolean watch) {
+
+    return createFromLocalMavenProject(location, dependencyCollector, null, false, watch);
+  }
+
+  /**
+   * @param location the {@link File} pointing to the Maven project.
+   * @param dependencyCollector the {@link MavenDependencyCollector} used to build the classpath.
+   * @param sharedProvider the optional {@link JavaSourceProviderUsingMaven} to inherit the settings (e.g.
+   *        {@link #isPrefetchImports() prefetch imports}) from.
+   * @param share - {@code true} to use the given {@code sharedProvider} as {@link #setSharedProvider(
+   *        JavaSourceProviderUsingMaven) shared provider} so its {@link #getContext() context} will be the
+   *        {@link JavaContext#getParent() parent} of the created {@link JavaContext}, {@code false} otherwise.
+   * @param watch - {@code true} to watch the source directories of the project for changes, {@code false} otherwise.
+   * @return the {@link JavaContext} for the Maven project at the given {@code location}.
+   */
+  static JavaContext createFromLocalMavenProject(File location, MavenDependencyCollector dependencyCollector,
+      JavaSourceProviderUsingMaven sharedProvider, boolean share, boolean watch) {
+
     JavaSourceProviderUsingMaven provider;
     if (dependencyCollector == null) {
       provider = new JavaSourceProviderUsingMaven();
     } else {
       provider = new JavaSourceProviderUsingMaven(dependencyCollector.mavenBridge);
     }
-    JavaSourceUsingMaven source = provider.createFromLocalMavenProject(JavaRootContext.get(),
+    provider.watchSourceDirectories = watch;
+    if (sharedProvider != null) {
+      provider.prefetchImports = sharedProvider.prefetchImports;
+      provider.sourceCodeCache = sharedProvider.sourceCodeCache;
+    }
+    JavaContext parent;
+    if ((sharedProvider == null) || !share) {
+      parent = JavaRootContext.get();
+    } else {
+      provider.setSharedProvider(sharedProvider);
+      parent = (JavaContext) sharedProvider.getContext();
+    }
+    JavaSourceUsingMaven source = provider.createFromLocalMavenProject(parent,
         MavenDependencyCollector.normalize(location));
 
     ClassLoader classLoader;
@@ -243,7 +425,7 @@ public class JavaSourceProviderUsingMaven extends BaseSourceProviderImpl impleme
       dependencyCollector.collect(source.getModel());
       classLoader = dependencyCollector.asClassLoader();
     }
-    return new JavaExtendedContext(source, provider, classLoader);
+    return new JavaExtendedContext(parent, source, provider, classLoader);
   }
 
   private static File getCwd() {
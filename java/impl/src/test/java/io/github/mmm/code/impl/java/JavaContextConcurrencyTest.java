@@ -0,0 +1,194 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.impl.java;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.mmm.code.base.type.BaseType;
+import io.github.mmm.code.impl.java.source.maven.JavaSourceProviderUsingMaven;
+
+/**
+ * Stress test of {@link JavaContext} resolving types from multiple threads.
+ */
+class JavaContextConcurrencyTest extends Assertions {
+
+  private static final int THREAD_COUNT = 8;
+
+  /**
+   * Resolves thousands of JDK and dependency types concurrently with one shared {@link JavaContext} and verifies that
+   * every type is only loaded once.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  void testConcurrentTypeResolution() throws Exception {
+
+    // arrange
+    JavaContext context = JavaSourceProviderUsingMaven.createFromLocalMavenProject();
+    List<String> qualifiedNames = new ArrayList<>();
+    collectJdkTypes(qualifiedNames, "java/lang", "java/util", "java/util/concurrent", "java/util/function",
+        "java/io", "java/nio/file", "java/time", "java/lang/reflect", "java/text", "java/net");
+    collectArchiveTypes(qualifiedNames, Assertions.class, "org/assertj/core/api/");
+    collectArchiveTypes(qualifiedNames, Test.class, "org/junit/jupiter/api/");
+    assertThat(qualifiedNames.size()).isGreaterThan(2000);
+    ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+    List<Future<List<BaseType>>> futures = new ArrayList<>();
+
+    // act
+    try {
+      for (int i = 0; i < THREAD_COUNT; i++) {
+        futures.add(executor.submit(new TypeResolver(context, qualifiedNames, i)));
+      }
+      List<List<BaseType>> results = new ArrayList<>();
+      for (Future<List<BaseType>> future : futures) {
+        results.add(future.get());
+      }
+
+      // assert
+      List<BaseType> expected = results.get(0);
+      for (List<BaseType> result : results) {
+        for (int i = 0; i < qualifiedNames.size(); i++) {
+          assertThat(result.get(i)).as(qualifiedNames.get(i)).isSameAs(expected.get(i));
+        }
+      }
+      for (int i = 0; i < qualifiedNames.size(); i++) {
+        String qualifiedName = qualifiedNames.get(i);
+        assertThat(context.getType(qualifiedName)).as(qualifiedName).isSameAs(expected.get(i));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Warms up single types and an entire package in the background and verifies that the types are cached afterwards.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  void testWarmUp() throws Exception {
+
+    // arrange
+    JavaRootContext context = JavaRootContext.get();
+    List<String> names = List.of("java.lang.String", "java.util.concurrent.*", "java.util.concurrent.Executor",
+        "java.util.concurrent.Undefined");
+
+    // act
+    Duration duration = context.warmUp(names).get(1, TimeUnit.MINUTES);
+
+    // assert
+    assertThat(duration.isNegative()).isFalse();
+    Set<String> packageTypeNames = context.getPackageTypeNames("java.util.concurrent");
+    assertThat(packageTypeNames).contains("java.util.concurrent.Executor", "java.util.concurrent.ConcurrentHashMap")
+        .doesNotContain("java.util.concurrent.ConcurrentHashMap$Node");
+    for (String qualifiedName : packageTypeNames) {
+      assertThat(context.getTypeFromCache(qualifiedName)).as(qualifiedName).isNotNull();
+    }
+    assertThat(context.getTypeFromCache("java.lang.String")).isNotNull();
+    assertThat(context.getTypeFromCache("java.util.concurrent.Undefined")).isNull();
+  }
+
+  private static void collectJdkTypes(List<String> qualifiedNames, String... packagePaths) throws IOException {
+
+    FileSystem jrt = FileSystems.getFileSystem(URI.create("jrt:/"));
+    for (String packagePath : packagePaths) {
+      Path pkg = jrt.getPath("modules", "java.base", packagePath);
+      if (!Files.isDirectory(pkg)) {
+        continue;
+      }
+      try (Stream<Path> children = Files.list(pkg)) {
+        children.map(child -> child.getFileName().toString()).filter(JavaContextConcurrencyTest::isTopLevelClass)
+            .map(filename -> toQualifiedName(packagePath + "/" + filename)).forEach(qualifiedNames::add);
+      }
+    }
+  }
+
+  private static void collectArchiveTypes(List<String> qualifiedNames, Class<?> anchor, String packagePrefix)
+      throws Exception {
+
+    File archive = new File(anchor.getProtectionDomain().getCodeSource().getLocation().toURI());
+    if (!archive.isFile()) {
+      return;
+    }
+    try (ZipFile zip = new ZipFile(archive)) {
+      for (ZipEntry entry : Collections.list(zip.entries())) {
+        String name = entry.getName();
+        if (name.startsWith(packagePrefix) && isTopLevelClass(name.substring(name.lastIndexOf('/') + 1))) {
+          qualifiedNames.add(toQualifiedName(name));
+        }
+      }
+    }
+  }
+
+  private static boolean isTopLevelClass(String filename) {
+
+    return filename.endsWith(".class") && (filename.indexOf('$') < 0) && !filename.startsWith("package-info")
+        && !filename.startsWith("module-info");
+  }
+
+  private static String toQualifiedName(String classFile) {
+
+    return classFile.substring(0, classFile.length() - ".class".length()).replace('/', '.');
+  }
+
+  private static class TypeResolver implements Callable<List<BaseType>> {
+
+    private final JavaContext context;
+
+    private final List<String> qualifiedNames;
+
+    private final int seed;
+
+    private TypeResolver(JavaContext context, List<String> qualifiedNames, int seed) {
+
+      super();
+      this.context = context;
+      this.qualifiedNames = qualifiedNames;
+      this.seed = seed;
+    }
+
+    @Override
+    public List<BaseType> call() throws Exception {
+
+      int size = this.qualifiedNames.size();
+      List<Integer> order = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        order.add(Integer.valueOf(i));
+      }
+      Collections.shuffle(order, new Random(this.seed));
+      BaseType[] types = new BaseType[size];
+      for (Integer index : order) {
+        int i = index.intValue();
+        types[i] = this.context.getType(this.qualifiedNames.get(i));
+      }
+      List<BaseType> result = new ArrayList<>(size);
+      Collections.addAll(result, types);
+      return result;
+    }
+
+  }
+
+}
@@ -3,20 +3,39 @@
 package io.github.mmm.code.impl.java;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.mmm.code.api.language.JavaLanguage;
 
 import io.github.mmm.code.api.source.CodeSourceDescriptor;
 import io.github.mmm.code.api.type.CodeType;
 import io.github.mmm.code.base.loader.BaseSourceCodeProviderDirectory;
+import io.github.mmm.code.base.loader.BaseSourceCodeProviderDirectoryWatching;
 import io.github.mmm.code.base.loader.BaseSourceLoader;
 import io.github.mmm.code.base.loader.SourceCodeProvider;
+import io.github.mmm.code.base.metrics.BaseParseStatistics;
+import io.github.mmm.code.base.parser.SourceCodeParseMode;
 import io.github.mmm.code.base.source.BaseSourceDescriptorType;
 import io.github.mmm.code.base.source.BaseSourceImpl;
 import io.github.mmm.code.base.source.BaseSourceProvider;
 import io.github.mmm.code.base.type.BaseType;
 import io.github.mmm.code.impl.java.loader.JavaSourceLoader;
+import io.github.mmm.code.impl.java.parser.JavaSourceCodeParserImpl;
 
 /**
  * Test of {@link JavaExtendedContext} with only source code available.
@@ -49,4 +68,168 @@ class JavaSourceCodeOnlyTest extends AbstractBaseTypeTest {
     context.close();
   }
 
+  /** Test that each context uses its own parsers sharing one symbol table that is released with the context. */
+  @Test
+  void testParserPerContext() {
+
+    // arrange
+    File sourceLocation = new File("src/test/resources/testdata/sourcecode");
+    JavaSourceLoader loader1 = new JavaSourceLoader(new BaseSourceCodeProviderDirectory(sourceLocation));
+    JavaSourceLoader loader2 = new JavaSourceLoader(new BaseSourceCodeProviderDirectory(sourceLocation),
+        SourceCodeParseMode.SIGNATURES);
+    String id = "com.example.demo";
+    CodeSourceDescriptor descriptor = new BaseSourceDescriptorType(id);
+    JavaExtendedContext context1 = new JavaExtendedContext(JavaRootContext.get(),
+        new BaseSourceImpl(null, sourceLocation, id, descriptor, loader1), null);
+    JavaExtendedContext context2 = new JavaExtendedContext(JavaRootContext.get(),
+        new BaseSourceImpl(null, sourceLocation, id, descriptor, loader2), null);
+    // act
+    JavaSourceCodeParserImpl parser1 = context1.getParser(SourceCodeParseMode.FULL);
+    JavaSourceCodeParserImpl signaturesParser1 = context1.getParser(SourceCodeParseMode.SIGNATURES);
+    JavaSourceCodeParserImpl parser2 = context2.getParser(SourceCodeParseMode.SIGNATURES);
+    // assert
+    assertThat(loader1.getParser()).isSameAs(parser1);
+    assertThat(loader2.getParser()).isSameAs(parser2);
+    assertThat(context1.getParser(SourceCodeParseMode.FULL)).isSameAs(parser1);
+    assertThat(signaturesParser1.getMode()).isSameAs(SourceCodeParseMode.SIGNATURES);
+    assertThat(signaturesParser1.getSymbolTable()).isSameAs(parser1.getSymbolTable());
+    assertThat(parser2).isNotSameAs(signaturesParser1);
+    assertThat(parser2.getSymbolTable()).isNotSameAs(parser1.getSymbolTable());
+    assertThat(parser1.getSymbolTable()).isNotSameAs(JavaSourceCodeParserImpl.get().getSymbolTable());
+    context1.close();
+    context2.close();
+  }
+
+  /** Test of {@link JavaSourceLoader#parseAll(int)}. */
+  @Test
+  void testParseAll() {
+
+    // arrange
+    File sourceLocation = new File("src/test/resources/testdata/sourcecode");
+    JavaSourceLoader loader = new JavaSourceLoader(new BaseSourceCodeProviderDirectory(sourceLocation));
+    String id = "com.example.demo";
+    CodeSourceDescriptor descriptor = new BaseSourceDescriptorType(id);
+    BaseSourceImpl source = new BaseSourceImpl(null, sourceLocation, id, descriptor, loader);
+    JavaExtendedContext context = new JavaExtendedContext(JavaRootContext.get(), source, null);
+
+    // act
+    BaseParseStatistics statistics = loader.parseAll(2);
+
+    // assert
+    assertThat(statistics.getFiles()).isEqualTo(1);
+    assertThat(statistics.getFailures()).isEqualTo(0);
+    assertThat(statistics.getChars()).isGreaterThan(0);
+    BaseType type = context.getType("com.example.demo.Demo");
+    assertThat(type.getMethods().getDeclared()).hasSize(2);
+    context.close();
+  }
+
+  /**
+   * Test of {@link JavaSourceLoader#parseAll(int)} on generated sources referencing each other invoked concurrently
+   * twice while other threads resolve the same types via the context.
+   *
+   * @param tempDir the temporary directory.
+   * @throws Exception on error.
+   */
+  @Test
+  void testParseAllConcurrently(@TempDir Path tempDir) throws Exception {
+
+    // arrange
+    List<String> qualifiedNames = new ArrayList<>();
+    int count = 60;
+    for (int i = 0; i < count; i++) {
+      String packageName = "com.foo.p" + (i % 3);
+      String next = "com.foo.p" + ((i + 1) % 3) + ".Type" + ((i + 1) % count);
+      String code = "package " + packageName + ";\n\nimport java.util.List;\n\nimport " + next + ";\n\n"
+          + "/** Generated type " + i + ". */\npublic class Type" + i + " {\n\n  private List<String> names;\n\n"
+          + "  public Type" + ((i + 1) % count) + " getNext() {\n\n    return null;\n  }\n\n"
+          + "  public <T extends Comparable<T>> T max(T a, T b) {\n\n    return (a.compareTo(b) > 0) ? a : b;\n  }\n}\n";
+      Path pkg = Files.createDirectories(tempDir.resolve(packageName.replace('.', File.separatorChar)));
+      Files.writeString(pkg.resolve("Type" + i + ".java"), code);
+      qualifiedNames.add(packageName + ".Type" + i);
+    }
+    File sourceLocation = tempDir.toFile();
+    JavaSourceLoader loader = new JavaSourceLoader(new BaseSourceCodeProviderDirectory(sourceLocation));
+    String id = "com.foo";
+    BaseSourceImpl source = new BaseSourceImpl(null, sourceLocation, id, new BaseSourceDescriptorType(id), loader);
+    JavaExtendedContext context = new JavaExtendedContext(JavaRootContext.get(), source, null);
+    Map<String, BaseType> resolved = new ConcurrentHashMap<>();
+    List<Callable<BaseParseStatistics>> tasks = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      tasks.add(() -> loader.parseAll(2));
+      tasks.add(() -> {
+        for (String qualifiedName : qualifiedNames) {
+          BaseType type = context.getType(qualifiedName);
+          BaseType previous = resolved.putIfAbsent(qualifiedName, type);
+          assertThat(previous == null || previous == type).as(qualifiedName).isTrue();
+        }
+        return null;
+      });
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+
+    // act
+    List<Future<BaseParseStatistics>> futures;
+    try {
+      futures = executor.invokeAll(tasks);
+    } finally {
+      executor.shutdown();
+    }
+
+    // assert
+    for (Future<BaseParseStatistics> future : futures) {
+      BaseParseStatistics statistics = future.get();
+      if (statistics != null) {
+        assertThat(statistics.getFiles()).isEqualTo(qualifiedNames.size());
+        assertThat(statistics.getFailures()).isEqualTo(0);
+      }
+    }
+    assertThat(resolved).hasSize(qualifiedNames.size());
+    for (String qualifiedName : qualifiedNames) {
+      BaseType type = context.getType(qualifiedName);
+      assertThat(type).as(qualifiedName).isSameAs(resolved.get(qualifiedName));
+      assertThat(type.getQualifiedName()).isEqualTo(qualifiedName);
+      assertThat(type.getMethods().getDeclared()).as(qualifiedName).hasSize(2);
+    }
+    context.close();
+  }
+
+  /**
+   * Test that a type is parsed again after its source file has been changed.
+   *
+   * @param tempDir the temporary directory.
+   * @throws Exception on error.
+   */
+  @Test
+  void testReparseAfterChange(@TempDir Path tempDir) throws Exception {
+
+    // arrange
+    Path file = Files.createDirectories(tempDir.resolve("com/foo")).resolve("Foo.java");
+    Files.writeString(file, "package com.foo;\n\npublic class Foo {\n  public void a() {}\n}\n");
+    BaseSourceCodeProviderDirectoryWatching provider = new BaseSourceCodeProviderDirectoryWatching(tempDir.toFile(),
+        JavaLanguage.TYPE_EXTENSION_JAVA, StandardCharsets.UTF_8, Duration.ofMillis(100));
+    JavaSourceLoader loader = new JavaSourceLoader(provider);
+    String id = "com.foo";
+    BaseSourceImpl source = new BaseSourceImpl(null, tempDir.toFile(), id, new BaseSourceDescriptorType(id), loader);
+    JavaExtendedContext context = new JavaExtendedContext(JavaRootContext.get(), source, null);
+    BaseType type = context.getType("com.foo.Foo");
+    assertThat(type.getMethods().getDeclared()).hasSize(1);
+
+    // act
+    Files.writeString(file, "package com.foo;\n\npublic class Foo {\n  public void a() {}\n  public void b() {}\n}\n");
+    Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+    BaseType changedType = context.getType("com.foo.Foo");
+    long timeout = System.currentTimeMillis() + 10000;
+    while ((changedType == type) && (System.currentTimeMillis() < timeout)) {
+      Thread.sleep(50);
+      changedType = context.getType("com.foo.Foo");
+    }
+
+    // assert
+    assertThat(changedType).isNotSameAs(type);
+    assertThat(changedType.getMethods().getDeclared()).hasSize(2);
+    assertThat(changedType.getMethods().getDeclared().get(1).getName()).isEqualTo("b");
+    context.close();
+  }
+
 }
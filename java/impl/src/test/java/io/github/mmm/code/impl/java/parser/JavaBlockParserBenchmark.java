@@ -0,0 +1,181 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.impl.java.parser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import io.github.mmm.code.api.statement.CodeStatement;
+import io.github.mmm.code.base.statement.BaseTextStatement;
+
+/**
+ * Micro benchmark comparing {@link JavaBlockParser} with the former line based approach counting curly braces per
+ * line to split blocks into statements. As block both approaches get the body of the first top-level type of each
+ * source from the JDK {@code src.zip}. The sources are loaded into memory before so only splitting is measured.
+ * Reports throughput in bytes per second, allocated bytes per source file, and for the line based approach the number
+ * of sources where it failed to detect the end of the block (e.g. due to curly braces in literals or comments).<br>
+ * Run manually with the path to {@code src.zip} as optional argument (defaults to {@code ${java.home}/lib/src.zip}).
+ */
+public class JavaBlockParserBenchmark {
+
+  private static final int ITERATIONS = 5;
+
+  /**
+   * @param args the command-line arguments.
+   * @throws Exception on error.
+   */
+  public static void main(String[] args) throws Exception {
+
+    File srcZip;
+    if (args.length > 0) {
+      srcZip = new File(args[0]);
+    } else {
+      srcZip = new File(System.getProperty("java.home"), "lib/src.zip");
+    }
+    List<String> sources = load(srcZip);
+    long totalChars = 0;
+    for (String source : sources) {
+      totalChars += source.length();
+    }
+    System.out.println("Loaded " + sources.size() + " sources with " + totalChars + " chars from " + srcZip);
+    for (int i = 0; i < ITERATIONS; i++) {
+      run("line based     ", sources, totalChars, false);
+      run("JavaBlockParser", sources, totalChars, true);
+    }
+  }
+
+  private static List<String> load(File srcZip) throws IOException {
+
+    List<String> sources = new ArrayList<>();
+    try (ZipFile zip = new ZipFile(srcZip)) {
+      for (ZipEntry entry : Collections.list(zip.entries())) {
+        String name = entry.getName();
+        if (name.endsWith(".java") && !name.endsWith("-info.java")) {
+          try (InputStream in = zip.getInputStream(entry)) {
+            String source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            if ((findBlockStart(source) > 0) && (source.lastIndexOf('}') > 0)) {
+              sources.add(source);
+            }
+          }
+        }
+      }
+    }
+    return sources;
+  }
+
+  private static void run(String name, List<String> sources, long totalChars, boolean tokenizer) {
+
+    long statements = 0;
+    int failures = 0;
+    long allocated = getAllocatedBytes();
+    long start = System.nanoTime();
+    for (String source : sources) {
+      int blockStart = findBlockStart(source);
+      int blockEnd = source.lastIndexOf('}');
+      List<CodeStatement> list;
+      if (tokenizer) {
+        list = new JavaBlockParser(source, blockStart, blockEnd).get();
+      } else {
+        list = new ArrayList<>();
+        if (!splitLines(source, blockStart, blockEnd, list)) {
+          failures++;
+        }
+      }
+      statements += list.size();
+    }
+    long nanos = System.nanoTime() - start;
+    allocated = getAllocatedBytes() - allocated;
+    double mbPerSecond = (totalChars / (1024.0 * 1024.0)) / (nanos / 1_000_000_000.0);
+    System.out.printf("%s: %8.1f MB/s %10d bytes allocated/op %8d statements %5d failures%n", name,
+        Double.valueOf(mbPerSecond), Long.valueOf(allocated / sources.size()), Long.valueOf(statements),
+        Integer.valueOf(failures));
+  }
+
+  /**
+   * The former approach that reads the block line by line and counts the curly braces.
+   *
+   * @return {@code true} if the end of the block was detected correctly, {@code false} otherwise.
+   */
+  private static boolean splitLines(String source, int start, int end, List<CodeStatement> statements) {
+
+    int i = start;
+    while ((i < end) && Character.isWhitespace(source.charAt(i))) {
+      i++;
+    }
+    int braceCount = 1;
+    while (braceCount > 0) {
+      if (i > end) {
+        return false; // end of block missed
+      }
+      int eol = source.indexOf('\n', i);
+      if (eol < 0) {
+        eol = source.length();
+      }
+      String statement = source.substring(i, eol).trim();
+      braceCount += countMatches(statement, '{');
+      braceCount -= countMatches(statement, '}');
+      if (braceCount > 0) {
+        statements.add(new BaseTextStatement(statement));
+      }
+      i = eol + 1;
+    }
+    return (i > end) && (source.lastIndexOf('\n', end) < i);
+  }
+
+  private static int countMatches(String str, char c) {
+
+    int count = 0;
+    int index = 0;
+    while ((index = str.indexOf(c, index)) != -1) {
+      count++;
+      index++;
+    }
+    return count;
+  }
+
+  /**
+   * @return the index after the first opening curly brace that is not inside a comment (typically the start of the
+   *         body of the first top-level type).
+   */
+  private static int findBlockStart(String source) {
+
+    int length = source.length();
+    int i = 0;
+    while (i < length) {
+      char c = source.charAt(i++);
+      if (c == '{') {
+        return i;
+      } else if ((c == '/') && (i < length)) {
+        char next = source.charAt(i);
+        if (next == '/') {
+          i = source.indexOf('\n', i);
+        } else if (next == '*') {
+          i = source.indexOf("*/", i + 1);
+        }
+        if (i < 0) {
+          return -1;
+        }
+      }
+    }
+    return -1;
+  }
+
+  @SuppressWarnings("deprecation")
+  private static long getAllocatedBytes() {
+
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return 0;
+  }
+
+}
@@ -0,0 +1,166 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.impl.java.parser;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.mmm.code.api.block.CodeBlockBody;
+import io.github.mmm.code.api.member.CodeMethod;
+import io.github.mmm.code.api.statement.CodeStatement;
+import io.github.mmm.code.base.BaseFile;
+import io.github.mmm.code.base.BasePackage;
+import io.github.mmm.code.base.block.BaseBlockBodyLazy;
+import io.github.mmm.code.base.loader.BaseSourceCodeReader;
+import io.github.mmm.code.base.parser.SourceCodeParseMode;
+import io.github.mmm.code.base.statement.BaseTextStatement;
+import io.github.mmm.code.base.type.BaseType;
+import io.github.mmm.code.impl.java.JavaRootContext;
+
+/**
+ * Test of {@link JavaBlockParser}.
+ */
+class JavaBlockParserTest extends Assertions {
+
+  /** Source-code with CRLF line endings and characters outside the BMP before and inside the bodies. */
+  private static final String UNICODE_SOURCE = "package com.example;\r\n" //
+      + "\r\n" //
+      + "/** Emoji \uD83D\uDE00 in doc. */\r\n" //
+      + "public class Unicode {\r\n" //
+      + "\r\n" //
+      + "  /** \uD834\uDD1E */\r\n" //
+      + "  public String a() {\r\n" //
+      + "    String s = \"\uD83D\uDE00}\";\r\n" //
+      + "    // \uD834\uDD1E {\r\n" //
+      + "    return s;\r\n" //
+      + "  }\r\n" //
+      + "\r\n" //
+      + "  public int b() {\r\n" //
+      + "    int x = \"\uD834\uDD1E\".length();\r\n" //
+      + "    if (x > 0) {\r\n" //
+      + "      x--;\r\n" //
+      + "    }\r\n" //
+      + "    return x;\r\n" //
+      + "  }\r\n" //
+      + "}\r\n";
+
+  private static List<String> parse(String body) {
+
+    String sourceCode = "void foo() {" + body + "}";
+    return toCode(new JavaBlockParser(sourceCode, sourceCode.indexOf('{') + 1, sourceCode.length() - 1).get());
+  }
+
+  private static List<String> toCode(List<? extends CodeStatement> statements) {
+
+    return statements.stream().map(x -> ((BaseTextStatement) x).getCode()).collect(Collectors.toList());
+  }
+
+  /**
+   * @return the statements of the body of the given method parsed eagerly from its location in
+   *         {@link #UNICODE_SOURCE}.
+   */
+  private static List<String> parseEager(String methodName) {
+
+    int start = UNICODE_SOURCE.indexOf(" " + methodName + "() {") + methodName.length() + 5;
+    int end = UNICODE_SOURCE.indexOf("\r\n  }\r\n", start) + 4;
+    return toCode(new JavaBlockParser(UNICODE_SOURCE, start, end).get());
+  }
+
+  private static BaseFile createFile(String packageName, String simpleName) {
+
+    BasePackage pkg = JavaRootContext.get().getSource().getRootPackage();
+    for (String segment : packageName.split("\\.")) {
+      pkg = new BasePackage(pkg, segment, null, null, false);
+    }
+    return new BaseFile(pkg, simpleName);
+  }
+
+  /** Test with formatted source-code. */
+  @Test
+  void testFormatted() {
+
+    // arrange
+    String body = "\n\n    int x = 1;\n    // comment\n    if (x > 0) {\n      x--;\n    } else {\n      x++;\n    }\n"
+        + "    return x;\n  ";
+    // act
+    List<String> statements = parse(body);
+    // assert
+    assertThat(statements).containsExactly("int x = 1;", "// comment",
+        "if (x > 0) {\n      x--;\n    } else {\n      x++;\n    }", "return x;");
+  }
+
+  /** Test with minified source-code containing braces in literals, comments, lambdas and anonymous classes. */
+  @Test
+  void testMinified() {
+
+    // arrange
+    String body = "String s=\"}{\";char c='}';/* } */list.forEach(e->{if(e){f(e);}});"
+        + "Runnable r=new Runnable(){public void run(){}};try{g();}catch(Exception e){}finally{h();}"
+        + "do{i++;}while(i<3);String t=\"\"\"\n  }\"\n  \"\"\";";
+    // act
+    List<String> statements = parse(body);
+    // assert
+    assertThat(statements).containsExactly("String s=\"}{\";", "char c='}';", "/* } */",
+        "list.forEach(e->{if(e){f(e);}});", "Runnable r=new Runnable(){public void run(){}};",
+        "try{g();}catch(Exception e){}finally{h();}", "do{i++;}while(i<3);", "String t=\"\"\"\n  }\"\n  \"\"\";");
+  }
+
+  /** Test that a copied block gives the same statements as the block located in the entire source-code. */
+  @Test
+  void testCopiedBlockWithCrlfAndSupplementaryCharacters() {
+
+    // arrange
+    int start = UNICODE_SOURCE.indexOf("b() {") + 5;
+    int end = UNICODE_SOURCE.lastIndexOf("\r\n  }") + 4;
+
+    // act
+    List<String> located = toCode(new JavaBlockParser(UNICODE_SOURCE, start, end).get());
+    List<String> copied = toCode(new JavaBlockParser(UNICODE_SOURCE.substring(start, end)).get());
+
+    // assert
+    assertThat(located).containsExactly("int x = \"\uD834\uDD1E\".length();",
+        "if (x > 0) {\r\n      x--;\r\n    }", "return x;");
+    assertThat(copied).isEqualTo(located);
+    assertThat(parseEager("a")).containsExactly("String s = \"\uD83D\uDE00}\";", "// \uD834\uDD1E {", "return s;");
+  }
+
+  /**
+   * Test that the lazy bodies of a parsed compilation unit with CRLF line endings and characters outside the BMP are
+   * equal to the bodies parsed eagerly from the source-code. Once from a {@link BaseSourceCodeReader} and once from a
+   * regular {@link Reader}.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  void testLazyBodiesWithCrlfAndSupplementaryCharacters() throws Exception {
+
+    byte[] bytes = UNICODE_SOURCE.getBytes(StandardCharsets.UTF_8);
+    for (Reader reader : List.of(BaseSourceCodeReader.of(bytes, bytes.length, StandardCharsets.UTF_8),
+        new StringReader(UNICODE_SOURCE))) {
+      // arrange
+      BaseFile file = createFile("com.example", "Unicode");
+      BaseType type;
+      // act
+      try (Reader r = reader) {
+        type = JavaSourceCodeParserImpl.get(SourceCodeParseMode.FULL).parseType(r, file);
+      }
+      // assert
+      List<? extends CodeMethod> methods = type.getMethods().getDeclared();
+      assertThat(methods.stream().map(x -> x.getName())).containsExactly("a", "b");
+      for (CodeMethod method : methods) {
+        CodeBlockBody body = method.getBody();
+        assertThat(body).isInstanceOf(BaseBlockBodyLazy.class);
+        assertThat(((BaseBlockBodyLazy) body).isLoaded()).isFalse();
+        assertThat(toCode(body.getStatements())).isEqualTo(parseEager(method.getName()));
+        assertThat(((BaseBlockBodyLazy) body).isLoaded()).isTrue();
+      }
+    }
+  }
+
+}
@@ -5,7 +5,13 @@ package io.github.mmm.code.impl.java.parser;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
@@ -119,7 +125,8 @@ class JavaSourceCodeParserImplTest extends AbstractBaseTypeTest {
     assertThat(type.getConstructors().getDeclared()).isEmpty();
     List<? extends CodeMethod> methods = type.getMethods().getDeclared();
     assertThat(methods.stream().map(x -> x.getName())).containsExactlyInAnyOrder("getParser", "getContext",
-        "createPackage", "createFile", "parse", "testMyself");
+        "createPackage", "createFile", "parse", "testMyself", "testConcurrent",
+        "testSupplementaryIdentifiers");
     for (CodeMethod method : methods) {
       if (method.getName().equals("createFile")) {
         assertThat(method.getModifiers().getVisibility()).isEqualTo(CodeVisibility.DEFAULT);
@@ -155,4 +162,67 @@ class JavaSourceCodeParserImplTest extends AbstractBaseTypeTest {
     }
   }
 
+  /**
+   * Test that identifiers with supplementary characters (surrogate pairs) are read as a whole.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  void testSupplementaryIdentifiers() throws Exception {
+
+    // arrange
+    String typeName = "\uD835\uDC9CType";
+    String fieldName = "\uD835\uDC9Cbc\uD835\uDC9E";
+    String methodName = "get\uD835\uDC9E";
+    String sourceCode = "package com.example;\n" //
+        + "\n" //
+        + "public class " + typeName + " {\n" //
+        + "\n" //
+        + "  private String " + fieldName + ";\n" //
+        + "\n" //
+        + "  public String " + methodName + "(String \uD835\uDC9C) {\n" //
+        + "    return this." + fieldName + ";\n" //
+        + "  }\n" //
+        + "}\n";
+    BaseFile file = createFile("com.example." + typeName);
+    BaseType type;
+    // act
+    try (Reader reader = new StringReader(sourceCode)) {
+      type = getParser().parseType(reader, file);
+    }
+    // assert
+    assertThat(type.getSimpleName()).isEqualTo(typeName);
+    assertThat(type.getFields().getDeclared().stream().map(x -> x.getName())).containsExactly(fieldName);
+    List<? extends CodeMethod> methods = type.getMethods().getDeclared();
+    assertThat(methods.stream().map(x -> x.getName())).containsExactly(methodName);
+    assertThat(methods.get(0).getParameters().getDeclared().get(0).getName()).isEqualTo("\uD835\uDC9C");
+  }
+
+  /**
+   * Test that {@link JavaSourceCodeParserImpl} can be used by multiple threads concurrently.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  void testConcurrent() throws Exception {
+
+    // arrange
+    Class<?> clazz = JavaSourceCodeParserImplTest.class;
+    List<Callable<BaseType>> tasks = Collections.nCopies(8, () -> parse(clazz));
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      // act
+      List<Future<BaseType>> results = executor.invokeAll(tasks);
+      // assert
+      for (Future<BaseType> result : results) {
+        BaseType type = result.get();
+        assertThat(type.getQualifiedName()).isEqualTo(clazz.getName());
+        assertThat(type.getMethods().getDeclared().stream().map(x -> x.getName())).contains("testMyself",
+            "testConcurrent");
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
 }
@@ -0,0 +1,137 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.impl.java.parser;
+
+import java.io.FileReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.mmm.code.api.member.CodeMethod;
+import io.github.mmm.code.api.type.CodeType;
+import io.github.mmm.code.base.BaseFile;
+import io.github.mmm.code.base.BasePackage;
+import io.github.mmm.code.base.parser.SourceCodeParseMode;
+import io.github.mmm.code.base.parser.SourceCodeParser;
+import io.github.mmm.code.base.type.BaseType;
+import io.github.mmm.code.impl.java.AbstractBaseTypeTest;
+import io.github.mmm.code.impl.java.JavaRootContext;
+import io.github.mmm.code.java.maven.api.MavenConstants;
+
+/**
+ * Test of {@link JavaSourceCodeParserImpl} with {@link SourceCodeParseMode#SIGNATURES}.
+ */
+class JavaSourceCodeParserSignaturesTest extends AbstractBaseTypeTest {
+
+  private static BaseFile createFile(String packageName, String simpleName) {
+
+    BasePackage pkg = JavaRootContext.get().getSource().getRootPackage();
+    for (String segment : packageName.split("\\.")) {
+      pkg = new BasePackage(pkg, segment, null, null, false);
+    }
+    return new BaseFile(pkg, simpleName);
+  }
+
+  /**
+   * Test of {@link SourceCodeParseMode#SIGNATURES} with the source of {@link JavaSourceCodeParserImplTest}.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  void testSignatures() throws Exception {
+
+    // arrange
+    SourceCodeParser parser = new JavaSourceCodeParserImpl(SourceCodeParseMode.SIGNATURES);
+    Class<?> clazz = JavaSourceCodeParserImplTest.class;
+    BaseFile file = createFile(clazz.getPackageName(), clazz.getSimpleName());
+    String path = MavenConstants.DEFAULT_TEST_SOURCE_DIRECTORY + "/" + clazz.getName().replace('.', '/') + ".java";
+    BaseType type;
+    // act
+    try (Reader reader = new FileReader(path)) {
+      type = parser.parseType(reader, file);
+    }
+    // assert
+    assertThat(type.getQualifiedName()).isEqualTo(clazz.getName());
+    List<? extends CodeMethod> methods = type.getMethods().getDeclared();
+    assertThat(methods.stream().map(x -> x.getName())).containsExactlyInAnyOrder("getParser", "getContext",
+        "createPackage", "createFile", "parse", "testMyself", "testConcurrent", "testSupplementaryIdentifiers");
+    for (CodeMethod method : methods) {
+      assertThat(method.getBody().getStatements()).isEmpty();
+    }
+  }
+
+  /**
+   * Test that skipping bodies is not confused by curly braces in string, text-block, and char literals, comments, or
+   * nested anonymous classes and that parsing continues with the next member after each body.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  void testSkipBlock() throws Exception {
+
+    // arrange
+    String sourceCode = "package com.example;\n" //
+        + "\n" //
+        + "public class Tricky {\n" //
+        + "\n" //
+        + "  private int before;\n" //
+        + "\n" //
+        + "  public void literals() {\n" //
+        + "    String s = \"}{\\\"}\";\n" //
+        + "    char c = '}';\n" //
+        + "    char q = '\\'';\n" //
+        + "    char b = '{';\n" //
+        + "    String t = \"\"\"\n" //
+        + "        } \\\"\"\" {\n" //
+        + "        \"\"\";\n" //
+        + "  }\n" //
+        + "\n" //
+        + "  public void comments() {\n" //
+        + "    // }\n" //
+        + "    /* } { } */\n" //
+        + "    /** } */\n" //
+        + "  }\n" //
+        + "\n" //
+        + "  public Runnable anonymous() {\n" //
+        + "    return new Runnable() {\n" //
+        + "      public void run() {\n" //
+        + "        new Object() {\n" //
+        + "          int x() { return '}'; }\n" //
+        + "        }.x();\n" //
+        + "      }\n" //
+        + "    };\n" //
+        + "  }\n" //
+        + "\n" //
+        + "  private int after;\n" //
+        + "\n" //
+        + "  public int last() { return \"}\".length(); }\n" //
+        + "\n" //
+        + "  public static class Nested {\n" //
+        + "    void nested() { char c = '{'; }\n" //
+        + "  }\n" //
+        + "}\n";
+    SourceCodeParser parser = new JavaSourceCodeParserImpl(SourceCodeParseMode.SIGNATURES);
+    BaseFile file = createFile("com.example", "Tricky");
+    BaseType type;
+    // act
+    try (Reader reader = new StringReader(sourceCode)) {
+      type = parser.parseType(reader, file);
+    }
+    // assert
+    assertThat(type.getQualifiedName()).isEqualTo("com.example.Tricky");
+    List<? extends CodeMethod> methods = type.getMethods().getDeclared();
+    assertThat(methods.stream().map(x -> x.getName())).containsExactly("literals", "comments", "anonymous", "last");
+    for (CodeMethod method : methods) {
+      assertThat(method.getBody().getStatements()).isEmpty();
+    }
+    assertThat(type.getFields().getDeclared().stream().map(x -> x.getName())).containsExactly("before", "after");
+    List<? extends CodeType> nestedTypes = type.getNestedTypes().getDeclared();
+    assertThat(nestedTypes).hasSize(1);
+    CodeType nested = nestedTypes.get(0);
+    assertThat(nested.getSimpleName()).isEqualTo("Nested");
+    assertThat(nested.getMethods().getDeclared().stream().map(x -> x.getName())).containsExactly("nested");
+  }
+
+}
@@ -0,0 +1,204 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.code.impl.java.source.maven;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.mmm.code.base.loader.SourceCodeProviderPrefetching;
+import io.github.mmm.code.base.type.BaseType;
+import io.github.mmm.code.impl.java.JavaContext;
+import io.github.mmm.code.impl.java.JavaRootContext;
+import io.github.mmm.code.impl.java.loader.JavaSourceLoader;
+
+/**
+ * Test of {@link JavaContextRegistry}.
+ */
+class JavaContextRegistryTest extends Assertions {
+
+  private static final File PROJECT_IMPL = new File(".");
+
+  private static final File PROJECT_MAVEN = new File("../maven");
+
+  private static final File PROJECT_TESTDATA = new File(
+      "target/test-classes/testdata/localmavenproject/maven.project/core");
+
+  /** Test that contexts of different projects share the parent context and the types of common dependencies. */
+  @Test
+  void testSharedParentReuse() {
+
+    // arrange
+    try (JavaContextRegistry registry = new JavaContextRegistry(Long.MAX_VALUE)) {
+
+      // act
+      JavaContext impl = registry.getContext(PROJECT_IMPL);
+      JavaContext maven = registry.getContext(PROJECT_MAVEN);
+
+      // assert
+      assertThat(registry.getContext(PROJECT_IMPL)).isSameAs(impl);
+      assertThat(maven).isNotSameAs(impl);
+      assertThat(impl.getParent()).isSameAs(registry.getSharedContext());
+      assertThat(maven.getParent()).isSameAs(registry.getSharedContext());
+      BaseType model = impl.getType("org.apache.maven.model.Model");
+      assertThat(model).isNotNull();
+      assertThat(maven.getType("org.apache.maven.model.Model")).isSameAs(model);
+      assertThat(registry.size()).isEqualTo(2);
+    }
+  }
+
+  /** Test that the least recently used context is closed when a new context exceeds the budget. */
+  @Test
+  void testEvictionOnGetContext() {
+
+    // arrange
+    try (JavaContextRegistry registry = new FixedSizeRegistry(350)) {
+      JavaContext impl = registry.getContext(PROJECT_IMPL);
+      JavaContext maven = registry.getContext(PROJECT_MAVEN);
+      assertThat(registry.getContext(PROJECT_IMPL)).isSameAs(impl);
+
+      // act
+      JavaContext testdata = registry.getContext(PROJECT_TESTDATA);
+
+      // assert
+      assertThat(registry.size()).isEqualTo(2);
+      assertThat(registry.getRetainedSize()).isEqualTo(300);
+      assertThat(registry.getContext(PROJECT_TESTDATA)).isSameAs(testdata);
+      assertThat(registry.getContext(PROJECT_IMPL)).isSameAs(impl);
+      assertThat(registry.getContext(PROJECT_MAVEN)).isNotSameAs(maven);
+    }
+  }
+
+  /** Test that a leased context is never closed to fit into the budget until its lease is closed. */
+  @Test
+  void testLeasePreventsEviction() {
+
+    // arrange
+    try (JavaContextRegistry registry = new FixedSizeRegistry(350)) {
+      JavaContextRegistry.Lease lease = registry.lease(PROJECT_IMPL);
+      JavaContext impl = lease.getContext();
+      JavaContext maven = registry.getContext(PROJECT_MAVEN);
+
+      // act
+      registry.getContext(PROJECT_TESTDATA);
+
+      // assert
+      assertThat(registry.size()).isEqualTo(2);
+      assertThat(registry.getContext(PROJECT_IMPL)).isSameAs(impl);
+      assertThat(registry.getContext(PROJECT_MAVEN)).isNotSameAs(maven);
+      assertThat(registry.size()).isEqualTo(2);
+      lease.close();
+      registry.getContext(PROJECT_TESTDATA);
+      assertThat(registry.getContext(PROJECT_IMPL)).isNotSameAs(impl);
+    }
+  }
+
+  /** Test that no dependencies are shared if a class loader is built for each project. */
+  @Test
+  void testBuildClassLoaderWithoutSharing() {
+
+    // arrange
+    try (JavaContextRegistry registry = new JavaContextRegistry(Long.MAX_VALUE, true)) {
+
+      // act
+      JavaContext testdata = registry.getContext(PROJECT_TESTDATA);
+
+      // assert
+      assertThat(testdata.getParent()).isSameAs(JavaRootContext.get());
+      assertThat(testdata.getClassLoader()).isInstanceOf(MavenClassLoader.class);
+    }
+  }
+
+  /**
+   * Test that the budget is also enforced in the background while a context grows by loading types.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  void testEvictionOnTypeLoad() throws Exception {
+
+    // arrange
+    try (GrowingRegistry registry = new GrowingRegistry()) {
+      registry.getContext(PROJECT_MAVEN);
+      JavaContext impl = registry.getContext(PROJECT_IMPL);
+      assertThat(registry.size()).isEqualTo(2);
+
+      // act
+      impl.getType(JavaContext.class.getName());
+      impl.getType(JavaContextRegistry.class.getName());
+      impl.getType(JavaSourceProviderUsingMaven.class.getName());
+      long timeout = System.currentTimeMillis() + 10000;
+      while ((registry.size() > 1) && (System.currentTimeMillis() < timeout)) {
+        Thread.sleep(10);
+      }
+
+      // assert
+      assertThat(registry.size()).isEqualTo(1);
+      assertThat(registry.getContext(PROJECT_IMPL)).isSameAs(impl);
+    }
+  }
+
+  /** Test that the sources of the contexts prefetch the source-code of imported types if enabled. */
+  @Test
+  void testPrefetchImports() {
+
+    // arrange
+    try (JavaContextRegistry registry = new JavaContextRegistry(Long.MAX_VALUE)) {
+      registry.setPrefetchImports(true);
+
+      // act
+      JavaContext impl = registry.getContext(PROJECT_IMPL);
+      BaseType type = impl.getType(JavaContextRegistry.class.getName());
+
+      // assert
+      assertThat(type).isNotNull();
+      JavaSourceLoader loader = (JavaSourceLoader) impl.getSource().getLoader();
+      assertThat(loader.getSourceCodeProvider()).isInstanceOf(SourceCodeProviderPrefetching.class);
+      assertThat(type.getMethods().getDeclared()).isNotEmpty();
+    }
+  }
+
+  private static class FixedSizeRegistry extends JavaContextRegistry {
+
+    private FixedSizeRegistry(long budget) {
+
+      super(budget);
+    }
+
+    @Override
+    protected long estimateRetainedSize(JavaContext context) {
+
+      return 100;
+    }
+  }
+
+  /** Registry that only counts the types that have been loaded since a context was estimated first. */
+  private static class GrowingRegistry extends JavaContextRegistry {
+
+    private final Map<JavaContext, Integer> initialSizes;
+
+    private GrowingRegistry() {
+
+      super(2);
+      this.initialSizes = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    protected int getSweepInterval() {
+
+      return 1;
+    }
+
+    @Override
+    protected long estimateRetainedSize(JavaContext context) {
+
+      int size = context.getTypeCacheSize();
+      int initialSize = this.initialSizes.computeIfAbsent(context, c -> Integer.valueOf(size)).intValue();
+      return Math.max(0, size - initialSize);
+    }
+  }
+
+}
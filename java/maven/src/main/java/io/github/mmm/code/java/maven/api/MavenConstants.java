@@ -67,6 +67,21 @@ public interface MavenConstants {
   /** Default for {@link org.apache.maven.model.Build#getDirectory()} */
   String DEFAULT_BUILD_DIRECTORY = "target";
 
+  /** Folder-name in {@link org.apache.maven.model.Build#getDirectory()} for generated sources. */
+  String GENERATED_SOURCES_FOLDER = "generated-sources";
+
+  /** Folder-name in {@link org.apache.maven.model.Build#getDirectory()} for generated test sources. */
+  String GENERATED_TEST_SOURCES_FOLDER = "generated-test-sources";
+
+  /** {@link org.apache.maven.model.Plugin#getKey() Key} of the {@code build-helper-maven-plugin}. */
+  String BUILD_HELPER_PLUGIN_KEY = "org.codehaus.mojo:build-helper-maven-plugin";
+
+  /** Goal of the {@code build-helper-maven-plugin} to add source directories. */
+  String GOAL_ADD_SOURCE = "add-source";
+
+  /** Goal of the {@code build-helper-maven-plugin} to add test source directories. */
+  String GOAL_ADD_TEST_SOURCE = "add-test-source";
+
   /** Default folder-name for {@link org.apache.maven.model.Build#getOutputDirectory()} */
   String DEFAULT_OUTPUT_FOLDER = "classes";
 
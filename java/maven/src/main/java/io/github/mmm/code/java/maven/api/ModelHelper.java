@@ -3,10 +3,15 @@
 package io.github.mmm.code.java.maven.api;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.maven.model.Build;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.Parent;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
 
 /**
  * Simple helper to deal with maven {@link Model} objects.
@@ -50,6 +55,63 @@ public class ModelHelper implements MavenConstants {
     return getDirectory(model, testSourceDirectory);
   }
 
+  /**
+   * @param model the {@link Model}.
+   * @return the {@link List} of additional existing source directories beside the {@link #getSourceDirectory(Model)
+   *         source directory}. These are the folders in {@code generated-sources} of the
+   *         {@link #getBuildDirectory(Model) build directory} and the sources added via {@code build-helper-maven-plugin}.
+   */
+  public static List<File> getAdditionalSourceDirectories(Model model) {
+
+    return getAdditionalSourceDirectories(model, GENERATED_SOURCES_FOLDER, GOAL_ADD_SOURCE);
+  }
+
+  /**
+   * @param model the {@link Model}.
+   * @return the {@link List} of additional existing test source directories beside the
+   *         {@link #getTestSourceDirectory(Model) test source directory}. These are the folders in
+   *         {@code generated-test-sources} of the {@link #getBuildDirectory(Model) build directory} and the sources added
+   *         via {@code build-helper-maven-plugin}.
+   */
+  public static List<File> getAdditionalTestSourceDirectories(Model model) {
+
+    return getAdditionalSourceDirectories(model, GENERATED_TEST_SOURCES_FOLDER, GOAL_ADD_TEST_SOURCE);
+  }
+
+  private static List<File> getAdditionalSourceDirectories(Model model, String generatedFolder, String goal) {
+
+    List<File> directories = new ArrayList<>();
+    File[] generatedDirectories = new File(getBuildDirectory(model), generatedFolder).listFiles(File::isDirectory);
+    if (generatedDirectories != null) {
+      for (File directory : generatedDirectories) {
+        directories.add(directory);
+      }
+    }
+    Build build = model.getBuild();
+    if (build != null) {
+      Plugin plugin = build.getPluginsAsMap().get(BUILD_HELPER_PLUGIN_KEY);
+      if (plugin != null) {
+        for (PluginExecution execution : plugin.getExecutions()) {
+          if (execution.getGoals().contains(goal) && (execution.getConfiguration() instanceof Xpp3Dom)) {
+            Xpp3Dom sources = ((Xpp3Dom) execution.getConfiguration()).getChild("sources");
+            if (sources != null) {
+              for (Xpp3Dom source : sources.getChildren("source")) {
+                String path = source.getValue();
+                if (path != null) {
+                  File directory = getDirectory(model, path.trim());
+                  if (directory.isDirectory() && !directories.contains(directory)) {
+                    directories.add(directory);
+                  }
+                }
+              }
+            }
+          }
+        }
+      }
+    }
+    return directories;
+  }
+
   /**
    * @param model the {@link Model}.
    * @return the {@link Build#getDirectory() build directory} as {@link File}.